@@ -0,0 +1,32 @@
+package lebron.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Cleans up the temporary data folders the benchmarks create.
+ */
+final class BenchmarkFiles {
+    private BenchmarkFiles() {
+    }
+
+    /**
+     * Deletes a folder and everything in it.
+     *
+     * @param dir the folder to delete
+     * @throws IOException if something cannot be deleted
+     */
+    static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package lebron.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.common.LeBronException;
+import lebron.util.DateTimeParser;
+
+/**
+ * Measures reading each date format, in the usual layout and in one that has to go through the formatter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeParserBenchmark {
+
+    @Benchmark
+    public LocalDateTime dateTime() throws LeBronException {
+        return DateTimeParser.parseDateTime("2024-12-25 1830");
+    }
+
+    @Benchmark
+    public LocalDateTime dateTimeEndOfDay() throws LeBronException {
+        // "2400" is only understood by the formatter
+        return DateTimeParser.parseDateTime("2024-12-25 2400");
+    }
+
+    @Benchmark
+    public LocalDateTime stored() throws LeBronException {
+        return DateTimeParser.parseFromStorage("2024-12-25T18:30");
+    }
+
+    @Benchmark
+    public LocalDate date() throws LeBronException {
+        return DateTimeParser.parseDate("2024-12-25");
+    }
+
+    @Benchmark
+    public LocalDate dayMonthYear() throws LeBronException {
+        return DateTimeParser.parseDateFromDDMMYYYY("25 12 2024");
+    }
+}
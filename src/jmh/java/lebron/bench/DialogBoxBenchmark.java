@@ -0,0 +1,108 @@
+package lebron.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import lebron.gui.DialogBox;
+
+/**
+ * Measures the cost of building the dialog box for one message.
+ * The legacy benchmarks build the box the way the app used to: parsing the FXML layout and decoding
+ * the avatar again for every message. The others use the shared image and build the box in code.
+ * Needs a display, or a software pipeline such as {@code -Dprism.order=sw} with Monocle when headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogBoxBenchmark {
+    private static final String MESSAGE = "Got it. I've added this task:";
+    private static final String AVATAR = "/images/lebron.png";
+
+    private Image sharedImage;
+
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // The toolkit is already running from an earlier trial in this fork
+        }
+        sharedImage = loadAvatar();
+    }
+
+    @Benchmark
+    public HBox legacyFxmlAndImage() throws IOException {
+        return loadLegacy(MESSAGE, loadAvatar());
+    }
+
+    @Benchmark
+    public HBox legacyFxml() throws IOException {
+        return loadLegacy(MESSAGE, sharedImage);
+    }
+
+    @Benchmark
+    public DialogBox userDialog() {
+        return DialogBox.getUserDialog(MESSAGE, sharedImage);
+    }
+
+    @Benchmark
+    public DialogBox replyDialog() {
+        return DialogBox.getDukeDialog(MESSAGE, sharedImage);
+    }
+
+    private static Image loadAvatar() {
+        InputStream stream = DialogBoxBenchmark.class.getResourceAsStream(AVATAR);
+        return new Image(stream);
+    }
+
+    /**
+     * Builds a dialog box from the FXML layout the app used before it built them in code.
+     *
+     * @param text the message
+     * @param img the avatar
+     * @return the dialog box
+     */
+    private static HBox loadLegacy(String text, Image img) throws IOException {
+        FXMLLoader loader = new FXMLLoader(DialogBoxBenchmark.class.getResource("LegacyDialogBox.fxml"));
+        LegacyDialogBox controller = new LegacyDialogBox();
+        HBox root = new HBox();
+        loader.setController(controller);
+        loader.setRoot(root);
+        loader.load();
+        controller.dialog.setText(text);
+        controller.displayPicture.setImage(img);
+        return root;
+    }
+
+    /**
+     * Receives the nodes of the legacy layout.
+     */
+    private static class LegacyDialogBox {
+        @FXML
+        private Label dialog;
+        @FXML
+        private ImageView displayPicture;
+    }
+}
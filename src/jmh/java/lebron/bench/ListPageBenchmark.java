@@ -0,0 +1,59 @@
+package lebron.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.command.ListCommand;
+import lebron.task.TaskList;
+import lebron.ui.ListCursor;
+import lebron.ui.Ui;
+
+/**
+ * Measures rendering "list" in full against rendering one page of it, on lists of different sizes.
+ * The time for a page should stay the same as the list grows, while the full listing grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListPageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private TaskList taskList;
+    private int middlePage;
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup
+    public void setUp() {
+        taskList = new TaskList(TaskGenerator.generate(size));
+        middlePage = size / ListCursor.DEFAULT_PAGE_SIZE / 2;
+    }
+
+    @Benchmark
+    public int listAll() {
+        out.setLength(0);
+        new ListCommand().execute(taskList, new Ui(out), null);
+        return out.length();
+    }
+
+    @Benchmark
+    public int listMiddlePage() {
+        out.setLength(0);
+        new ListCommand(middlePage, 0).execute(taskList, new Ui(out), null);
+        return out.length();
+    }
+}
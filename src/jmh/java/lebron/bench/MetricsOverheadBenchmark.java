@@ -0,0 +1,64 @@
+package lebron.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.common.CommandType;
+import lebron.metrics.MetricsRegistry;
+import lebron.metrics.Phase;
+
+/**
+ * Measures what timing one command costs: the clock reads and histogram updates TaskManager adds around
+ * every command, without the command itself. Should stay well under a microsecond, also with several
+ * threads recording into the same histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    private static final String INPUT = "deadline submit report /by 2024-12-25 1800";
+    // TaskManager files a command under the type found while parsing it, so it is only looked up once
+    private static final CommandType TYPE = CommandType.parseCommand(INPUT);
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    @Benchmark
+    public void timeCommand() {
+        recordOneCommand();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timeCommandContended() {
+        recordOneCommand();
+    }
+
+    /**
+     * Does the same timing work as TaskManager does for a command that changes the list.
+     */
+    private void recordOneCommand() {
+        long start = System.nanoTime();
+        long parsed = System.nanoTime();
+        metrics.recordPhase(Phase.PARSE, parsed - start);
+        long executeStart = System.nanoTime();
+        long executeEnd = System.nanoTime();
+        metrics.recordPhase(Phase.EXECUTE, executeEnd - executeStart);
+        metrics.recordPhase(Phase.PERSIST, executeEnd - parsed);
+        metrics.recordCommand(TYPE, System.nanoTime() - start, false);
+        long renderStart = System.nanoTime();
+        metrics.recordPhase(Phase.RENDER, System.nanoTime() - renderStart);
+    }
+}
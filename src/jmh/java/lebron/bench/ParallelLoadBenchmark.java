@@ -0,0 +1,69 @@
+package lebron.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.storage.FileManager;
+import lebron.storage.SnapshotFormat;
+import lebron.task.Task;
+
+/**
+ * Measures how loading a large text snapshot scales with the number of threads parsing it.
+ * Each load runs inside a fork/join pool of the given parallelism, which the loader splits its work across.
+ * With enough cores, the time should drop close to 1/parallelism of the single-threaded time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ParallelLoadBenchmark {
+    @Param({"1000000", "4000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private Path dataDir;
+    private FileManager fileManager;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("lebron-bench");
+        fileManager = new FileManager(dataDir.toString(), SnapshotFormat.TEXT);
+        fileManager.saveTasks(TaskGenerator.generate(size));
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        fileManager.close();
+        BenchmarkFiles.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadTasks() throws InterruptedException, ExecutionException {
+        return pool.submit(fileManager::loadTasks).get();
+    }
+}
@@ -0,0 +1,63 @@
+package lebron.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.command.CommandRegistry;
+import lebron.common.CommandType;
+import lebron.common.LeBronException;
+import lebron.ui.Parser;
+
+/**
+ * Measures how long it takes to recognise each kind of command, and to turn it into a command object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({
+        "bye",
+        "list",
+        "list 25 12 2024",
+        "mark 12",
+        "unmark 12",
+        "delete 12",
+        "todo read book",
+        "deadline submit report /by 2024-12-25 1800",
+        "event team meeting /from 2024-12-25 1400 /to 2024-12-25 1600",
+        "on 2024-12-25",
+        "find book",
+        "dance",
+    })
+    public String input;
+
+    private final CommandRegistry registry = new CommandRegistry();
+
+    @Benchmark
+    public CommandType parseCommand() {
+        return Parser.parseCommand(input);
+    }
+
+    @Benchmark
+    public Object parse() {
+        try {
+            return registry.parse(input);
+        } catch (LeBronException e) {
+            // Unknown commands are part of the mix, so the failure is the result
+            return e;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package lebron.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.storage.FileManager;
+import lebron.storage.SnapshotFormat;
+import lebron.task.Task;
+
+/**
+ * Measures loading and saving the whole task list in each snapshot format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public SnapshotFormat format;
+
+    private Path dataDir;
+    private FileManager fileManager;
+    private ArrayList<Task> tasks;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("lebron-bench");
+        fileManager = new FileManager(dataDir.toString(), format);
+        tasks = TaskGenerator.generate(size);
+        fileManager.saveTasks(tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fileManager.close();
+        BenchmarkFiles.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public ArrayList<Task> loadTasks() throws IOException {
+        return fileManager.loadTasks();
+    }
+
+    @Benchmark
+    public void saveTasks() throws IOException {
+        fileManager.saveTasks(tasks);
+    }
+}
@@ -0,0 +1,121 @@
+package lebron.bench;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.ToDo;
+
+/**
+ * Builds synthetic task lists for the benchmarks.
+ * Lists are an even mix of todos, deadlines and events with short descriptions drawn from a fixed
+ * vocabulary, spread over two years, so keyword and date searches behave like they would on real data.
+ * The same size and seed always give the same list.
+ */
+public final class TaskGenerator {
+    /** First day any generated deadline or event can fall on */
+    public static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    /** Number of days the generated dates are spread over */
+    public static final int DAYS = 730;
+    /** A word that appears in roughly one description in ten */
+    public static final String COMMON_WORD = "report";
+    /** A word that appears in roughly one description in a thousand */
+    public static final String RARE_WORD = "xylophone";
+
+    private static final long DEFAULT_SEED = 42;
+    private static final int RARE_WORD_PERIOD = 1000;
+    private static final String[] WORDS = {
+        "read", "book", "buy", "groceries", "submit", COMMON_WORD, "call", "mom", "team", "meeting",
+        "review", "pull", "request", "pay", "rent", "clean", "room", "gym", "session", "plan",
+        "trip", "fix", "bug", "write", "essay", "water", "plants", "email", "project", "lecture",
+    };
+    private static final int MAX_EVENT_DAYS = 3;
+
+    private TaskGenerator() {
+    }
+
+    /**
+     * Generates a task list with the default seed.
+     *
+     * @param count the number of tasks
+     * @return the generated tasks
+     */
+    public static ArrayList<Task> generate(int count) {
+        return generate(count, DEFAULT_SEED);
+    }
+
+    /**
+     * Generates a task list.
+     *
+     * @param count the number of tasks
+     * @param seed the random seed
+     * @return the generated tasks
+     */
+    public static ArrayList<Task> generate(int count, long seed) {
+        Random random = new Random(seed);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = createTask(i, random);
+            if (random.nextInt(2) == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Gets a date in the middle of the generated range, which some tasks always fall on.
+     *
+     * @return a date to search for
+     */
+    public static LocalDate sampleDate() {
+        return FIRST_DAY.plusDays(DAYS / 2);
+    }
+
+    /**
+     * Creates the task at the given position, cycling through todos, deadlines and events.
+     *
+     * @param i the position of the task in the list
+     * @param random the source of descriptions and dates
+     * @return the new task
+     */
+    private static Task createTask(int i, Random random) {
+        String description = createDescription(i, random);
+        LocalDateTime start = FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), 0);
+        switch (i % 3) {
+        case 0:
+            return new ToDo(description);
+        case 1:
+            return new Deadline(description, start);
+        default:
+            return new Event(description, start, start.plusDays(random.nextInt(MAX_EVENT_DAYS)).plusHours(1));
+        }
+    }
+
+    /**
+     * Strings a few random words together, adding the rare word to every thousandth task.
+     *
+     * @param i the position of the task in the list
+     * @param random the source of words
+     * @return the description
+     */
+    private static String createDescription(int i, Random random) {
+        StringBuilder description = new StringBuilder();
+        int wordCount = 2 + random.nextInt(4);
+        for (int w = 0; w < wordCount; w++) {
+            if (w > 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (i % RARE_WORD_PERIOD == 0) {
+            description.append(' ').append(RARE_WORD);
+        }
+        return description.toString();
+    }
+}
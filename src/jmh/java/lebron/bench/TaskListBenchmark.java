@@ -0,0 +1,64 @@
+package lebron.bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.task.TaskList;
+
+/**
+ * Measures keyword and date searches on lists of different sizes.
+ * The indexes are built during setup, so only the searches themselves are timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskListBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private TaskList taskList;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        taskList = new TaskList(TaskGenerator.generate(size));
+        date = TaskGenerator.sampleDate();
+        taskList.findTasksByKeyword(TaskGenerator.COMMON_WORD);
+        taskList.getTasksOnDate(date);
+    }
+
+    @Benchmark
+    public TaskList findCommonWord() {
+        return taskList.findTasksByKeyword(TaskGenerator.COMMON_WORD);
+    }
+
+    @Benchmark
+    public TaskList findRareWord() {
+        return taskList.findTasksByKeyword(TaskGenerator.RARE_WORD);
+    }
+
+    @Benchmark
+    public TaskList findShortKeyword() {
+        return taskList.findTasksByKeyword("ok");
+    }
+
+    @Benchmark
+    public TaskList getTasksOnDate() {
+        return taskList.getTasksOnDate(date);
+    }
+}
@@ -0,0 +1,73 @@
+package lebron.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.task.TaskLayout;
+import lebron.task.TaskList;
+
+/**
+ * Measures how much heap a loaded task list keeps alive in each layout.
+ * Each run builds one list and reports the heap it retains as the bytesPerTask counter,
+ * measured after full collections before and after the list is built. The time is only how long
+ * the list takes to build. Compare the counters, e.g. ./gradlew jmh -PjmhArgs="TaskListFootprintBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TaskListFootprintBenchmark {
+    private static final int COLLECTIONS = 3;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"OBJECTS", "COMPACT"})
+    public TaskLayout layout;
+
+    /**
+     * The heap kept alive by the list built in one run.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerTask;
+    }
+
+    @Benchmark
+    public TaskList build(Footprint footprint) {
+        long before = usedHeapAfterCollecting();
+        TaskList taskList = new TaskList(TaskGenerator.generate(size), layout);
+        long after = usedHeapAfterCollecting();
+        footprint.bytesPerTask = (after - before) / size;
+        return taskList;
+    }
+
+    /**
+     * Collects garbage a few times, then reads how much of the heap is in use.
+     *
+     * @return the heap in use, in bytes
+     */
+    private static long usedHeapAfterCollecting() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < COLLECTIONS; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,120 @@
+package lebron.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lebron.TaskManager;
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+
+/**
+ * Measures a whole command, from parsing to the finished response, for each kind of command.
+ * Changes are journaled in the background just like in the app.
+ * Commands that add a task also delete it again, so the list keeps the same size throughout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskManagerBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path dataDir;
+    private Storage storage;
+    private TaskManager taskManager;
+    private String deleteLast;
+    private String listDate;
+    private String onDate;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataDir = Files.createTempDirectory("lebron-bench");
+        FileManager fileManager = new FileManager(dataDir.toString());
+        fileManager.saveTasks(TaskGenerator.generate(size));
+        storage = new Storage(fileManager);
+        taskManager = new TaskManager(storage);
+
+        deleteLast = "delete " + (size + 1);
+        LocalDate date = TaskGenerator.sampleDate();
+        listDate = String.format("list %02d %02d %d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+        onDate = "on " + date;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        BenchmarkFiles.deleteRecursively(dataDir);
+    }
+
+    @Benchmark
+    public String list() {
+        return taskManager.processCommand("list");
+    }
+
+    @Benchmark
+    public String listOnDate() {
+        return taskManager.processCommand(listDate);
+    }
+
+    @Benchmark
+    public String on() {
+        return taskManager.processCommand(onDate);
+    }
+
+    @Benchmark
+    public String find() {
+        return taskManager.processCommand("find " + TaskGenerator.RARE_WORD);
+    }
+
+    @Benchmark
+    public String mark() {
+        return taskManager.processCommand("mark 1");
+    }
+
+    @Benchmark
+    public String unmark() {
+        return taskManager.processCommand("unmark 1");
+    }
+
+    @Benchmark
+    public String todoThenDelete() {
+        taskManager.processCommand("todo benchmark task");
+        return taskManager.processCommand(deleteLast);
+    }
+
+    @Benchmark
+    public String deadlineThenDelete() {
+        taskManager.processCommand("deadline benchmark task /by 2024-12-25 1800");
+        return taskManager.processCommand(deleteLast);
+    }
+
+    @Benchmark
+    public String eventThenDelete() {
+        taskManager.processCommand("event benchmark task /from 2024-12-25 1400 /to 2024-12-25 1600");
+        return taskManager.processCommand(deleteLast);
+    }
+
+    @Benchmark
+    public String unknownCommand() {
+        return taskManager.processCommand("dance");
+    }
+}
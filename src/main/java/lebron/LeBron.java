@@ -1,23 +1,83 @@
 package lebron;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+import lebron.task.DescriptionPool;
+import lebron.ui.Response;
+
 /**
  * A personal task manager that helps you keep track of your todos, deadlines, and events.
  * You can add tasks, mark them as done, delete them, and list everything you need to do.
  *
  * Just type commands like "todo read book" or "deadline submit report /by Friday"
  * and LeBron will help you stay organized!
+ *
+ * Run with "--batch [file]" to run a script of commands from the file, or from standard input,
+ * as fast as possible. The output is the same as typing the commands in, and a summary of how
+ * long they took goes to standard error.
  */
 public class LeBron {
-    private static final TaskManager SHARED_TASK_MANAGER = new TaskManager();
+    private static final String BATCH_FLAG = "--batch";
+    // A batch keeps its changes in memory this long before writing them, unless it flushes sooner
+    private static final long BATCH_MAX_DELAY_MILLIS = 10_000;
+    private static final int BATCH_OUTPUT_BUFFER_SIZE = 1 << 16;
 
     /**
      * Starts the LeBron task manager.
      * Uses the shared TaskManager instance for consistency.
      *
-     * @param args command line arguments (not used)
+     * @param args "--batch" and an optional script file to run a script, or nothing to run interactively
      */
     public static void main(String[] args) {
-        SHARED_TASK_MANAGER.run();
+        if (args.length > 0 && args[0].equals(BATCH_FLAG)) {
+            runBatch(args.length > 1 ? args[1] : null);
+        } else {
+            SharedTaskManager.INSTANCE.run();
+        }
+    }
+
+    /**
+     * Runs a script of commands and reports how long it took.
+     *
+     * @param scriptPath the script to run, or null to read it from standard input
+     */
+    private static void runBatch(String scriptPath) {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(), BATCH_MAX_DELAY_MILLIS));
+        taskManager.closeOnShutdown();
+        long start = System.nanoTime();
+        try (BufferedReader in = scriptPath == null
+                ? new BufferedReader(new InputStreamReader(System.in))
+                : Files.newBufferedReader(Paths.get(scriptPath))) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), BATCH_OUTPUT_BUFFER_SIZE);
+            long commandCount = taskManager.runBatch(in, out);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("Ran %d commands in %.3f s (%.0f commands/s)%n",
+                    commandCount, seconds, commandCount / Math.max(seconds, 1e-9));
+            if (DescriptionPool.getShared() != null) {
+                System.err.println(DescriptionPool.getShared().formatStats());
+            }
+        } catch (IOException e) {
+            System.err.println("Could not run the script: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts loading the saved tasks in the background, so they are ready sooner for the first command.
+     * Returns straight away; commands typed before the load finishes wait for it.
+     */
+    public void startLoading() {
+        // Creating the shared task manager is what starts the load
+        SharedTaskManager.INSTANCE.isLoaded();
     }
 
     /**
@@ -28,6 +88,35 @@ public class LeBron {
      * @return the response from processing the command
      */
     public String getResponse(String input) {
-        return SHARED_TASK_MANAGER.processCommand(input);
+        return SharedTaskManager.INSTANCE.processCommand(input);
+    }
+
+    /**
+     * Generates a structured response, with any listed tasks kept apart from the message text.
+     *
+     * @param input the user's command input
+     * @return the response from processing the command
+     */
+    public Response getStructuredResponse(String input) {
+        return SharedTaskManager.INSTANCE.respond(input);
+    }
+
+    /**
+     * Holds the shared TaskManager, which is only created the first time it is used,
+     * so a batch run never opens the data files twice.
+     */
+    private static class SharedTaskManager {
+        private static final TaskManager INSTANCE = create();
+
+        /**
+         * Creates the shared TaskManager, which is closed on exit whether or not the user said "bye".
+         *
+         * @return the shared TaskManager
+         */
+        private static TaskManager create() {
+            TaskManager taskManager = new TaskManager();
+            taskManager.closeOnShutdown();
+            return taskManager;
+        }
     }
 }
@@ -1,38 +1,79 @@
 package lebron;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-import lebron.command.AddDeadlineCommand;
-import lebron.command.AddEventCommand;
-import lebron.command.AddTodoCommand;
+import lebron.command.BeginCommand;
 import lebron.command.Command;
-import lebron.command.DeleteCommand;
-import lebron.command.ExitCommand;
-import lebron.command.FindCommand;
-import lebron.command.ListCommand;
-import lebron.command.MarkCommand;
-import lebron.command.OnCommand;
-import lebron.command.UnmarkCommand;
+import lebron.command.CommandKey;
+import lebron.command.CommandRegistry;
+import lebron.command.CommitCommand;
+import lebron.command.ProfileCommand;
+import lebron.command.RollbackCommand;
+import lebron.command.StatsCommand;
+import lebron.command.Transactions;
 import lebron.common.CommandType;
 import lebron.common.ErrorType;
 import lebron.common.LeBronException;
+import lebron.metrics.CommandEvent;
+import lebron.metrics.MetricsRegistry;
+import lebron.metrics.Phase;
+import lebron.metrics.Profiler;
+import lebron.storage.FileManager;
 import lebron.storage.Storage;
+import lebron.task.TaskLayout;
+import lebron.task.Task;
 import lebron.task.TaskList;
+import lebron.task.TransactionView;
+import lebron.ui.ListCursor;
 import lebron.ui.Parser;
+import lebron.ui.Response;
 import lebron.ui.Ui;
 
 /**
  * Main orchestrator for the LeBron task manager application.
  * Coordinates all components and handles the main program loop.
+ *
+ * Saved tasks are loaded on a background thread as soon as the task manager is created, so the prompt
+ * or window is ready straight away however large the task file is. Commands that need the tasks wait
+ * for the load to finish, while "status" answers at once with how far it has got. If the load fails,
+ * commands that change the list are refused, since their saved changes would refer to the wrong tasks.
+ *
+ * A transaction keeps its changes in a view of the list that only the session that began it can see, so other
+ * sessions carry on as usual while it is open. Committing makes the changes to the shared list all at once,
+ * unless a task the transaction marked or unmarked was deleted elsewhere meanwhile, in which case it is rolled back.
+ *
+ * Every command is timed, phase by phase, and "stats" shows the latency percentiles.
+ * Commands, loads, saves and index builds are also flight recorder events, which "profile start" records.
  */
 public class TaskManager {
-    
-    // Command length constants for parsing
-    private static final int MARK_COMMAND_LENGTH = 5;
-    private static final int UNMARK_COMMAND_LENGTH = 7;
-    private static final int DELETE_COMMAND_LENGTH = 7;
+    // How many batch commands may run before their changes are asked to be written
+    private static final int BATCH_COMMIT_INTERVAL = 10_000;
+    // Each thread reuses one buffer for the responses it collects in processCommand
+    private static final ThreadLocal<StringBuilder> RESPONSE_BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+    // Commands that change the list run one at a time, so the journal records changes in the order they happened
+    private final ReentrantReadWriteLock commandLock = new ReentrantReadWriteLock();
+    private final CommandRegistry commandRegistry = new CommandRegistry();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final Profiler profiler = new Profiler();
+    // Where "list next" carries on from for the single user of processCommand(String) and respond
+    private final ListCursor listCursor = new ListCursor();
+    // Completes once the saved tasks have replaced the empty list the task manager starts with
+    private final CompletableFuture<Void> loading = new CompletableFuture<>();
+    // Set before the load completes if it failed; changes are then refused so they can't be saved over the tasks
+    private volatile boolean isLoadFailed;
+    // Each session's open transaction, keyed by the thread the session runs its commands on
+    private final Map<Thread, TransactionView> transactions = new ConcurrentHashMap<>();
+    // Closes the task manager if the JVM exits first, or null if it was never asked to
+    private volatile Thread shutdownHook;
     private TaskList taskList;
     private Ui ui;
     private Storage storage;
@@ -42,136 +83,456 @@ public class TaskManager {
      * Creates a new TaskManager with default components.
      */
     public TaskManager() {
+        this(new Storage());
+    }
+
+    /**
+     * Creates a new TaskManager that keeps its tasks in the given storage.
+     * Starts loading the saved tasks in the background and returns without waiting for them.
+     *
+     * @param storage the storage to load tasks from and record changes to
+     */
+    public TaskManager(Storage storage) {
         this.ui = new Ui();
-        this.storage = new Storage();
+        this.storage = storage;
         this.taskList = new TaskList();
         this.scanner = new Scanner(System.in);
-        loadTasks(); // Load tasks for GUI usage
+        Transactions sessionTransactions = new SessionTransactions();
+        commandRegistry.register(CommandType.BEGIN, (input, argStart) -> new BeginCommand(sessionTransactions));
+        commandRegistry.register(CommandType.COMMIT, (input, argStart) -> new CommitCommand(sessionTransactions));
+        commandRegistry.register(CommandType.ROLLBACK, (input, argStart) ->
+                new RollbackCommand(sessionTransactions));
+        commandRegistry.register(CommandType.STATS, (input, argStart) -> new StatsCommand(metrics));
+        commandRegistry.register(CommandType.PROFILE, (input, argStart) ->
+                new ProfileCommand(profiler, Parser.parseProfileCommand(input, argStart)));
+        metrics.startDumpingFromSystemProperties();
+        Thread loader = new Thread(this::loadTasks, "lebron-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Makes sure pending changes are written and a running profile is saved if the JVM exits
+     * before the task manager closes, for example on Ctrl-C. Meant for the one task manager a program runs;
+     * the hook is removed again once the task manager closes normally.
+     */
+    public synchronized void closeOnShutdown() {
+        if (shutdownHook != null) {
+            return;
+        }
+        shutdownHook = new Thread(this::closeForShutdown, "lebron-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
     /**
      * Starts the task manager application.
-     * Loads existing tasks, shows welcome message, and enters main loop.
+     * Shows the welcome message straight away and enters the main loop while the saved tasks load.
      */
     public void run() {
-        loadTasks();
         ui.showWelcome();
 
+        // Each reply is collected first and printed in one go, so printing can be timed on its own
+        StringBuilder response = new StringBuilder();
+        Ui bufferedUi = new Ui(response);
         boolean isRunning = true;
         while (isRunning) {
-            try {
-                String input = scanner.nextLine();
+            String input = scanner.nextLine();
+            response.setLength(0);
+            isRunning = executeCommand(input, bufferedUi);
+            long renderStart = System.nanoTime();
+            System.out.print(response);
+            metrics.recordPhase(Phase.RENDER, System.nanoTime() - renderStart);
+        }
 
-                if (input.trim().isEmpty()) {
-                    ui.showError("");
-                    continue;
-                }
+        abandonTransaction();
+        scanner.close();
+        closeResources();
+    }
+
+    /**
+     * Runs every command from a script, exactly as if they had been typed in one after another.
+     * The output matches an interactive session, welcome message included, but is written through
+     * the given writer instead of line by line to the console. Changes are written to disk every
+     * few thousand commands and once more at the end, rather than as they happen.
+     * Stops at "bye" or at the end of the script, then closes the storage.
+     *
+     * @param in the commands, one per line
+     * @param out where to write the responses, which is flushed but not closed
+     * @return the number of commands run
+     * @throws IOException if the commands cannot be read or the output cannot be written
+     */
+    public long runBatch(BufferedReader in, Writer out) throws IOException {
+        Ui batchUi = new Ui(out);
+        batchUi.showWelcome();
+
+        long commandCount = 0;
+        boolean isRunning = true;
+        String input;
+        while (isRunning && (input = in.readLine()) != null) {
+            isRunning = executeCommand(input, batchUi);
+            commandCount++;
+            if (commandCount % BATCH_COMMIT_INTERVAL == 0) {
+                storage.flush();
+            }
+        }
 
-                Command command = parseCommand(input);
-                isRunning = command.execute(taskList, ui, storage.getFileManager());
+        out.flush();
+        abandonTransaction();
+        closeResources();
+        return commandCount;
+    }
 
+    /**
+     * Writes any pending changes and stops the storage and metrics background threads.
+     * Saves a profile that is still being recorded, so it is not lost on exit.
+     * Removes the shutdown hook, if there is one, since nothing is left for it to close.
+     * Safe to call more than once.
+     */
+    private void closeResources() {
+        Thread hook = shutdownHook;
+        if (hook != null && hook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // Already shutting down, so the hook is running or about to and will close again harmlessly
+            }
+            shutdownHook = null;
+        }
+        metrics.stopDumping();
+        if (profiler.isRecording()) {
+            try {
+                ui.showProfileSaved(profiler.stop(Paths.get(storage.getFileManager().getDataDir())));
             } catch (LeBronException e) {
                 ui.showError(e.getMessage());
             }
         }
+        try {
+            storage.close();
+        } catch (IOException e) {
+            ui.showSaveError();
+        }
+    }
 
-        scanner.close();
+    /**
+     * Closes the task manager from the shutdown hook.
+     * Waits for any command still changing the list, so the storage is not closed in the middle of a change.
+     */
+    private void closeForShutdown() {
+        commandLock.writeLock().lock();
+        try {
+            closeResources();
+        } finally {
+            commandLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks whether the saved tasks have finished loading.
+     *
+     * @return true once the tasks are loaded, or loading has failed and the list was left empty
+     */
+    public boolean isLoaded() {
+        return loading.isDone();
+    }
+
+    /**
+     * Waits until the saved tasks have finished loading.
+     */
+    public void awaitLoaded() {
+        loading.join();
+    }
+
+    /**
+     * Gets the latency statistics of the commands run so far.
+     *
+     * @return the metrics registry
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the commands this task manager understands, so new commands and words can be added.
+     *
+     * @return the command registry
+     */
+    public CommandRegistry getCommandRegistry() {
+        return commandRegistry;
     }
 
     /**
      * Processes a single command and returns the response as a string.
-     * Captures System.out during command execution to return as string.
+     * The response is collected in a buffer owned by the calling thread, so several callers
+     * can process commands at the same time without mixing up their output. "list next" carries on from
+     * a cursor shared with {@link #respond(String)}, though, which is only meant for one user such as the GUI;
+     * callers that page through the list at the same time should each bring their own cursor.
      * Used for GUI integration.
-     * 
+     *
      * @param input the user input command
      * @return the response message as a string
      */
     public String processCommand(String input) {
-        // Capture System.out
-        PrintStream originalOut = System.out;
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream capturedOut = new PrintStream(baos);
-        System.setOut(capturedOut);
-        
+        StringBuilder response = RESPONSE_BUFFER.get();
+        response.setLength(0);
+        executeCommand(input, new Ui(response, listCursor));
+        long renderStart = System.nanoTime();
+        String reply = response.toString().trim();
+        metrics.recordPhase(Phase.RENDER, System.nanoTime() - renderStart);
+        return reply;
+    }
+
+    /**
+     * Processes a single command and returns its response with any listed tasks kept apart from the text.
+     * Used by the GUI, which shows long task lists in a scrolling view instead of as text.
+     * "list next" carries on from the cursor shared with {@link #processCommand(String)}, so this suits a single
+     * user; others should use {@link #respond(String, ListCursor)}.
+     *
+     * @param input the user input command
+     * @return the structured response
+     */
+    public Response respond(String input) {
+        return respond(input, listCursor);
+    }
+
+    /**
+     * Processes a single command and returns its structured response, paging with the caller's cursor.
+     *
+     * @param input the user input command
+     * @param listCursor the caller's place in the list
+     * @return the structured response
+     */
+    public Response respond(String input, ListCursor listCursor) {
+        Response response = new Response();
+        executeCommand(input, new Ui(response, listCursor));
+        return response;
+    }
+
+    /**
+     * Processes a single command and writes its response to the given sink.
+     * Lets a caller such as a network session keep one response buffer for all its commands.
+     *
+     * @param input the user input command
+     * @param out where to write the response
+     * @return true if the caller should keep going, false if the user said goodbye
+     */
+    public boolean processCommand(String input, Appendable out) {
+        return processCommand(input, out, new ListCursor());
+    }
+
+    /**
+     * Processes a single command and writes its response to the given sink, paging with the caller's cursor.
+     * Lets a network session keep its own place in the list for "list next".
+     *
+     * @param input the user input command
+     * @param out where to write the response
+     * @param listCursor the caller's place in the list
+     * @return true if the caller should keep going, false if the user said goodbye
+     */
+    public boolean processCommand(String input, Appendable out, ListCursor listCursor) {
+        return processCommand(input, out, listCursor, System.lineSeparator());
+    }
+
+    /**
+     * Processes a single command and writes its response to the given sink, ending lines with the given separator.
+     * Lets a network session answer in its protocol's line separator on any platform.
+     *
+     * @param input the user input command
+     * @param out where to write the response
+     * @param listCursor the caller's place in the list
+     * @param lineSeparator what to end each line of the response with
+     * @return true if the caller should keep going, false if the user said goodbye
+     */
+    public boolean processCommand(String input, Appendable out, ListCursor listCursor, String lineSeparator) {
+        return executeCommand(input, new Ui(out, listCursor, lineSeparator));
+    }
+
+    /**
+     * Rolls back the transaction the calling thread has open, if any, without showing anything.
+     * Callers use this when a session ends, so changes that were never committed are neither kept nor saved.
+     */
+    public void abandonTransaction() {
+        if (transactions.remove(Thread.currentThread()) != null) {
+            storage.getFileManager().discardStaged();
+        }
+    }
+
+    /**
+     * Parses and executes a single command, showing its output and any error on the given Ui.
+     * Read-only commands share the task list with each other, while other commands get it to themselves.
+     * While a transaction is open, the thread that began it works on the transaction's view of the list,
+     * which keeps its changes to itself, so other callers never see changes that might still be rolled back.
+     * Commands wait for the saved tasks to load first, unless they can do without them.
+     * Records how long each phase took, leaving out the wait for the load.
+     *
+     * @param input the user input command
+     * @param commandUi where to show the command's output
+     * @return true if the program should continue running, false to exit
+     */
+    private boolean executeCommand(String input, Ui commandUi) {
+        if (input.trim().isEmpty()) {
+            commandUi.showError("");
+            return true;
+        }
+
+        long start = System.nanoTime();
+        long loadWait = 0;
+        boolean isError = false;
+        CommandKey key = commandRegistry.resolve(input);
         try {
-            if (input.trim().isEmpty()) {
-                ui.showError("");
-                return baos.toString().trim();
+            Command command = commandRegistry.parse(input, key);
+            long parsed = System.nanoTime();
+            metrics.recordPhase(Phase.PARSE, parsed - start);
+            if (command.needsLoadedTasks() && !isLoaded()) {
+                awaitLoaded();
+                loadWait = System.nanoTime() - parsed;
+            }
+            if (isLoadFailed && command.needsLoadedTasks() && !command.isReadOnly()) {
+                throw new LeBronException(ErrorType.LOAD_FAILED.getMessage());
+            }
+            boolean isLoaded = isLoaded();
+            TransactionView transaction = transactions.get(Thread.currentThread());
+            Lock lock = transaction != null ? null
+                    : command.isReadOnly() ? commandLock.readLock() : commandLock.writeLock();
+            if (lock != null) {
+                lock.lock();
+            }
+            TaskList target = transaction != null ? transaction : isLoaded ? taskList : null;
+            FileManager fileManager = storage.getFileManager();
+            long persistBefore = fileManager.getPersistNanos();
+            CommandEvent event = new CommandEvent();
+            long executeStart = System.nanoTime();
+            event.begin();
+            try {
+                return command.execute(target, commandUi, fileManager);
+            } finally {
+                event.record(key.getName(), target != null ? target.size() : 0);
+                // Only commands that change the list may record changes, and they run one at a time
+                long persistNanos = fileManager.getPersistNanos() - persistBefore;
+                metrics.recordPhase(Phase.EXECUTE, System.nanoTime() - executeStart - persistNanos);
+                if (persistNanos > 0) {
+                    metrics.recordPhase(Phase.PERSIST, persistNanos);
+                }
+                if (lock != null) {
+                    lock.unlock();
+                }
             }
-            
-            Command command = parseCommand(input);
-            command.execute(taskList, ui, storage.getFileManager());
-            
-            return baos.toString().trim();
-            
         } catch (LeBronException e) {
-            ui.showError(e.getMessage());
-            return baos.toString().trim();
+            isError = true;
+            commandUi.showError(e.getMessage());
+            return true;
         } finally {
-            // Always restore System.out
-            System.setOut(originalOut);
+            long nanos = System.nanoTime() - start - loadWait;
+            if (key.getCustomKeyword() != null) {
+                metrics.recordCustomCommand(key.getCustomKeyword(), nanos, isError);
+            } else {
+                metrics.recordCommand(key.getType(), nanos, isError);
+            }
         }
     }
 
     /**
-     * Loads existing tasks from storage.
-     * Shows error message if loading fails but continues execution.
+     * Loads existing tasks from storage, kept in the layout chosen by the "lebron.tasks.layout" property.
+     * Reads the files without holding the task list, so status checks can run meanwhile, then swaps the
+     * loaded tasks in. Shows error message if loading fails but continues execution with an empty list,
+     * which commands may read but not change.
      */
     private void loadTasks() {
         try {
-            taskList = new TaskList(storage.load());
+            TaskList loadedTasks = new TaskList(storage.load(), TaskLayout.fromSystemProperty());
+            commandLock.writeLock().lock();
+            try {
+                taskList = loadedTasks;
+            } finally {
+                commandLock.writeLock().unlock();
+            }
         } catch (Exception e) {
+            isLoadFailed = true;
             ui.showLoadError();
+        } finally {
+            loading.complete(null);
         }
     }
 
     /**
-     * Parses user input and creates the appropriate command object.
-     *
-     * @param input the user input string
-     * @return the Command object representing the user's inten
-     * @throws LeBronException if the command is invalid or malformed
-     */
-    private Command parseCommand(String input) throws LeBronException {
-        CommandType commandType = Parser.parseCommand(input);
-
-        switch (commandType) {
-        case BYE:
-            return new ExitCommand();
-        case LIST:
-            if (input.equals("list")) {
-                return new ListCommand();
-            } else {
-                String dateString = Parser.parseListDateCommand(input);
-                return new ListCommand(dateString);
+     * The transactions of the sessions using this task manager, each belonging to the thread that began it.
+     */
+    private class SessionTransactions implements Transactions {
+        /**
+         * Opens a transaction as a view of the shared list, without copying it.
+         */
+        @Override
+        public void begin() throws LeBronException {
+            Thread session = Thread.currentThread();
+            if (transactions.containsKey(session)) {
+                throw new LeBronException(ErrorType.TRANSACTION_ALREADY_OPEN.getMessage());
+            }
+            TransactionView view = new TransactionView(taskList);
+            storage.getFileManager().beginStaging();
+            transactions.put(session, view);
+        }
+
+        /**
+         * Applies the transaction's changes to the shared list, holding the write lock only while it does so,
+         * and records them together. The records held back while the transaction was open are dropped,
+         * as they refer to positions in the session's view rather than the shared list.
+         * Rolls back instead if a task the transaction marked or unmarked was deleted elsewhere meanwhile.
+         */
+        @Override
+        public int commit() throws LeBronException, IOException {
+            TransactionView view = transactions.remove(Thread.currentThread());
+            if (view == null) {
+                throw new LeBronException(ErrorType.NO_TRANSACTION.getMessage());
+            }
+            FileManager fileManager = storage.getFileManager();
+            fileManager.discardStaged();
+            int changeCount = view.getChangeCount();
+            if (changeCount == 0) {
+                return 0;
+            }
+            commandLock.writeLock().lock();
+            try {
+                TransactionView.Changes changes;
+                try {
+                    changes = view.apply();
+                } catch (IllegalStateException e) {
+                    throw new LeBronException(ErrorType.TRANSACTION_CONFLICT.getMessage());
+                }
+                fileManager.beginStaging();
+                try {
+                    if (!changes.getMarked().isEmpty()) {
+                        fileManager.appendTasksMarked(changes.getMarked());
+                    }
+                    if (!changes.getUnmarked().isEmpty()) {
+                        fileManager.appendTasksUnmarked(changes.getUnmarked());
+                    }
+                    if (!changes.getDeleted().isEmpty()) {
+                        fileManager.appendTasksDeleted(changes.getDeleted());
+                    }
+                    for (Task task : changes.getAdded()) {
+                        fileManager.appendTaskAdded(task);
+                    }
+                    fileManager.commitStaged();
+                } catch (IOException | RuntimeException e) {
+                    fileManager.discardStaged();
+                    throw e;
+                }
+                return changeCount;
+            } finally {
+                commandLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Drops the transaction's view and its held-back records.
+         */
+        @Override
+        public int rollback() throws LeBronException {
+            TransactionView view = transactions.remove(Thread.currentThread());
+            if (view == null) {
+                throw new LeBronException(ErrorType.NO_TRANSACTION.getMessage());
             }
-        case MARK:
-            int markTaskNumber = Parser.parseTaskNumber(input, MARK_COMMAND_LENGTH);
-            return new MarkCommand(markTaskNumber);
-        case UNMARK:
-            int unmarkTaskNumber = Parser.parseTaskNumber(input, UNMARK_COMMAND_LENGTH);
-            return new UnmarkCommand(unmarkTaskNumber);
-        case DELETE:
-            int deleteTaskNumber = Parser.parseTaskNumber(input, DELETE_COMMAND_LENGTH);
-            return new DeleteCommand(deleteTaskNumber);
-        case TODO:
-            String todoDescription = Parser.parseTodoDescription(input);
-            return new AddTodoCommand(todoDescription);
-        case DEADLINE:
-            String[] deadlineData = Parser.parseDeadlineCommand(input);
-            return new AddDeadlineCommand(deadlineData[0], deadlineData[1]);
-        case EVENT:
-            String[] eventData = Parser.parseEventCommand(input);
-            return new AddEventCommand(eventData[0], eventData[1], eventData[2]);
-        case ON:
-            String dateString = Parser.parseOnCommand(input);
-            return new OnCommand(dateString);
-        case FIND:
-            String keyword = Parser.parseFindCommand(input);
-            return new FindCommand(keyword);
-        case UNKNOWN:
-        default:
-            throw new LeBronException(ErrorType.UNKNOWN_COMMAND.getMessage());
+            storage.getFileManager().discardStaged();
+            return view.getChangeCount();
         }
     }
 }
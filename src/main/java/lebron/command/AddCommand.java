@@ -12,7 +12,7 @@ import lebron.ui.Ui;
 public abstract class AddCommand extends Command {
 
     /**
-     * Adds a task to the task list and saves to storage.
+     * Adds a task to the task list and records the addition in storage.
      * Template method that calls createTask() to get the specific task type.
      *
      * @param taskList the task list to add to
@@ -26,7 +26,7 @@ public abstract class AddCommand extends Command {
         Task task = createTask();
         taskList.addTask(task);
         ui.showTaskAdded(task, taskList.size());
-        saveToStorage(taskList, storage, ui);
+        saveToStorage(task, storage, ui);
         return true;
     }
 
@@ -40,15 +40,15 @@ public abstract class AddCommand extends Command {
     protected abstract Task createTask() throws LeBronException;
 
     /**
-     * Saves the task list to storage and handles any errors.
+     * Records the new task in storage and handles any errors.
      *
-     * @param taskList the task list to save
-     * @param storage the storage componen
+     * @param task the task that was added
+     * @param storage the storage component
      * @param ui the UI component for error messages
      */
-    private void saveToStorage(TaskList taskList, FileManager storage, Ui ui) {
+    private void saveToStorage(Task task, FileManager storage, Ui ui) {
         try {
-            storage.saveTasks(taskList.getTasks());
+            storage.appendTaskAdded(task);
         } catch (Exception e) {
             ui.showSaveError();
         }
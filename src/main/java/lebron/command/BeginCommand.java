@@ -0,0 +1,51 @@
+package lebron.command;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to start a transaction.
+ * Changes made after it are only seen by the session that made them until the transaction is committed,
+ * and can all be undone by a rollback. Registered by the task manager that keeps the transactions.
+ */
+public class BeginCommand extends Command {
+    private final Transactions transactions;
+
+    /**
+     * Creates a BeginCommand.
+     *
+     * @param transactions the transactions of the task manager running the command
+     */
+    public BeginCommand(Transactions transactions) {
+        assert transactions != null : "Transactions cannot be null";
+        this.transactions = transactions;
+    }
+
+    /**
+     * Executes the begin command by opening a transaction for this session.
+     *
+     * @param taskList the task list the transaction starts from (not used directly)
+     * @param ui the UI component for showing confirmation
+     * @param storage the storage component (not used directly)
+     * @return true to continue program execution
+     * @throws LeBronException if a transaction is already open
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
+        transactions.begin();
+        ui.showTransactionBegun();
+        return true;
+    }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since beginning only copies the list, which stays as it is for everyone else
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -30,4 +30,24 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Checks if this command only reads the task list.
+     * Read-only commands may run alongside each other, while commands that change the list run one at a time.
+     *
+     * @return true if the command never changes the task list, false otherwise
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Checks if this command needs the saved tasks to have finished loading.
+     * Commands that don't can run while the tasks are still loading, and are given no task list until they are.
+     *
+     * @return true if the command waits for the saved tasks, false otherwise
+     */
+    public boolean needsLoadedTasks() {
+        return true;
+    }
 }
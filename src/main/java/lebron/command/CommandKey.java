@@ -0,0 +1,69 @@
+package lebron.command;
+
+import lebron.common.CommandType;
+
+/**
+ * What the command word of a line of input was found to be: a built-in command, a word added to the
+ * {@link CommandRegistry}, or nothing it knows. Keys are made once, when a command is registered, so
+ * finding one for each command typed costs nothing beyond the lookup.
+ */
+public final class CommandKey {
+    /** The key for input whose command word is not known */
+    static final CommandKey UNKNOWN = new CommandKey(CommandType.UNKNOWN, null, null);
+
+    private final CommandType type;
+    private final String customKeyword;
+    private final String name;
+    private final CommandParser parser;
+
+    /**
+     * Creates a key.
+     *
+     * @param type the built-in command, or UNKNOWN for added words and unknown input
+     * @param customKeyword the added word, or null for anything else
+     * @param parser the parser for the command, or null if it is not known
+     */
+    CommandKey(CommandType type, String customKeyword, CommandParser parser) {
+        assert type != null : "Type cannot be null";
+        this.type = type;
+        this.customKeyword = customKeyword;
+        this.name = customKeyword != null ? customKeyword : type.name();
+        this.parser = parser;
+    }
+
+    /**
+     * Gets the built-in command the input asks for.
+     *
+     * @return the command type, which is UNKNOWN for added words and unknown input
+     */
+    public CommandType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the word the command was added under, if it is not a built-in one.
+     *
+     * @return the added word, or null for built-in commands and unknown input
+     */
+    public String getCustomKeyword() {
+        return customKeyword;
+    }
+
+    /**
+     * Gets the name the command is known by in profiles, like "LIST" or an added word.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the parser for the command.
+     *
+     * @return the parser, or null if the command is not known
+     */
+    CommandParser getParser() {
+        return parser;
+    }
+}
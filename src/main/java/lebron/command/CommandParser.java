@@ -0,0 +1,21 @@
+package lebron.command;
+
+import lebron.common.LeBronException;
+
+/**
+ * Turns the arguments of one kind of command into a command object.
+ */
+@FunctionalInterface
+public interface CommandParser {
+
+    /**
+     * Creates the command for the given input.
+     *
+     * @param input the whole line the user typed
+     * @param argStart the index just after the space that follows the command word,
+     *     which is past the end of the input when the command word was typed on its own
+     * @return the command to run
+     * @throws LeBronException if the arguments are invalid or missing
+     */
+    Command parse(String input, int argStart) throws LeBronException;
+}
@@ -0,0 +1,143 @@
+package lebron.command;
+
+import java.util.EnumMap;
+
+import lebron.common.CommandType;
+import lebron.common.ErrorType;
+import lebron.common.KeywordTrie;
+import lebron.common.LeBronException;
+import lebron.ui.Parser;
+
+/**
+ * Turns a line of user input into the command it asks for.
+ * The command word is found once and looked up directly, and its parser is handed the index where
+ * the arguments start, so nothing is re-scanned or copied before the arguments themselves are read.
+ * Besides the built-in commands, new commands can be added under words of their own.
+ * The transaction, "stats" and "profile" commands are left to the task manager, which keeps the transactions,
+ * the statistics and the profiler.
+ */
+public class CommandRegistry {
+    private final EnumMap<CommandType, CommandKey> commands = new EnumMap<>(CommandType.class);
+    private final KeywordTrie<CommandKey> customCommands = new KeywordTrie<>();
+
+    /**
+     * Creates a registry that knows all the built-in commands.
+     */
+    public CommandRegistry() {
+        register(CommandType.BYE, (input, argStart) -> new ExitCommand());
+        register(CommandType.LIST, CommandRegistry::parseListCommand);
+        register(CommandType.MARK, (input, argStart) ->
+                new MarkCommand(Parser.parseTaskSelection(input, argStart)));
+        register(CommandType.UNMARK, (input, argStart) ->
+                new UnmarkCommand(Parser.parseTaskSelection(input, argStart)));
+        register(CommandType.DELETE, (input, argStart) ->
+                new DeleteCommand(Parser.parseTaskSelection(input, argStart)));
+        register(CommandType.TODO, (input, argStart) ->
+                new AddTodoCommand(Parser.parseTodoDescription(input, argStart)));
+        register(CommandType.DEADLINE, (input, argStart) -> {
+            String[] deadlineData = Parser.parseDeadlineCommand(input, argStart);
+            return new AddDeadlineCommand(deadlineData[0], deadlineData[1]);
+        });
+        register(CommandType.EVENT, (input, argStart) -> {
+            String[] eventData = Parser.parseEventCommand(input, argStart);
+            return new AddEventCommand(eventData[0], eventData[1], eventData[2]);
+        });
+        register(CommandType.ON, (input, argStart) -> new OnCommand(Parser.parseOnCommand(input, argStart)));
+        register(CommandType.FIND, (input, argStart) -> new FindCommand(Parser.parseFindCommand(input, argStart)));
+        register(CommandType.STATUS, (input, argStart) -> new StatusCommand());
+    }
+
+    /**
+     * Replaces the parser for a built-in command.
+     * Meant to be called while setting up, before any commands are parsed.
+     *
+     * @param type the command to change
+     * @param parser the parser to use for it
+     */
+    public void register(CommandType type, CommandParser parser) {
+        assert type != null && type != CommandType.UNKNOWN : "Type must be a known command";
+        assert parser != null : "Parser cannot be null";
+        commands.put(type, new CommandKey(type, null, parser));
+    }
+
+    /**
+     * Adds a new command under a word of its own.
+     * The word may be typed on its own or followed by a space and arguments.
+     * Built-in commands and their aliases take priority over words added this way.
+     *
+     * @param keyword the command word, which must not be empty or contain spaces
+     * @param parser the parser for the command
+     * @throws IllegalArgumentException if the keyword is not a single word
+     */
+    public void register(String keyword, CommandParser parser) {
+        if (keyword == null || keyword.isEmpty() || keyword.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("A command word must be a single word: " + keyword);
+        }
+        assert parser != null : "Parser cannot be null";
+        customCommands.put(keyword, new CommandKey(CommandType.UNKNOWN, keyword, parser));
+    }
+
+    /**
+     * Parses user input and creates the appropriate command object.
+     *
+     * @param input the user input string
+     * @return the Command object representing the user's intent
+     * @throws LeBronException if the command is invalid or malformed
+     */
+    public Command parse(String input) throws LeBronException {
+        return parse(input, resolve(input));
+    }
+
+    /**
+     * Finds which command the user input asks for, without parsing its arguments.
+     * The key tells callers what to file the command under even when its arguments turn out to be invalid.
+     *
+     * @param input the user input string
+     * @return the key of the command, or one for unknown input
+     */
+    public CommandKey resolve(String input) {
+        assert input != null : "Input string cannot be null";
+        int wordEnd = CommandType.findCommandWordEnd(input);
+        CommandType type = CommandType.parseCommand(input, wordEnd);
+        CommandKey key = type == CommandType.UNKNOWN
+                ? customCommands.get(input, 0, wordEnd)
+                : commands.get(type);
+        return key != null ? key : CommandKey.UNKNOWN;
+    }
+
+    /**
+     * Creates the command object for user input whose command was already found with {@link #resolve}.
+     *
+     * @param input the user input string
+     * @param key the key resolve returned for the input
+     * @return the Command object representing the user's intent
+     * @throws LeBronException if the command is invalid or malformed
+     */
+    public Command parse(String input, CommandKey key) throws LeBronException {
+        assert input != null && key != null : "Input and key cannot be null";
+        if (key.getParser() == null) {
+            throw new LeBronException(ErrorType.UNKNOWN_COMMAND.getMessage());
+        }
+        return key.getParser().parse(input, CommandType.findCommandWordEnd(input) + 1);
+    }
+
+    /**
+     * Parses the different forms of "list": all tasks, tasks on a date, a page, or the next page.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return the list command
+     * @throws LeBronException if the date or page is invalid
+     */
+    private static Command parseListCommand(String input, int argStart) throws LeBronException {
+        if (argStart > input.length()) {
+            return new ListCommand();
+        } else if (Parser.isListNextCommand(input, argStart)) {
+            return ListCommand.nextPage();
+        } else if (Parser.isListPageCommand(input, argStart)) {
+            int[] page = Parser.parseListPageCommand(input, argStart);
+            return new ListCommand(page[0], page[1]);
+        }
+        return new ListCommand(Parser.parseListDateCommand(input, argStart));
+    }
+}
@@ -0,0 +1,49 @@
+package lebron.command;
+
+import java.io.IOException;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to end a transaction and keep its changes.
+ * Every change in the transaction is saved in a single write. Registered by the task manager that keeps
+ * the transactions.
+ */
+public class CommitCommand extends Command {
+    private final Transactions transactions;
+
+    /**
+     * Creates a CommitCommand.
+     *
+     * @param transactions the transactions of the task manager running the command
+     */
+    public CommitCommand(Transactions transactions) {
+        assert transactions != null : "Transactions cannot be null";
+        this.transactions = transactions;
+    }
+
+    /**
+     * Executes the commit command by handing the transaction's changes to the shared list and saving them.
+     *
+     * @param taskList the task list the transaction changed (not used directly)
+     * @param ui the UI component for showing confirmation
+     * @param storage the storage component (not used directly)
+     * @return true to continue program execution
+     * @throws LeBronException if no transaction is open, or it was rolled back because the list changed
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
+        int changeCount;
+        try {
+            changeCount = transactions.commit();
+        } catch (IOException e) {
+            ui.showSaveError();
+            return true;
+        }
+        ui.showTransactionCommitted(changeCount);
+        return true;
+    }
+}
@@ -1,47 +1,63 @@
 package lebron.command;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+
 import lebron.common.ErrorType;
 import lebron.common.LeBronException;
 import lebron.storage.FileManager;
 import lebron.task.Task;
 import lebron.task.TaskList;
+import lebron.task.TaskSelection;
 import lebron.ui.Ui;
 /**
- * Command to delete a task from the task list.
- * Removes the specified task and saves changes to storage.
+ * Command to delete one or more tasks from the task list.
+ * Removes the selected tasks in one go and saves changes to storage.
  */
 public class DeleteCommand extends Command {
-    private int taskIndex;
+    private TaskSelection selection;
 
     /**
-     * Creates a new delete command.
+     * Creates a new delete command for a single task.
      *
      * @param taskNumber the task number to delete (1-based)
      */
     public DeleteCommand(int taskNumber) {
-        this.taskIndex = taskNumber - 1; // Convert to 0-based index
+        this(TaskSelection.of(taskNumber));
+    }
+
+    /**
+     * Creates a new delete command for a selection of tasks.
+     *
+     * @param selection the tasks to delete
+     */
+    public DeleteCommand(TaskSelection selection) {
+        assert selection != null : "Selection cannot be null";
+        this.selection = selection;
     }
 
     /**
-     * Executes the delete command by removing the specified task.
+     * Executes the delete command by removing the selected tasks.
+     * The change is recorded in storage as a single entry, however many tasks it covers.
      *
      * @param taskList the task list to delete from
      * @param ui the UI component for showing confirmation
      * @param storage the storage component for saving changes
      * @return true to continue program execution
-     * @throws LeBronException if the task number is invalid
+     * @throws LeBronException if any task number is invalid, in which case nothing is changed
      */
     @Override
     public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
-        if (taskIndex < 0 || taskIndex >= taskList.size()) {
+        if (!selection.isWithin(taskList.size())) {
             throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
         }
 
-        Task deletedTask = taskList.deleteTask(taskIndex);
-        ui.showTaskDeleted(deletedTask, taskList.size());
+        BitSet indexes = selection.toIndexes(taskList.size());
+        ArrayList<Task> changed = taskList.deleteTasks(indexes);
+        ui.showTasksDeleted(changed, taskList.size());
 
         try {
-            storage.saveTasks(taskList.getTasks());
+            storage.appendTasksDeleted(indexes);
         } catch (Exception e) {
             ui.showSaveError();
         }
@@ -1,5 +1,7 @@
 package lebron.command;
 
+import java.io.IOException;
+
 import lebron.storage.FileManager;
 import lebron.task.TaskList;
 import lebron.ui.Ui;
@@ -10,15 +12,20 @@ import lebron.ui.Ui;
 public class ExitCommand extends Command {
 
     /**
-     * Executes the exit command by showing goodbye message.
+     * Executes the exit command by waiting for pending saves and showing goodbye message.
      *
      * @param taskList the task list (not used for exit)
      * @param ui the UI component for displaying goodbye message
-     * @param storage the storage component (not used for exit)
-     * @return false to indicate the program should exi
+     * @param storage the storage component whose pending changes must reach the disk
+     * @return false to indicate the program should exit
      */
     @Override
     public boolean execute(TaskList taskList, Ui ui, FileManager storage) {
+        try {
+            storage.awaitDurable();
+        } catch (IOException e) {
+            ui.showSaveError();
+        }
         ui.showGoodbye();
         return false;
     }
@@ -34,4 +34,14 @@ public class FindCommand extends Command {
         ui.showFindResults(matchingTasks, keyword);
         return true;
     }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since searching only reads the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
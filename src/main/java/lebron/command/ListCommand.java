@@ -1,20 +1,30 @@
 package lebron.command;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import lebron.common.LeBronException;
 import lebron.storage.FileManager;
+import lebron.task.Task;
 import lebron.task.TaskList;
+import lebron.ui.ListCursor;
 import lebron.ui.Ui;
 import lebron.util.DateTimeParser;
 
 /**
  * Command to display all tasks in the task list.
  * Shows numbered list of all tasks with their status and details.
- * Can also display tasks for a specific date.
+ * Can also display tasks for a specific date, or one page of the list at a time.
+ * Pages are read straight from the list, so showing one costs the same however long the list is.
  */
 public class ListCommand extends Command {
+    private static final int NEXT_PAGE = -1;
+
     private String dateString;
+    // The page to show (1-based), 0 for the whole list, or NEXT_PAGE for the page after the last one shown
+    private int page;
+    // The number of tasks on a page, or 0 to keep the session's page size
+    private int pageSize;
 
     /**
      * Creates a ListCommand to display all tasks.
@@ -23,6 +33,29 @@ public class ListCommand extends Command {
         this.dateString = null;
     }
 
+    /**
+     * Creates a ListCommand to display one page of the task list.
+     *
+     * @param page the page to show (1-based)
+     * @param pageSize the number of tasks on each page, or 0 to keep the session's page size
+     */
+    public ListCommand(int page, int pageSize) {
+        assert page > 0 && pageSize >= 0 : "Page must be positive and page size not negative";
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Creates a ListCommand that displays the page after the last one this session was shown.
+     *
+     * @return the command
+     */
+    public static ListCommand nextPage() {
+        ListCommand command = new ListCommand();
+        command.page = NEXT_PAGE;
+        return command;
+    }
+
     /**
      * Creates a ListCommand to display tasks on a specific date.
      *
@@ -36,6 +69,7 @@ public class ListCommand extends Command {
      * Executes the list command by displaying tasks.
      * If no date is specified, shows all tasks.
      * If a date is specified, shows only tasks on that date.
+     * If a page is specified, shows only the tasks on that page and moves the session's cursor past it.
      *
      * @param taskList the task list to display
      * @param ui the UI component for displaying the tasks
@@ -44,7 +78,9 @@ public class ListCommand extends Command {
      */
     @Override
     public boolean execute(TaskList taskList, Ui ui, FileManager storage) {
-        if (dateString == null) {
+        if (page != 0) {
+            showPage(taskList, ui);
+        } else if (dateString == null) {
             // Show all tasks
             ui.showTaskList(taskList);
         } else {
@@ -59,4 +95,46 @@ public class ListCommand extends Command {
         }
         return true;
     }
+
+    /**
+     * Shows the requested page, copying out only the tasks on it.
+     *
+     * @param taskList the task list to display
+     * @param ui the UI component whose session cursor decides and remembers the page
+     */
+    private void showPage(TaskList taskList, Ui ui) {
+        if (taskList.isEmpty()) {
+            ui.showTaskList(taskList);
+            return;
+        }
+        ListCursor cursor = ui.getListCursor();
+        int shownPage = page == NEXT_PAGE ? cursor.getNextPage() : page;
+        int shownPageSize = pageSize == 0 ? cursor.getPageSize() : pageSize;
+        int taskCount = taskList.size();
+        int pageCount = (int) ((taskCount + (long) shownPageSize - 1) / shownPageSize);
+        if (shownPage > pageCount) {
+            if (page == NEXT_PAGE) {
+                ui.showNoMorePages();
+            } else {
+                ui.showPageOutOfRange(shownPage, pageCount);
+            }
+            return;
+        }
+
+        int from = (int) ((long) (shownPage - 1) * shownPageSize);
+        int to = (int) Math.min(taskCount, (long) from + shownPageSize);
+        List<Task> tasks = taskList.getTasks(from, to);
+        ui.showTaskPage(tasks, from + 1, shownPage, pageCount, taskCount);
+        cursor.moveTo(shownPage, shownPageSize);
+    }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since listing only reads the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
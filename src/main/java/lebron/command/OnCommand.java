@@ -40,4 +40,14 @@ public class OnCommand extends Command {
         ui.showTasksOnDate(matchingTasks, targetDate);
         return true;
     }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since searching by date only reads the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
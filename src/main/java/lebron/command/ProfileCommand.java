@@ -0,0 +1,72 @@
+package lebron.command;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import lebron.common.LeBronException;
+import lebron.metrics.Profiler;
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to start a flight recording, or to stop it and save it next to the task file.
+ * Registered by the task manager that owns the profiler.
+ */
+public class ProfileCommand extends Command {
+    private final Profiler profiler;
+    private final boolean isStart;
+
+    /**
+     * Creates a ProfileCommand.
+     *
+     * @param profiler the profiler to start or stop
+     * @param isStart true to start recording, false to stop and save
+     */
+    public ProfileCommand(Profiler profiler, boolean isStart) {
+        assert profiler != null : "Profiler cannot be null";
+        this.profiler = profiler;
+        this.isStart = isStart;
+    }
+
+    /**
+     * Executes the profile command by starting the recording or saving it to the data folder.
+     *
+     * @param taskList the task list (not used for profiling)
+     * @param ui the UI component for showing where the profile went
+     * @param storage the storage component whose data folder the profile is saved in
+     * @return true to continue program execution
+     * @throws LeBronException if the recording is already running, not running, or cannot be saved
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
+        if (isStart) {
+            profiler.start();
+            ui.showProfileStarted();
+        } else {
+            Path file = profiler.stop(Paths.get(storage.getDataDir()));
+            ui.showProfileSaved(file);
+        }
+        return true;
+    }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since profiling never touches the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Indicates this command can run before the saved tasks have finished loading.
+     *
+     * @return false so a slow load can itself be profiled
+     */
+    @Override
+    public boolean needsLoadedTasks() {
+        return false;
+    }
+}
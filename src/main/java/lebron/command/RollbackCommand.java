@@ -0,0 +1,40 @@
+package lebron.command;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to end a transaction and undo its changes.
+ * Nothing from the transaction is ever saved. Registered by the task manager that keeps the transactions.
+ */
+public class RollbackCommand extends Command {
+    private final Transactions transactions;
+
+    /**
+     * Creates a RollbackCommand.
+     *
+     * @param transactions the transactions of the task manager running the command
+     */
+    public RollbackCommand(Transactions transactions) {
+        assert transactions != null : "Transactions cannot be null";
+        this.transactions = transactions;
+    }
+
+    /**
+     * Executes the rollback command by throwing away the transaction's changes and their records.
+     *
+     * @param taskList the task list the transaction changed (not used directly)
+     * @param ui the UI component for showing confirmation
+     * @param storage the storage component (not used directly)
+     * @return true to continue program execution
+     * @throws LeBronException if no transaction is open
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
+        int changeCount = transactions.rollback();
+        ui.showTransactionRolledBack(changeCount);
+        return true;
+    }
+}
@@ -0,0 +1,58 @@
+package lebron.command;
+
+import lebron.metrics.MetricsRegistry;
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to show how long commands have been taking, by phase and by kind of command.
+ * Registered by the task manager that keeps the statistics.
+ */
+public class StatsCommand extends Command {
+    private final MetricsRegistry metrics;
+
+    /**
+     * Creates a StatsCommand that shows the given statistics.
+     *
+     * @param metrics the statistics to show
+     */
+    public StatsCommand(MetricsRegistry metrics) {
+        assert metrics != null : "Metrics cannot be null";
+        this.metrics = metrics;
+    }
+
+    /**
+     * Executes the stats command by showing the latency table.
+     *
+     * @param taskList the task list (not used for statistics)
+     * @param ui the UI component for showing the statistics
+     * @param storage the storage component (not used for statistics)
+     * @return true to continue program execution
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) {
+        ui.showStats(metrics.formatStats());
+        return true;
+    }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since the statistics never touch the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Indicates this command can run before the saved tasks have finished loading.
+     *
+     * @return false since the statistics never touch the task list
+     */
+    @Override
+    public boolean needsLoadedTasks() {
+        return false;
+    }
+}
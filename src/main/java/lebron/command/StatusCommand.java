@@ -0,0 +1,51 @@
+package lebron.command;
+
+import lebron.storage.FileManager;
+import lebron.task.TaskList;
+import lebron.ui.Ui;
+
+/**
+ * Command to check whether the saved tasks have finished loading.
+ * Answers straight away, even while a large task file is still being read at startup.
+ */
+public class StatusCommand extends Command {
+    private static final int PERCENT = 100;
+
+    /**
+     * Executes the status command by showing how far loading has got, or how many tasks there are once it is done.
+     *
+     * @param taskList the task list, or null if it is still loading
+     * @param ui the UI component for showing the status
+     * @param storage the storage component that reports loading progress
+     * @return true to continue program execution
+     */
+    @Override
+    public boolean execute(TaskList taskList, Ui ui, FileManager storage) {
+        if (taskList == null) {
+            ui.showLoadingStatus((int) (storage.getLoadProgress() * PERCENT));
+        } else {
+            ui.showLoadedStatus(taskList.size());
+        }
+        return true;
+    }
+
+    /**
+     * Indicates this command can run alongside other read-only commands.
+     *
+     * @return true since the status only reads the task list
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Indicates this command can run before the saved tasks have finished loading.
+     *
+     * @return false since the status is most useful while they are loading
+     */
+    @Override
+    public boolean needsLoadedTasks() {
+        return false;
+    }
+}
@@ -0,0 +1,36 @@
+package lebron.command;
+
+import java.io.IOException;
+
+import lebron.common.LeBronException;
+
+/**
+ * Opens and closes the transaction of the session a command comes from.
+ * Implemented by the task manager, which keeps each session's open transaction apart from the shared list.
+ */
+public interface Transactions {
+
+    /**
+     * Opens a transaction for the calling session.
+     *
+     * @throws LeBronException if the session already has one open
+     */
+    void begin() throws LeBronException;
+
+    /**
+     * Makes the calling session's changes part of the shared list and saves them in one write.
+     *
+     * @return the number of changes made in the transaction
+     * @throws LeBronException if the session has no transaction open, or the list changed since it began
+     * @throws IOException if the changes were kept but could not be saved
+     */
+    int commit() throws LeBronException, IOException;
+
+    /**
+     * Throws away the calling session's changes.
+     *
+     * @return the number of changes thrown away
+     * @throws LeBronException if the session has no transaction open
+     */
+    int rollback() throws LeBronException;
+}
@@ -1,48 +1,63 @@
 package lebron.command;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+
 import lebron.common.ErrorType;
 import lebron.common.LeBronException;
 import lebron.storage.FileManager;
 import lebron.task.Task;
 import lebron.task.TaskList;
+import lebron.task.TaskSelection;
 import lebron.ui.Ui;
 /**
- * Command to unmark a task (mark as not completed).
- * Updates the task's status and saves changes to storage.
+ * Command to unmark one or more tasks (mark as not completed).
+ * Updates the tasks' status and saves changes to storage.
  */
 public class UnmarkCommand extends Command {
-    private int taskIndex;
+    private TaskSelection selection;
 
     /**
-     * Creates a new unmark command.
+     * Creates a new unmark command for a single task.
      *
      * @param taskNumber the task number to unmark (1-based)
      */
     public UnmarkCommand(int taskNumber) {
-        this.taskIndex = taskNumber - 1; // Convert to 0-based index
+        this(TaskSelection.of(taskNumber));
+    }
+
+    /**
+     * Creates a new unmark command for a selection of tasks.
+     *
+     * @param selection the tasks to unmark
+     */
+    public UnmarkCommand(TaskSelection selection) {
+        assert selection != null : "Selection cannot be null";
+        this.selection = selection;
     }
 
     /**
-     * Executes the unmark command by marking the specified task as not done.
+     * Executes the unmark command by marking the selected tasks as not done.
+     * The change is recorded in storage as a single entry, however many tasks it covers.
      *
-     * @param taskList the task list containing the task to unmark
+     * @param taskList the task list containing the tasks to unmark
      * @param ui the UI component for showing confirmation
      * @param storage the storage component for saving changes
      * @return true to continue program execution
-     * @throws LeBronException if the task number is invalid
+     * @throws LeBronException if any task number is invalid, in which case nothing is changed
      */
     @Override
     public boolean execute(TaskList taskList, Ui ui, FileManager storage) throws LeBronException {
-        if (taskIndex < 0 || taskIndex >= taskList.size()) {
+        if (!selection.isWithin(taskList.size())) {
             throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
         }
 
-        taskList.unmarkTask(taskIndex);
-        Task task = taskList.getTask(taskIndex);
-        ui.showTaskUnmarked(task);
+        BitSet indexes = selection.toIndexes(taskList.size());
+        ArrayList<Task> changed = taskList.unmarkTasks(indexes);
+        ui.showTasksUnmarked(changed);
 
         try {
-            storage.saveTasks(taskList.getTasks());
+            storage.appendTasksUnmarked(indexes);
         } catch (Exception e) {
             ui.showSaveError();
         }
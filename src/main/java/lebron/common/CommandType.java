@@ -5,27 +5,76 @@ package lebron.common;
  */
 public enum CommandType {
     /** Exit the program */
-    BYE,
+    BYE("bye", true, false),
     /** Show all tasks */
-    LIST,
+    LIST("list", true, true),
     /** Mark a task as done */
-    MARK,
+    MARK("mark", false, true),
     /** Mark a task as not done */
-    UNMARK,
+    UNMARK("unmark", false, true),
     /** Remove a task completely */
-    DELETE,
+    DELETE("delete", false, true),
     /** Add a simple todo task */
-    TODO,
+    TODO("todo", true, true),
     /** Add a task with a deadline */
-    DEADLINE,
+    DEADLINE("deadline", true, true),
     /** Add a task with start and end times */
-    EVENT,
+    EVENT("event", true, true),
     /** Show tasks occurring on a specific date */
-    ON,
+    ON("on", true, true),
     /** Find tasks containing a keyword */
-    FIND,
+    FIND("find", true, true),
+    /** Start grouping changes into a transaction */
+    BEGIN("begin", true, false),
+    /** Keep and save the changes in the open transaction */
+    COMMIT("commit", true, false),
+    /** Undo the changes in the open transaction */
+    ROLLBACK("rollback", true, false),
+    /** Show whether the saved tasks have finished loading */
+    STATUS("status", true, false),
+    /** Show how long commands have been taking */
+    STATS("stats", true, false),
+    /** Start or stop recording a flight recorder profile */
+    PROFILE("profile", false, true),
     /** Command we don't recognize */
-    UNKNOWN;
+    UNKNOWN(null, false, false);
+
+    // Every command word and alias, looked up straight from the input without copying the word out
+    private static final KeywordTrie<CommandType> KEYWORDS = new KeywordTrie<>();
+
+    static {
+        for (CommandType type : values()) {
+            if (type.keyword != null) {
+                KEYWORDS.put(type.keyword, type);
+            }
+        }
+    }
+
+    private final String keyword;
+    private final boolean isAllowedBare;
+    private final boolean isAllowedWithArguments;
+
+    /**
+     * Creates a command type.
+     *
+     * @param keyword the word that starts the command, or null if there is none
+     * @param isAllowedBare whether the word may be typed on its own
+     * @param isAllowedWithArguments whether the word may be followed by a space and more input
+     */
+    CommandType(String keyword, boolean isAllowedBare, boolean isAllowedWithArguments) {
+        this.keyword = keyword;
+        this.isAllowedBare = isAllowedBare;
+        this.isAllowedWithArguments = isAllowedWithArguments;
+    }
+
+    /**
+     * Gets the word that starts this command.
+     *
+     * @return the command word, or null for UNKNOWN
+     */
+    public String getKeyword() {
+        return keyword;
+    }
 
     /**
      * Figures out what command the user typed.
@@ -35,28 +84,58 @@ public enum CommandType {
      * @return the type of command they want to run
      */
     public static CommandType parseCommand(String input) {
-        if (input.equals("bye")) {
-            return BYE;
-        } else if (input.equals("list") || input.startsWith("list ")) {
-            return LIST;
-        } else if (input.startsWith("mark ")) {
-            return MARK;
-        } else if (input.startsWith("unmark ")) {
-            return UNMARK;
-        } else if (input.startsWith("delete ")) {
-            return DELETE;
-        } else if (input.equals("todo") || input.startsWith("todo ")) {
-            return TODO;
-        } else if (input.equals("deadline") || input.startsWith("deadline ")) {
-            return DEADLINE;
-        } else if (input.equals("event") || input.startsWith("event ")) {
-            return EVENT;
-        } else if (input.equals("on") || input.startsWith("on ")) {
-            return ON;
-        } else if (input.equals("find") || input.startsWith("find ")) {
-            return FIND;
-        } else {
+        return parseCommand(input, findCommandWordEnd(input));
+    }
+
+    /**
+     * Figures out what command the user typed, given where its command word ends.
+     *
+     * @param input what the user typed
+     * @param wordEnd the index just after the command word, as found by {@link #findCommandWordEnd}
+     * @return the type of command they want to run
+     */
+    public static CommandType parseCommand(CharSequence input, int wordEnd) {
+        CommandType type = KEYWORDS.get(input, 0, wordEnd);
+        if (type == null) {
             return UNKNOWN;
         }
+        boolean isBare = wordEnd == input.length();
+        boolean isAllowed = isBare ? type.isAllowedBare : type.isAllowedWithArguments;
+        return isAllowed ? type : UNKNOWN;
+    }
+
+    /**
+     * Finds where the command word at the start of the input ends.
+     * The word runs up to the first space, or to the end if there is no space.
+     *
+     * @param input what the user typed
+     * @return the index just after the command word
+     */
+    public static int findCommandWordEnd(CharSequence input) {
+        int length = input.length();
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(i) == ' ') {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Lets the user type another word for a command, such as "ls" for "list".
+     * The alias follows the same rules as the command's own word about whether it needs more input.
+     *
+     * @param alias the extra word, which must not be empty or contain spaces
+     * @param type the command it stands for
+     * @throws IllegalArgumentException if the alias is not a single word or the type is UNKNOWN
+     */
+    public static void registerAlias(String alias, CommandType type) {
+        if (alias == null || alias.isEmpty() || alias.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("An alias must be a single word: " + alias);
+        }
+        if (type == null || type == UNKNOWN) {
+            throw new IllegalArgumentException("An alias must stand for a known command");
+        }
+        KEYWORDS.put(alias, type);
     }
 }
@@ -16,6 +16,26 @@ public enum ErrorType {
     MISSING_DEADLINE_FORMAT("Please specify a deadline with /by"),
     /** When user creates an event but forgets the /from and /to parts */
     MISSING_EVENT_FORMAT("Please specify event time with /from and /to"),
+    /** When user types "begin" while a transaction is already open */
+    TRANSACTION_ALREADY_OPEN("A transaction is already open. Commit or roll it back first."),
+    /** When user types "commit" or "rollback" without an open transaction */
+    NO_TRANSACTION("There is no open transaction. Use begin to start one."),
+    /** When user commits a transaction after someone else deleted a task it marked or unmarked */
+    TRANSACTION_CONFLICT("A task you marked or unmarked was deleted elsewhere while your transaction was open, "
+            + "so it was rolled back. Please try again."),
+    /** When user types "list page" without a page number, or with a number or size below 1 */
+    INVALID_LIST_PAGE("Please give a page number above 0. Use: list page N [size M] (e.g., list page 2 size 50)"),
+    /** When user types "profile" with something other than start or stop */
+    INVALID_PROFILE_ACTION("Please use profile start or profile stop."),
+    /** When user types "profile start" while a profile is already being recorded */
+    PROFILE_ALREADY_RUNNING("A profile is already being recorded. Use profile stop to save it."),
+    /** When user types "profile stop" without having started a profile */
+    PROFILE_NOT_RUNNING("No profile is being recorded. Use profile start to begin one."),
+    /** When user tries to change the list after the saved tasks failed to load */
+    LOAD_FAILED("Your saved tasks could not be loaded, so I won't change the list in case that overwrites them. "
+            + "Please check your data folder and restart."),
+    /** When the server already has as many connections as it allows */
+    SERVER_BUSY("Sorry! Too many people are connected right now. Please try again later."),
     /** When user types something we don't understand */
     UNKNOWN_COMMAND("Sorry! I don't know what that means :(");
 
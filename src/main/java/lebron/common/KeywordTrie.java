@@ -0,0 +1,149 @@
+package lebron.common;
+
+import java.util.Arrays;
+
+/**
+ * Maps keywords to values, looking them up one character at a time straight from the input.
+ * Finding the command word at the start of a line this way needs no substring or hash of the word.
+ * Lookups never lock: adding a keyword copies the path it changes and then swaps in the new root,
+ * so a lookup sees either the old set of keywords or the new one.
+ *
+ * @param <V> the type of value stored for each keyword
+ */
+public class KeywordTrie<V> {
+    private volatile Node<V> root = Node.empty();
+
+    /**
+     * Looks up the keyword made up of the given range of characters.
+     *
+     * @param text the text holding the keyword
+     * @param start the index of the keyword's first character
+     * @param end the index just after the keyword's last character
+     * @return the value stored for the keyword, or null if there is none
+     */
+    public V get(CharSequence text, int start, int end) {
+        assert text != null : "Text cannot be null";
+        assert start >= 0 && start <= end && end <= text.length() : "Range must lie within the text";
+        Node<V> node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.child(text.charAt(i));
+        }
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Looks up a whole keyword.
+     *
+     * @param keyword the keyword
+     * @return the value stored for the keyword, or null if there is none
+     */
+    public V get(CharSequence keyword) {
+        return get(keyword, 0, keyword.length());
+    }
+
+    /**
+     * Stores a value for a keyword, replacing any value it already had.
+     *
+     * @param keyword the keyword, which must not be empty
+     * @param value the value to store
+     */
+    public synchronized void put(String keyword, V value) {
+        assert keyword != null && !keyword.isEmpty() : "Keyword cannot be empty";
+        assert value != null : "Value cannot be null";
+        root = put(root, keyword, 0, value);
+    }
+
+    /**
+     * Builds a copy of a node with the keyword added below it.
+     *
+     * @param node the node to copy, which is left unchanged
+     * @param keyword the keyword being added
+     * @param depth the number of characters of the keyword the node stands for
+     * @param value the value to store
+     * @return the new node
+     */
+    private Node<V> put(Node<V> node, String keyword, int depth, V value) {
+        if (depth == keyword.length()) {
+            return new Node<>(node.keys, node.children, value);
+        }
+        char c = keyword.charAt(depth);
+        Node<V> child = node.child(c);
+        if (child == null) {
+            child = Node.empty();
+        }
+        return node.withChild(c, put(child, keyword, depth + 1, value));
+    }
+
+    /**
+     * One character position in the trie. Never changed once built.
+     */
+    private static final class Node<V> {
+        private final char[] keys;
+        private final Node<V>[] children;
+        private final V value;
+
+        Node(char[] keys, Node<V>[] children, V value) {
+            this.keys = keys;
+            this.children = children;
+            this.value = value;
+        }
+
+        /**
+         * Creates a node that ends no keyword and has no children.
+         *
+         * @return the new node
+         */
+        static <V> Node<V> empty() {
+            return new Node<>(new char[0], Node.<V>newChildren(0), null);
+        }
+
+        /**
+         * Creates an array for a node's children.
+         * Java can't create arrays of a generic type, so this makes one of the wildcard type and casts it,
+         * which is safe as the array only ever holds nodes of type V.
+         *
+         * @param length the number of children
+         * @return the new array
+         */
+        @SuppressWarnings("unchecked")
+        static <V> Node<V>[] newChildren(int length) {
+            return (Node<V>[]) new Node<?>[length];
+        }
+
+        /**
+         * Finds the child for the next character.
+         * Command words branch only a few ways at each position, so a scan beats hashing.
+         *
+         * @param c the next character
+         * @return the child, or null if no keyword continues with that character
+         */
+        Node<V> child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Makes a copy of this node with the child for a character added or replaced.
+         *
+         * @param c the character
+         * @param child the new child
+         * @return the copy
+         */
+        Node<V> withChild(char c, Node<V> child) {
+            int index = 0;
+            while (index < keys.length && keys[index] != c) {
+                index++;
+            }
+            int length = Math.max(keys.length, index + 1);
+            char[] newKeys = Arrays.copyOf(keys, length);
+            Node<V>[] newChildren = Arrays.copyOf(children, length);
+            newKeys[index] = c;
+            newChildren[index] = child;
+            return new Node<>(newKeys, newChildren, value);
+        }
+    }
+}
@@ -1,60 +1,93 @@
 package lebron.gui;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import lebron.ui.Response;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * Built directly in code rather than from FXML, since a new box is created for every message.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
-
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static final double PICTURE_SIZE = 99.0;
+    private static final double PREF_WIDTH = 400.0;
+    private static final Insets PADDING = new Insets(15.0, 5.0, 15.0, 5.0);
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
-    }
+    private final Label dialog;
+    private final ImageView displayPicture;
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Creates a dialog box.
+     *
+     * @param text the message
+     * @param img the speaker's picture, shared between all boxes
+     * @param isReply true to put the picture on the left, as for LeBron's replies
      */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+    private DialogBox(String text, Image img, boolean isReply) {
+        dialog = new Label(text);
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+
+        displayPicture = new ImageView(img);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        setMaxHeight(Double.MAX_VALUE);
+        setMaxWidth(Double.MAX_VALUE);
+        setPrefWidth(PREF_WIDTH);
+        setPadding(PADDING);
+        if (isReply) {
+            setAlignment(Pos.TOP_LEFT);
+            getChildren().addAll(displayPicture, dialog);
+        } else {
+            setAlignment(Pos.TOP_RIGHT);
+            getChildren().addAll(dialog, displayPicture);
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        return new DialogBox(text, img, false);
     }
 
     public static DialogBox getDukeDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
+        return new DialogBox(text, img, true);
+    }
+
+    /**
+     * Creates a reply showing the response's message, with any listed tasks in a scrolling list below it.
+     *
+     * @param response the response to show
+     * @param img the speaker's picture
+     * @return the dialog box
+     */
+    public static DialogBox getDukeDialog(Response response, Image img) {
+        var db = new DialogBox(response.getText(), img, true);
+        if (response.hasTasks()) {
+            db.showTasks(response.isNumbered() ? new TaskListView(response.getTasks(), response.getFirstNumber())
+                    : new TaskListView(response.getTasks()));
+        }
         return db;
     }
+
+    /**
+     * Adds a scrolling list of tasks under the message.
+     *
+     * @param tasks the list of tasks to show
+     */
+    private void showTasks(TaskListView tasks) {
+        VBox content = new VBox(5);
+        HBox.setHgrow(content, Priority.ALWAYS);
+        getChildren().set(getChildren().indexOf(dialog), content);
+        content.getChildren().addAll(dialog, tasks);
+    }
 }
@@ -26,6 +26,7 @@ public class Main extends Application {
             stage.setTitle("LeBron");
             fxmlLoader.<MainWindow>getController().setLeBron(lebron);  // inject the Duke instance
             stage.show();
+            lebron.startLoading();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,7 +1,12 @@
 package lebron.gui;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
@@ -10,8 +15,16 @@ import javafx.scene.layout.VBox;
 import lebron.LeBron;
 /**
  * Controller for the main GUI.
+ * Commands run one at a time on a background worker, in the order they were typed,
+ * so the window stays responsive while a long command is working.
+ * Only the most recent messages are kept on screen, so a long session doesn't keep growing the window.
  */
 public class MainWindow extends AnchorPane {
+    private static final int MAX_DIALOGS = 200;
+    // Decoded once and shared by every dialog box
+    private static final Image USER_IMAGE = new Image(MainWindow.class.getResourceAsStream("/images/bronny.png"));
+    private static final Image LEBRON_IMAGE = new Image(MainWindow.class.getResourceAsStream("/images/lebron.png"));
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -20,15 +33,24 @@ public class MainWindow extends AnchorPane {
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
 
     private LeBron lebron;
 
-    private Image userImage = new Image(this.getClass().getResourceAsStream("/images/bronny.png"));
-    private Image lebronImage = new Image(this.getClass().getResourceAsStream("/images/lebron.png"));
+    // A single worker keeps commands in the order they were sent
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lebron-gui-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Commands sent but not answered yet; only touched on the FX thread
+    private int pendingCommands;
 
     @FXML
     public void initialize() {
         scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        busyIndicator.setVisible(false);
     }
 
     /** Injects the Duke instance */
@@ -37,17 +59,51 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Shows the user's message right away and queues the command for the background worker.
+     * Clears the user input so the next command can be typed while this one runs.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = lebron.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getDukeDialog(response, lebronImage)
-        );
+        addDialog(DialogBox.getUserDialog(input, USER_IMAGE));
         userInput.clear();
+
+        pendingCommands++;
+        busyIndicator.setVisible(true);
+        commandExecutor.execute(() -> {
+            // Nodes may be built off the FX thread as long as they are not yet part of the scene
+            DialogBox reply;
+            try {
+                reply = DialogBox.getDukeDialog(lebron.getStructuredResponse(input), LEBRON_IMAGE);
+            } catch (RuntimeException e) {
+                reply = DialogBox.getDukeDialog("Something went wrong: " + e.getMessage(), LEBRON_IMAGE);
+            }
+            DialogBox finishedReply = reply;
+            Platform.runLater(() -> showResponse(finishedReply));
+        });
+    }
+
+    /**
+     * Adds the reply to a command to the conversation. Runs on the FX thread.
+     *
+     * @param reply the reply to show
+     */
+    private void showResponse(DialogBox reply) {
+        addDialog(reply);
+        pendingCommands--;
+        busyIndicator.setVisible(pendingCommands > 0);
+    }
+
+    /**
+     * Adds a message to the conversation, dropping the oldest ones once there are too many.
+     *
+     * @param dialog the message to add
+     */
+    private void addDialog(DialogBox dialog) {
+        dialogContainer.getChildren().add(dialog);
+        int excess = dialogContainer.getChildren().size() - MAX_DIALOGS;
+        if (excess > 0) {
+            dialogContainer.getChildren().remove(0, excess);
+        }
     }
 }
@@ -0,0 +1,80 @@
+package lebron.gui;
+
+import java.util.List;
+
+import javafx.collections.FXCollections;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import lebron.task.Task;
+import lebron.ui.Ui;
+
+/**
+ * A scrolling list of tasks shown inside a reply.
+ * Only the rows on screen are ever laid out: cells are recycled as the list scrolls,
+ * so a reply listing a million tasks costs the same to show as one listing ten.
+ */
+public class TaskListView extends ListView<Task> {
+    private static final double CELL_HEIGHT = 24.0;
+    private static final int MAX_VISIBLE_ROWS = 12;
+    // Passed as the first number to show the tasks without numbers
+    private static final int UNNUMBERED = 0;
+
+    /**
+     * Creates a view of the given tasks, numbered in list order.
+     *
+     * @param tasks the tasks to show, which the view wraps without copying
+     * @param firstNumber the number of the first task (1-based)
+     */
+    public TaskListView(List<Task> tasks, int firstNumber) {
+        super(FXCollections.observableList(tasks));
+        assert firstNumber > 0 : "Task numbers start at 1";
+        setUp(tasks, firstNumber);
+    }
+
+    /**
+     * Creates a view of the given tasks without numbers, such as the tasks a command changed.
+     *
+     * @param tasks the tasks to show, which the view wraps without copying
+     */
+    public TaskListView(List<Task> tasks) {
+        super(FXCollections.observableList(tasks));
+        setUp(tasks, UNNUMBERED);
+    }
+
+    /**
+     * Sets up the rows and the height of the list.
+     *
+     * @param tasks the tasks shown
+     * @param firstNumber the number of the first task (1-based), or UNNUMBERED
+     */
+    private void setUp(List<Task> tasks, int firstNumber) {
+        setCellFactory(listView -> new TaskCell(firstNumber));
+        // A fixed height lets the list skip measuring rows it never shows
+        setFixedCellSize(CELL_HEIGHT);
+        setPrefHeight(Math.min(tasks.size(), MAX_VISIBLE_ROWS) * CELL_HEIGHT + 2);
+        setFocusTraversable(false);
+    }
+
+    /**
+     * A reusable row showing one task in the same format as the console.
+     */
+    private static class TaskCell extends ListCell<Task> {
+        private final int firstNumber;
+
+        TaskCell(int firstNumber) {
+            this.firstNumber = firstNumber;
+        }
+
+        @Override
+        protected void updateItem(Task task, boolean isEmpty) {
+            super.updateItem(task, isEmpty);
+            if (isEmpty || task == null) {
+                setText(null);
+            } else if (firstNumber == UNNUMBERED) {
+                setText(Ui.formatTask(task));
+            } else {
+                setText(Ui.formatTaskRow(getIndex() + firstNumber, task));
+            }
+        }
+    }
+}
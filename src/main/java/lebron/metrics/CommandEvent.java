@@ -0,0 +1,41 @@
+package lebron.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering one command being executed against the task list.
+ * Costs next to nothing when no recording is running.
+ */
+@Name("lebron.Command")
+@Label("Command")
+@Category("LeBron")
+@Description("A command executed against the task list")
+@StackTrace(false)
+public class CommandEvent extends Event {
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Task Count")
+    @Description("Tasks in the list once the command finished")
+    private int taskCount;
+
+    /**
+     * Ends the event and hands it to any running recording.
+     *
+     * @param commandType the name of the command, like "LIST" or a word added to the registry
+     * @param taskCount the number of tasks in the list afterwards
+     */
+    public void record(String commandType, int taskCount) {
+        end();
+        if (shouldCommit()) {
+            this.commandType = commandType;
+            this.taskCount = taskCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package lebron.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event covering a search index being built or rebuilt over the whole task list.
+ * Adding or removing tasks only touches their own entries, which is recorded as an {@link IndexUpdateEvent}.
+ */
+@Name("lebron.IndexBuild")
+@Label("Build Index")
+@Category("LeBron")
+@Description("A keyword or date index built over every task in the list")
+public class IndexEvent extends Event {
+    @Label("Index")
+    private String index;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    /**
+     * Ends the event and hands it to any running recording.
+     *
+     * @param index which index was built, like "keyword"
+     * @param taskCount the number of tasks indexed
+     */
+    public void record(String index, int taskCount) {
+        end();
+        if (shouldCommit()) {
+            this.index = index;
+            this.taskCount = taskCount;
+            commit();
+        }
+    }
+}
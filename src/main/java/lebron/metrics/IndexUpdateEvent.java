@@ -0,0 +1,42 @@
+package lebron.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering the search indexes being updated for tasks added to or removed from the list,
+ * including tasks put back by a rollback. Marking tasks leaves the indexes alone, so it is not recorded.
+ * Full builds are recorded as an {@link IndexEvent} instead.
+ */
+@Name("lebron.IndexUpdate")
+@Label("Update Index")
+@Category("LeBron")
+@Description("The search indexes updated for tasks added to or removed from the list")
+@StackTrace(false)
+public class IndexUpdateEvent extends Event {
+    @Label("Change")
+    private String change;
+
+    @Label("Task Count")
+    @Description("Tasks added to or removed from the indexes")
+    private int taskCount;
+
+    /**
+     * Ends the event and hands it to any running recording.
+     *
+     * @param change what happened to the tasks, like "add"
+     * @param taskCount the number of tasks added or removed
+     */
+    public void record(String change, int taskCount) {
+        end();
+        if (shouldCommit()) {
+            this.change = change;
+            this.taskCount = taskCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package lebron.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event covering the saved tasks being read from disk, snapshot and journal together.
+ */
+@Name("lebron.Load")
+@Label("Load Tasks")
+@Category("LeBron")
+@Description("The snapshot and journal read back into a task list")
+public class LoadEvent extends Event {
+    @Label("Format")
+    private String format;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Bytes Read")
+    @DataAmount
+    private long bytesRead;
+
+    @Label("Corrupted Lines")
+    @Description("Snapshot lines skipped because they could not be read as tasks")
+    private int corruptedLines;
+
+    /**
+     * Ends the event and hands it to any running recording.
+     *
+     * @param format the snapshot format, like "TEXT"
+     * @param taskCount the number of tasks loaded
+     * @param bytesRead the size of the files read
+     * @param corruptedLines the number of snapshot lines skipped
+     */
+    public void record(String format, int taskCount, long bytesRead, int corruptedLines) {
+        end();
+        if (shouldCommit()) {
+            this.format = format;
+            this.taskCount = taskCount;
+            this.bytesRead = bytesRead;
+            this.corruptedLines = corruptedLines;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package lebron.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lebron.common.CommandType;
+
+/**
+ * Keeps latency histograms for every command type, every command added under a word of its own,
+ * and every phase of running a command, plus a count of commands that failed.
+ * Everything is updated without locks, so timing a command costs a few hundred nanoseconds at most.
+ *
+ * The statistics can be written to a file at a fixed interval, set up with the "lebron.metrics.file"
+ * and "lebron.metrics.intervalMillis" system properties.
+ */
+public class MetricsRegistry {
+    private static final String FILE_PROPERTY = "lebron.metrics.file";
+    private static final String INTERVAL_PROPERTY = "lebron.metrics.intervalMillis";
+    private static final long DEFAULT_INTERVAL_MILLIS = 60_000;
+    // How long stopping waits for a write in progress
+    private static final long DUMP_TIMEOUT_MILLIS = 5_000;
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String ROW_FORMAT = "%-10s %8s %9s %9s %9s %9s";
+    private static final long NANOS_PER_MICRO = 1_000;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final long NANOS_PER_SECOND = 1_000_000_000;
+
+    private final LatencyHistogram[] phases = createHistograms(Phase.values().length);
+    private final LatencyHistogram[] commands = createHistograms(CommandType.values().length);
+    // Histograms of added commands by their word, sorted so they are listed in a stable order
+    private final Map<String, LatencyHistogram> customCommands = new ConcurrentSkipListMap<>();
+    private final LongAdder errors = new LongAdder();
+    private ScheduledExecutorService dumper;
+    private Path dumpFile;
+
+    /**
+     * Records how long one phase of a command took.
+     *
+     * @param phase the phase
+     * @param nanos the time taken in nanoseconds
+     */
+    public void recordPhase(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records how long a whole command took.
+     *
+     * @param type the kind of command, or UNKNOWN for input that could not be parsed
+     * @param nanos the time taken in nanoseconds
+     * @param isError whether the command ended with an error
+     */
+    public void recordCommand(CommandType type, long nanos, boolean isError) {
+        commands[type.ordinal()].record(nanos);
+        if (isError) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records how long a command added under a word of its own took.
+     *
+     * @param keyword the word the command was added under
+     * @param nanos the time taken in nanoseconds
+     * @param isError whether the command ended with an error
+     */
+    public void recordCustomCommand(String keyword, long nanos, boolean isError) {
+        customCommands.computeIfAbsent(keyword, word -> new LatencyHistogram()).record(nanos);
+        if (isError) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Gets the histogram of one phase.
+     *
+     * @param phase the phase
+     * @return its histogram
+     */
+    public LatencyHistogram getPhase(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /**
+     * Gets the histogram of one kind of command.
+     *
+     * @param type the kind of command
+     * @return its histogram
+     */
+    public LatencyHistogram getCommand(CommandType type) {
+        return commands[type.ordinal()];
+    }
+
+    /**
+     * Gets the histogram of a command added under a word of its own.
+     *
+     * @param keyword the word the command was added under
+     * @return its histogram, or null if the command has not run
+     */
+    public LatencyHistogram getCustomCommand(String keyword) {
+        return customCommands.get(keyword);
+    }
+
+    /**
+     * Gets the number of commands that ended with an error.
+     *
+     * @return the error count
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * Lays out the statistics as a table, one row per phase and one per kind of command that has run.
+     *
+     * @return the table, with lines separated by the system line separator
+     */
+    public String formatStats() {
+        long commandCount = 0;
+        for (LatencyHistogram histogram : commands) {
+            commandCount += histogram.getCount();
+        }
+        for (LatencyHistogram histogram : customCommands.values()) {
+            commandCount += histogram.getCount();
+        }
+        StringBuilder stats = new StringBuilder();
+        stats.append(String.format("Commands: %d, errors: %d", commandCount, errors.sum()));
+        appendHeader(stats, "phase");
+        for (Phase phase : Phase.values()) {
+            appendRow(stats, phase.getLabel(), phases[phase.ordinal()]);
+        }
+        appendHeader(stats, "command");
+        for (CommandType type : CommandType.values()) {
+            LatencyHistogram histogram = commands[type.ordinal()];
+            if (histogram.getCount() > 0) {
+                appendRow(stats, type.getKeyword() == null ? "other" : type.getKeyword(), histogram);
+            }
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : customCommands.entrySet()) {
+            appendRow(stats, entry.getKey(), entry.getValue());
+        }
+        return stats.toString();
+    }
+
+    /**
+     * Writes the statistics to a file, replacing what was there with an atomic rename.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void dump(Path file) throws IOException {
+        Path temp = Paths.get(file + TEMP_FILE_SUFFIX);
+        Files.writeString(temp, "LeBron metrics at " + LocalDateTime.now() + LINE_SEPARATOR
+                + formatStats() + LINE_SEPARATOR);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Starts writing the statistics to the file named by the "lebron.metrics.file" system property,
+     * every "lebron.metrics.intervalMillis" milliseconds (a minute by default).
+     * Does nothing if the property is not set.
+     */
+    public void startDumpingFromSystemProperties() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null && !file.isBlank()) {
+            startDumping(Paths.get(file), Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL_MILLIS));
+        }
+    }
+
+    /**
+     * Starts writing the statistics to a file on a background thread at a fixed interval.
+     * Does nothing if the statistics are already being written.
+     *
+     * @param file the file to write
+     * @param intervalMillis how often to write it, in milliseconds
+     */
+    public synchronized void startDumping(Path file, long intervalMillis) {
+        assert intervalMillis > 0 : "Interval must be positive";
+        if (dumper != null) {
+            return;
+        }
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lebron-metrics");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(() -> dumpQuietly(file), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops writing the statistics, after waiting for a write in progress and writing them one last time.
+     * Does nothing if they are not being written.
+     */
+    public synchronized void stopDumping() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdown();
+        try {
+            dumper.awaitTermination(DUMP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dumper = null;
+        dumpQuietly(dumpFile);
+    }
+
+    /**
+     * Writes the statistics to a file, warning instead of failing if it cannot be written.
+     *
+     * @param file the file to write
+     */
+    private void dumpQuietly(Path file) {
+        try {
+            dump(file);
+        } catch (IOException e) {
+            // The statistics are still in memory, so the next run simply tries again
+            System.out.printf("Warning: Could not write metrics to %s: %s%n", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the column headings of a table section.
+     *
+     * @param stats the table so far
+     * @param name the heading of the first column
+     */
+    private static void appendHeader(StringBuilder stats, String name) {
+        stats.append(LINE_SEPARATOR)
+                .append(String.format(ROW_FORMAT, name, "count", "p50", "p99", "p99.9", "max"));
+    }
+
+    /**
+     * Adds one row to the table.
+     *
+     * @param stats the table so far
+     * @param name what the row is for
+     * @param histogram the durations to sum up
+     */
+    private static void appendRow(StringBuilder stats, String name, LatencyHistogram histogram) {
+        stats.append(LINE_SEPARATOR).append(String.format(ROW_FORMAT, name, histogram.getCount(),
+                formatNanos(histogram.getPercentileNanos(0.5)),
+                formatNanos(histogram.getPercentileNanos(0.99)),
+                formatNanos(histogram.getPercentileNanos(0.999)),
+                formatNanos(histogram.getMaxNanos())));
+    }
+
+    /**
+     * Formats a duration in the largest unit that keeps it above one.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the duration, like "850ns", "12.5us" or "3.2ms"
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos < NANOS_PER_MICRO) {
+            return nanos + "ns";
+        } else if (nanos < NANOS_PER_MILLI) {
+            return String.format("%.1fus", (double) nanos / NANOS_PER_MICRO);
+        } else if (nanos < NANOS_PER_SECOND) {
+            return String.format("%.1fms", (double) nanos / NANOS_PER_MILLI);
+        }
+        return String.format("%.2fs", (double) nanos / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Creates empty histograms.
+     *
+     * @param count how many to create
+     * @return the histograms
+     */
+    private static LatencyHistogram[] createHistograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+}
@@ -0,0 +1,35 @@
+package lebron.metrics;
+
+/**
+ * The steps every command goes through, timed separately so a slow command can be pinned down.
+ */
+public enum Phase {
+    /** Turning the typed line into a command */
+    PARSE("parse"),
+    /** Running the command against the task list, writing its reply into a buffer */
+    EXECUTE("execute"),
+    /** Recording the command's changes in the journal */
+    PERSIST("persist"),
+    /** Handing the finished reply to the console or the caller */
+    RENDER("render");
+
+    private final String label;
+
+    /**
+     * Creates a phase.
+     *
+     * @param label the name shown in statistics
+     */
+    Phase(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the name shown for this phase in statistics.
+     *
+     * @return the label, like "parse"
+     */
+    public String getLabel() {
+        return label;
+    }
+}
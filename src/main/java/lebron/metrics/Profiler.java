@@ -0,0 +1,86 @@
+package lebron.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lebron.common.ErrorType;
+import lebron.common.LeBronException;
+
+/**
+ * Starts and stops flight recordings from inside the app, so a slow machine can be profiled
+ * without attaching anything to it. A recording holds the JDK's own profiling events plus
+ * LeBron's command, load, save and index events, and is saved as a .jfr file.
+ */
+public class Profiler {
+    // The JDK's built-in settings with method sampling and allocation profiling turned on
+    private static final String CONFIGURATION = "profile";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private Recording recording;
+
+    /**
+     * Starts a recording.
+     *
+     * @throws LeBronException if a recording is already running
+     */
+    public synchronized void start() throws LeBronException {
+        if (recording != null) {
+            throw new LeBronException(ErrorType.PROFILE_ALREADY_RUNNING.getMessage());
+        }
+        Recording newRecording;
+        try {
+            newRecording = new Recording(Configuration.getConfiguration(CONFIGURATION));
+        } catch (IOException | ParseException e) {
+            // Without the JDK's settings only LeBron's own events are recorded
+            newRecording = new Recording();
+        }
+        newRecording.setName("LeBron");
+        newRecording.enable(CommandEvent.class);
+        newRecording.enable(LoadEvent.class);
+        newRecording.enable(SaveEvent.class);
+        newRecording.enable(IndexEvent.class);
+        newRecording.enable(IndexUpdateEvent.class);
+        newRecording.start();
+        recording = newRecording;
+    }
+
+    /**
+     * Stops the recording and saves it to a new file named after the current time.
+     *
+     * @param directory the folder to save the file in, which is created if needed
+     * @return the saved file
+     * @throws LeBronException if no recording is running or it cannot be saved
+     */
+    public synchronized Path stop(Path directory) throws LeBronException {
+        if (recording == null) {
+            throw new LeBronException(ErrorType.PROFILE_NOT_RUNNING.getMessage());
+        }
+        Path file = directory.resolve("lebron-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try {
+            recording.stop();
+            Files.createDirectories(directory);
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new LeBronException("Could not save the profile: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Checks whether a recording is running.
+     *
+     * @return true if one was started and not stopped yet
+     */
+    public synchronized boolean isRecording() {
+        return recording != null;
+    }
+}
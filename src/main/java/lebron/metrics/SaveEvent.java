@@ -0,0 +1,45 @@
+package lebron.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A flight recorder event covering a full snapshot of the task list being written,
+ * whether by a save or by the journal being compacted.
+ */
+@Name("lebron.Save")
+@Label("Save Snapshot")
+@Category("LeBron")
+@Description("The whole task list written out as a fresh snapshot")
+public class SaveEvent extends Event {
+    @Label("Format")
+    private String format;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytesWritten;
+
+    /**
+     * Ends the event and hands it to any running recording.
+     *
+     * @param format the snapshot format, like "TEXT"
+     * @param taskCount the number of tasks written
+     * @param bytesWritten the size of the snapshot file
+     */
+    public void record(String format, int taskCount, long bytesWritten) {
+        end();
+        if (shouldCommit()) {
+            this.format = format;
+            this.taskCount = taskCount;
+            this.bytesWritten = bytesWritten;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package lebron.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import lebron.TaskManager;
+import lebron.common.ErrorType;
+
+/**
+ * Serves LeBron to many command-line clients at once over a local socket.
+ * Clients send one command per line and get back the same text the console would show,
+ * followed by a blank line that marks the end of the response.
+ *
+ * Each connection is handled by its own session thread, using virtual threads when the
+ * Java runtime has them, and all sessions share one TaskManager.
+ * Connections beyond the limit are turned away with a short message.
+ *
+ * Usage: {@code LeBronServer [port | socket-path]}, listening on localhost port 4577 by default.
+ * The connection limit comes from the "lebron.server.maxConnections" system property (1024 by default).
+ */
+public class LeBronServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 4577;
+    private static final String MAX_CONNECTIONS_PROPERTY = "lebron.server.maxConnections";
+    private static final int DEFAULT_MAX_CONNECTIONS = 1024;
+
+    private final TaskManager taskManager;
+    private final SocketAddress address;
+    private final Semaphore connectionPermits;
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private ServerSocketChannel serverChannel;
+    private ExecutorService sessionExecutor;
+    private Thread acceptorThread;
+
+    /**
+     * Creates a server that has not started listening yet.
+     *
+     * @param taskManager the task manager every session sends its commands to
+     * @param address where to listen: an InetSocketAddress for TCP or a UnixDomainSocketAddress
+     * @param maxConnections how many clients may be connected at the same time
+     */
+    public LeBronServer(TaskManager taskManager, SocketAddress address, int maxConnections) {
+        assert taskManager != null : "TaskManager cannot be null";
+        assert address != null : "Address cannot be null";
+        assert maxConnections > 0 : "Connection limit must be positive";
+        this.taskManager = taskManager;
+        this.address = address;
+        this.connectionPermits = new Semaphore(maxConnections);
+    }
+
+    /**
+     * Starts the server from the command line.
+     *
+     * @param args an optional port number or Unix socket path to listen on
+     * @throws IOException if the server cannot start listening
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SocketAddress address = args.length > 0
+                ? parseAddress(args[0])
+                : new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        int maxConnections = Integer.getInteger(MAX_CONNECTIONS_PROPERTY, DEFAULT_MAX_CONNECTIONS);
+
+        TaskManager taskManager = new TaskManager();
+        taskManager.closeOnShutdown();
+        LeBronServer server = new LeBronServer(taskManager, address, maxConnections);
+        server.start();
+        System.out.println("LeBron is listening on " + server.getLocalAddress());
+        server.join();
+    }
+
+    /**
+     * Turns a command-line argument into an address on this machine.
+     *
+     * @param argument a port number, or the path of a Unix domain socket
+     * @return the address to listen on
+     */
+    static SocketAddress parseAddress(String argument) {
+        if (argument.matches("\\d+")) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(argument));
+        }
+        return UnixDomainSocketAddress.of(argument);
+    }
+
+    /**
+     * Binds the socket and starts accepting clients on a background thread.
+     *
+     * @throws IOException if the socket cannot be bound
+     */
+    public synchronized void start() throws IOException {
+        if (serverChannel != null) {
+            return;
+        }
+        if (address instanceof UnixDomainSocketAddress) {
+            // A socket file left behind by an earlier run would make the bind fail
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+            serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+
+        sessionExecutor = createSessionExecutor();
+        acceptorThread = new Thread(this::acceptClients, "lebron-server");
+        acceptorThread.setDaemon(true);
+        acceptorThread.start();
+    }
+
+    /**
+     * Gets the address the server is listening on, including the port picked when asked for port 0.
+     *
+     * @return the bound address
+     * @throws IOException if the address cannot be read
+     */
+    public synchronized SocketAddress getLocalAddress() throws IOException {
+        assert serverChannel != null : "Server has not been started";
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Waits until the server stops accepting clients.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void join() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            thread = acceptorThread;
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Stops accepting clients and disconnects every open session.
+     *
+     * @throws IOException if the socket cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverChannel == null) {
+            return;
+        }
+        serverChannel.close();
+        for (Session session : sessions) {
+            session.close();
+        }
+        sessionExecutor.shutdown();
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+    }
+
+    /**
+     * Body of the acceptor thread.
+     * Hands every new client to a session thread, or turns it away if the server is full.
+     */
+    private void acceptClients() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!serverChannel.isOpen()) {
+                    return;
+                }
+                System.out.println("Warning: Could not accept client: " + e.getMessage());
+                continue;
+            }
+
+            if (!connectionPermits.tryAcquire()) {
+                startSessionThread(channel, () -> Session.reject(channel, ErrorType.SERVER_BUSY.getMessage()));
+                continue;
+            }
+            Session session = new Session(channel, taskManager);
+            sessions.add(session);
+            startSessionThread(channel, () -> {
+                try {
+                    session.run();
+                } finally {
+                    sessions.remove(session);
+                    connectionPermits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a client's session on its own thread.
+     * Drops the client if the server closed while it was being accepted.
+     *
+     * @param channel the client's connection
+     * @param task the work to do for the client
+     */
+    private void startSessionThread(SocketChannel channel, Runnable task) {
+        try {
+            sessionExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            try {
+                channel.close();
+            } catch (IOException closeError) {
+                // The server is shutting down anyway
+            }
+        }
+    }
+
+    /**
+     * Creates the executor that runs one thread per session.
+     * Uses virtual threads on runtimes that have them, so thousands of mostly idle sessions stay cheap,
+     * and falls back to a pool of daemon platform threads otherwise.
+     *
+     * @return an executor that starts a new thread for each session as needed
+     */
+    private static ExecutorService createSessionExecutor() {
+        try {
+            // Looked up by name so the code still builds and runs on runtimes without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "lebron-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package lebron.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import lebron.TaskManager;
+import lebron.ui.ListCursor;
+import lebron.ui.Ui;
+
+/**
+ * One connected client of the {@link LeBronServer}.
+ * Reads commands a line at a time and writes each response before reading the next command.
+ *
+ * The session keeps one response buffer and one fixed-size output buffer for its whole life,
+ * and writes block until the client has room to take them. A client that stops reading therefore
+ * only stalls its own session: nothing else waits for it and its output never piles up in memory.
+ */
+class Session implements Runnable {
+    private static final int OUTPUT_BUFFER_SIZE = 8 * 1024;
+    private static final String LINE_SEPARATOR = Ui.PROTOCOL_LINE_SEPARATOR;
+
+    private final SocketChannel channel;
+    private final TaskManager taskManager;
+    private final StringBuilder response = new StringBuilder();
+    private final ListCursor listCursor = new ListCursor();
+    private final ByteBuffer outputBuffer = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Creates a session for a newly accepted client.
+     *
+     * @param channel the client's connection, in blocking mode
+     * @param taskManager the task manager to send commands to
+     */
+    Session(SocketChannel channel, TaskManager taskManager) {
+        this.channel = channel;
+        this.taskManager = taskManager;
+    }
+
+    /**
+     * Tells a client the server cannot take it and disconnects it.
+     *
+     * @param channel the client's connection
+     * @param message why the client is turned away
+     */
+    static void reject(SocketChannel channel, String message) {
+        try (SocketChannel closing = channel) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(message + LINE_SEPARATOR + LINE_SEPARATOR);
+            while (bytes.hasRemaining()) {
+                closing.write(bytes);
+            }
+        } catch (IOException e) {
+            // The client is being dropped anyway
+        }
+    }
+
+    /**
+     * Serves the client until it says goodbye or disconnects.
+     */
+    @Override
+    public void run() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8))) {
+            new Ui(response, listCursor, LINE_SEPARATOR).showWelcome();
+            writeResponse();
+
+            boolean isRunning = true;
+            String input;
+            while (isRunning && (input = reader.readLine()) != null) {
+                response.setLength(0);
+                isRunning = taskManager.processCommand(input, response, listCursor, LINE_SEPARATOR);
+                writeResponse();
+            }
+        } catch (IOException e) {
+            // The client went away; its committed changes are already recorded
+        } finally {
+            taskManager.abandonTransaction();
+            close();
+        }
+    }
+
+    /**
+     * Disconnects the client.
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing more can be done with a connection that will not close
+        }
+    }
+
+    /**
+     * Writes the buffered response followed by the blank line that ends it.
+     * Blocks while the client is not reading, which holds back this session's next command.
+     *
+     * @throws IOException if the client has disconnected
+     */
+    private void writeResponse() throws IOException {
+        // Trailing line breaks are replaced so every response ends in exactly one blank line
+        int end = response.length();
+        while (end > 0 && Character.isWhitespace(response.charAt(end - 1))) {
+            end--;
+        }
+        response.setLength(end);
+        if (end > 0) {
+            response.append(LINE_SEPARATOR);
+        }
+        response.append(LINE_SEPARATOR);
+
+        encoder.reset();
+        CharBuffer chars = CharBuffer.wrap(response);
+        while (encoder.encode(chars, outputBuffer, true).isOverflow()) {
+            drainOutput();
+        }
+        while (encoder.flush(outputBuffer).isOverflow()) {
+            drainOutput();
+        }
+        drainOutput();
+    }
+
+    /**
+     * Sends everything in the output buffer to the client and empties the buffer.
+     *
+     * @throws IOException if the client has disconnected
+     */
+    private void drainOutput() throws IOException {
+        outputBuffer.flip();
+        while (outputBuffer.hasRemaining()) {
+            channel.write(outputBuffer);
+        }
+        outputBuffer.clear();
+    }
+}
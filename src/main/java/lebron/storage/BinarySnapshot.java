@@ -0,0 +1,355 @@
+package lebron.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.ToDo;
+
+/**
+ * Reads and writes task snapshots in a compact columnar binary format.
+ * Loading maps the file into memory and decodes it without any text parsing.
+ *
+ * Layout (big-endian):
+ * MAGIC, VERSION, COUNT,
+ * COUNT type bytes, COUNT status bytes, COUNT width bytes (how many timestamps each task has),
+ * TIMESTAMP_COUNT, TIMESTAMP_COUNT epoch-second longs (one per deadline, two per event, in task order),
+ * COUNT descriptions, each as a length-prefixed UTF-8 string.
+ *
+ * The width column makes every task's timestamps findable without trusting its type, so a task with a
+ * corrupted type byte is skipped on its own. Files from version 1, which had no width column, can still be
+ * read, but there a corrupted type also loses the dates of every later task.
+ */
+class BinarySnapshot {
+    private static final int MAGIC = 0x4C42524E; // "LBRN"
+    private static final int VERSION = 2;
+    // The first version, which had no width column
+    private static final int VERSION_WITHOUT_WIDTHS = 1;
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+    private static final byte STATUS_NOT_DONE = 0;
+    private static final byte STATUS_DONE = 1;
+
+    /**
+     * Writes the tasks to a binary snapshot file.
+     *
+     * @param path the file to write
+     * @param tasks the tasks to write
+     * @throws IOException if something goes wrong with file writing
+     */
+    static void write(Path path, ArrayList<Task> tasks) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(tasks.size());
+
+            int timestampCount = 0;
+            for (Task task : tasks) {
+                out.writeByte(typeOf(task));
+                if (task instanceof Deadline) {
+                    timestampCount++;
+                } else if (task instanceof Event) {
+                    timestampCount += 2;
+                }
+            }
+            for (Task task : tasks) {
+                out.writeByte(task.isDone() ? STATUS_DONE : STATUS_NOT_DONE);
+            }
+            for (Task task : tasks) {
+                out.writeByte(timestampsOf(typeOf(task)));
+            }
+
+            out.writeInt(timestampCount);
+            for (Task task : tasks) {
+                if (task instanceof Deadline) {
+                    out.writeLong(toEpochSecond(((Deadline) task).getBy()));
+                } else if (task instanceof Event) {
+                    Event event = (Event) task;
+                    out.writeLong(toEpochSecond(event.getFrom()));
+                    out.writeLong(toEpochSecond(event.getTo()));
+                }
+            }
+
+            for (Task task : tasks) {
+                byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(description.length);
+                out.write(description);
+            }
+        }
+    }
+
+    /**
+     * Reads the tasks from a binary snapshot file.
+     * Skips tasks with an invalid type or status or an empty description, like the text loader does.
+     *
+     * @param path the file to read
+     * @return the tasks in the file and how many were skipped
+     * @throws IOException if the file cannot be read or its structure is corrupted
+     */
+    static Contents read(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            return decode(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupted binary task file " + path, e);
+        }
+    }
+
+    /**
+     * Decodes every column of a mapped snapshot.
+     *
+     * @param buffer the mapped file
+     * @return the decoded tasks and how many were skipped
+     * @throws IOException if the header or column sizes are invalid
+     */
+    private static Contents decode(MappedByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a LeBron binary task file");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION && version != VERSION_WITHOUT_WIDTHS) {
+            throw new IOException("Unsupported binary task file version " + version);
+        }
+        boolean hasWidths = version != VERSION_WITHOUT_WIDTHS;
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IOException("Invalid task count " + count);
+        }
+
+        int typesOffset = buffer.position();
+        int statusesOffset = typesOffset + count;
+        int widthsOffset = statusesOffset + count;
+        buffer.position(hasWidths ? widthsOffset + count : widthsOffset);
+        int timestampCount = buffer.getInt();
+        if (timestampCount < 0 || timestampCount > buffer.remaining() / Long.BYTES) {
+            throw new IOException("Invalid timestamp count " + timestampCount);
+        }
+        if (hasWidths) {
+            checkWidths(buffer, widthsOffset, count, timestampCount);
+        }
+        int timestampsOffset = buffer.position();
+        buffer.position(timestampsOffset + timestampCount * Long.BYTES);
+
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        int timestampIndex = 0;
+        // Cleared in a version 1 file once a task of unknown type has used an unknown number of timestamps
+        boolean isTimestampAligned = true;
+        int corruptedTasks = 0;
+        byte[] scratch = new byte[64];
+
+        for (int i = 0; i < count; i++) {
+            byte type = buffer.get(typesOffset + i);
+            byte status = buffer.get(statusesOffset + i);
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Invalid description length " + length);
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            String description = new String(scratch, 0, length, StandardCharsets.UTF_8);
+
+            int timestampsNeeded = timestampsOf(type);
+            int width = hasWidths ? buffer.get(widthsOffset + i) : timestampsNeeded;
+            if (timestampsNeeded < 0) {
+                TaskCodec.logWarning("Task %d has invalid task type '%d' - expected T, D, or E", i + 1, type);
+                corruptedTasks++;
+                if (hasWidths) {
+                    timestampIndex += width;
+                } else {
+                    isTimestampAligned = false;
+                }
+                continue;
+            }
+            if (timestampsNeeded != width) {
+                TaskCodec.logWarning("Task %d has %d date(s) but its type needs %d", i + 1, width, timestampsNeeded);
+                corruptedTasks++;
+                timestampIndex += width;
+                continue;
+            }
+            if (timestampsNeeded > 0 && !isTimestampAligned) {
+                TaskCodec.logWarning("Task %d has dates that cannot be told apart from an earlier corrupted task's",
+                        i + 1);
+                corruptedTasks++;
+                continue;
+            }
+            if (timestampIndex + timestampsNeeded > timestampCount) {
+                throw new IOException("Timestamp column is shorter than expected");
+            }
+
+            Task task;
+            switch (type) {
+            case TYPE_DEADLINE:
+                task = new Deadline(description, readTimestamp(buffer, timestampsOffset, timestampIndex++));
+                break;
+            case TYPE_EVENT:
+                LocalDateTime from = readTimestamp(buffer, timestampsOffset, timestampIndex++);
+                LocalDateTime to = readTimestamp(buffer, timestampsOffset, timestampIndex++);
+                task = new Event(description, from, to);
+                break;
+            default:
+                task = new ToDo(description);
+                break;
+            }
+
+            if (status != STATUS_DONE && status != STATUS_NOT_DONE) {
+                TaskCodec.logWarning("Task %d has invalid status '%d' - expected 0 or 1", i + 1, status);
+                corruptedTasks++;
+                continue;
+            }
+            if (description.trim().isEmpty()) {
+                TaskCodec.logWarning("Task %d has empty description", i + 1);
+                corruptedTasks++;
+                continue;
+            }
+            if (status == STATUS_DONE) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+
+        if (corruptedTasks > 0) {
+            TaskCodec.logWarning("%d corrupted task(s) were skipped while loading.", corruptedTasks);
+        }
+        return new Contents(tasks, corruptedTasks);
+    }
+
+    /**
+     * The tasks read from a snapshot, along with how many corrupted ones were skipped.
+     */
+    static class Contents {
+        private final ArrayList<Task> tasks;
+        private final int corruptedTasks;
+
+        /**
+         * Creates the result of a read.
+         *
+         * @param tasks the tasks read
+         * @param corruptedTasks the number of tasks skipped as corrupted
+         */
+        Contents(ArrayList<Task> tasks, int corruptedTasks) {
+            this.tasks = tasks;
+            this.corruptedTasks = corruptedTasks;
+        }
+
+        /**
+         * Gets the tasks read.
+         *
+         * @return the tasks, in order
+         */
+        ArrayList<Task> getTasks() {
+            return tasks;
+        }
+
+        /**
+         * Gets the number of tasks skipped as corrupted.
+         *
+         * @return the number of tasks skipped
+         */
+        int getCorruptedTasks() {
+            return corruptedTasks;
+        }
+    }
+
+    /**
+     * Checks that every task's width is a possible number of timestamps and that together they fill
+     * the timestamp column exactly, so each task's timestamps can be found from the widths alone.
+     *
+     * @param buffer the mapped file
+     * @param widthsOffset where the width column starts
+     * @param count the number of tasks
+     * @param timestampCount the length of the timestamp column
+     * @throws IOException if a width is invalid or the widths don't add up to the column's length
+     */
+    private static void checkWidths(MappedByteBuffer buffer, int widthsOffset, int count, int timestampCount)
+            throws IOException {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            byte width = buffer.get(widthsOffset + i);
+            if (width < 0 || width > 2) {
+                throw new IOException("Invalid timestamp width " + width + " for task " + (i + 1));
+            }
+            total += width;
+        }
+        if (total != timestampCount) {
+            throw new IOException("Timestamp column does not match the task widths");
+        }
+    }
+
+    /**
+     * Gets how many timestamps a task of the given type has in the timestamp column.
+     *
+     * @param type the type byte
+     * @return 0 for a todo, 1 for a deadline, 2 for an event, or -1 if the type is invalid
+     */
+    private static int timestampsOf(byte type) {
+        switch (type) {
+        case TYPE_TODO:
+            return 0;
+        case TYPE_DEADLINE:
+            return 1;
+        case TYPE_EVENT:
+            return 2;
+        default:
+            return -1;
+        }
+    }
+
+    /**
+     * Reads one entry of the timestamp column.
+     *
+     * @param buffer the mapped file
+     * @param timestampsOffset where the timestamp column starts
+     * @param index the entry to read
+     * @return the timestamp as a LocalDateTime
+     */
+    private static LocalDateTime readTimestamp(MappedByteBuffer buffer, int timestampsOffset, int index) {
+        long epochSecond = buffer.getLong(timestampsOffset + index * Long.BYTES);
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a timestamp to epoch seconds. Zone-free, since tasks store local times.
+     *
+     * @param dateTime the timestamp
+     * @return the number of seconds since 1970-01-01T00:00
+     */
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the type byte stored for a task.
+     *
+     * @param task the task
+     * @return 'T', 'D' or 'E'
+     */
+    private static byte typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return TYPE_DEADLINE;
+        } else if (task instanceof Event) {
+            return TYPE_EVENT;
+        }
+        return TYPE_TODO;
+    }
+}
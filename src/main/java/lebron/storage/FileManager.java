@@ -1,287 +1,468 @@
 package lebron.storage;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
 
-import lebron.common.LeBronException;
-import lebron.task.Deadline;
-import lebron.task.Event;
+import lebron.metrics.LoadEvent;
+import lebron.metrics.SaveEvent;
 import lebron.task.Task;
-import lebron.task.ToDo;
-import lebron.util.DateTimeParser;
 
 /**
  * Handles saving and loading tasks to/from the hard disk.
  * Keeps your tasks safe by automatically storing them in a file.
+ *
+ * The task file holds a snapshot of the whole list, while individual changes
+ * are appended to a journal so that a single edit never rewrites the whole file.
+ * The snapshot is kept as text by default, or in the binary format described by {@link BinarySnapshot}.
  */
 public class FileManager {
     private static final String DATA_DIR = "data";
-    private static final String FILE_NAME = "lebron.txt";
+    private static final String JOURNAL_FILE_NAME = "lebron.journal";
+    private static final String SEALED_JOURNAL_SUFFIX = ".compacting";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String MIGRATED_FILE_SUFFIX = ".bak";
+    private final String dataDir;
+    private final SnapshotFormat format;
     private final String filePath;
+    private final String textFilePath;
+    private final Journal journal;
+    private final File journalFile;
+    private final File sealedJournalFile;
+    private final Object snapshotLock = new Object();
+    // How many bytes of the files being loaded have been read, out of how many there are (-1 before any load)
+    private final AtomicLong loadedBytes = new AtomicLong();
+    private volatile long bytesToLoad = -1;
+    // Total time spent handing changes to the journal, for timing how long commands spend saving
+    private final AtomicLong persistNanos = new AtomicLong();
+    // Snapshot lines the last load skipped as corrupted, guarded by snapshotLock
+    private int corruptedLines;
 
     /**
      * Creates a new file manager.
      * Sets up the path to store tasks using OS-independent file separators.
      */
     public FileManager() {
-        this.filePath = DATA_DIR + File.separator + FILE_NAME;
+        this(DATA_DIR);
     }
 
     /**
-     * Saves all tasks to the hard disk.
-     * Creates the data folder if it doesn't exist.
+     * Creates a new file manager that stores its files in the given folder.
+     *
+     * @param dataDir the folder to keep the task file and journal in
+     */
+    public FileManager(String dataDir) {
+        this(dataDir, SnapshotFormat.fromSystemProperty());
+    }
+
+    /**
+     * Creates a new file manager that stores its snapshot in the given format.
+     * A binary file manager migrates an existing text snapshot the first time it loads.
+     *
+     * @param dataDir the folder to keep the task file and journal in
+     * @param format the snapshot file format
+     */
+    public FileManager(String dataDir, SnapshotFormat format) {
+        assert dataDir != null : "Data directory cannot be null";
+        assert format != null : "Snapshot format cannot be null";
+        this.dataDir = dataDir;
+        this.format = format;
+        this.filePath = dataDir + File.separator + format.getFileName();
+        this.textFilePath = dataDir + File.separator + SnapshotFormat.TEXT.getFileName();
+        String journalPath = dataDir + File.separator + JOURNAL_FILE_NAME;
+        this.journalFile = new File(journalPath);
+        this.journal = new Journal(journalFile);
+        this.sealedJournalFile = new File(journalPath + SEALED_JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Saves all tasks to the hard disk as a fresh snapshot.
+     * Creates the data folder if it doesn't exist and clears the journal,
+     * since every journaled change is now part of the snapshot.
      *
      * @param tasks the list of tasks to save
      * @throws IOException if something goes wrong with file writing
      */
     public void saveTasks(ArrayList<Task> tasks) throws IOException {
         assert tasks != null : "Task list cannot be null";
-        // Create data directory if it doesn't exist
-        File dataDir = new File(DATA_DIR);
-        if (!dataDir.exists()) {
-            dataDir.mkdirs();
-        }
-
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            tasks.stream()
-                .map(this::taskToString)
-                .forEach(writer::println);
+        synchronized (snapshotLock) {
+            writeSnapshot(tasks);
+            journal.clear();
+            Files.deleteIfExists(sealedJournalFile.toPath());
         }
     }
 
     /**
      * Loads all tasks from the hard disk.
-     * Returns an empty list if the file doesn't exist.
+     * Reads the last snapshot and replays the journal on top of it.
+     * Returns an empty list if neither file exists.
      * Skips corrupted lines and continues loading valid tasks.
      *
      * @return the list of saved tasks
      * @throws IOException if something goes wrong with file reading
      */
     public ArrayList<Task> loadTasks() throws IOException {
-        ArrayList<Task> tasks = new ArrayList<>();
-        File file = new File(filePath);
-
-        // Return empty list if file doesn't exist
-        if (!file.exists()) {
+        synchronized (snapshotLock) {
+            LoadEvent event = new LoadEvent();
+            event.begin();
+            loadedBytes.set(0);
+            corruptedLines = 0;
+            bytesToLoad = getSnapshotFileToLoad().length() + sealedJournalFile.length() + journalFile.length();
+            ArrayList<Task> tasks = loadSnapshot();
+            Journal.replay(sealedJournalFile, tasks);
+            journal.replay(tasks);
+            loadedBytes.set(bytesToLoad);
+            event.record(format.name(), tasks.size(), bytesToLoad, corruptedLines);
             return tasks;
         }
+    }
 
-        int lineNumber = 0;
-        int corruptedLines = 0;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                line = line.trim();
-
-                // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
-                }
-
-                Task task = stringToTask(line, lineNumber);
-                if (task != null) {
-                    tasks.add(task);
-                } else {
-                    corruptedLines++;
-                }
-            }
+    /**
+     * Gets the folder the task file and journal are kept in.
+     *
+     * @return the data folder
+     */
+    public String getDataDir() {
+        return dataDir;
+    }
+
+    /**
+     * Gets how far the current or last load has got, judged by how much of its files have been read.
+     *
+     * @return a fraction from 0 to 1, which is 0 before the first load starts and 1 once a load has finished
+     */
+    public double getLoadProgress() {
+        long total = bytesToLoad;
+        if (total <= 0) {
+            return total == 0 ? 1 : 0;
         }
+        return Math.min(1, (double) loadedBytes.get() / total);
+    }
 
-        // Inform user if some data was corrupted
-        if (corruptedLines > 0) {
-            logWarning("%d corrupted task(s) were skipped while loading.", corruptedLines);
+    /**
+     * Folds the journaled changes into a fresh snapshot.
+     * The current journal is sealed so new changes can keep being recorded while the
+     * snapshot is rebuilt, and the new snapshot replaces the old one with an atomic rename.
+     * Only reads the files on disk, so it never needs the in-memory task list.
+     *
+     * @return true if a new snapshot was written, false if there was nothing to compact
+     * @throws IOException if the snapshot cannot be rebuilt
+     */
+    public boolean compact() throws IOException {
+        synchronized (snapshotLock) {
+            // A sealed journal left over from an interrupted compaction is folded first
+            if (!sealedJournalFile.exists() && !journal.rotate(sealedJournalFile)) {
+                return false;
+            }
+
+            ArrayList<Task> tasks = loadSnapshot();
+            Journal.replay(sealedJournalFile, tasks);
+            writeSnapshot(tasks);
+            Files.delete(sealedJournalFile.toPath());
+            return true;
         }
+    }
 
-        return tasks;
+    /**
+     * Records that a task was added to the end of the list.
+     *
+     * @param task the task that was added
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTaskAdded(Task task) throws IOException {
+        assert task != null : "Task cannot be null";
+        appendRecord(Journal.ADD + "|" + TaskCodec.taskToString(task));
     }
 
     /**
-     * Converts a task to a string format for saving.
-     * Format: TYPE|STATUS|DESCRIPTION|EXTRA_INFO
+     * Records that a task was marked as done.
      *
-     * @param task the task to conver
-     * @return the string representation
+     * @param index the index of the marked task (0-based)
+     * @throws IOException if the change cannot be recorded
      */
-    private String taskToString(Task task) {
-        StringBuilder sb = new StringBuilder();
-
-        // Add type
-        if (task instanceof ToDo) {
-            sb.append("T");
-        } else if (task instanceof Deadline) {
-            sb.append("D");
-        } else if (task instanceof Event) {
-            sb.append("E");
-        }
+    public void appendTaskMarked(int index) throws IOException {
+        appendRecord(Journal.MARK + "|" + index);
+    }
 
-        sb.append("|");
+    /**
+     * Records that a task was marked as not done.
+     *
+     * @param index the index of the unmarked task (0-based)
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTaskUnmarked(int index) throws IOException {
+        appendRecord(Journal.UNMARK + "|" + index);
+    }
 
-        // Add status
-        sb.append(task.isDone() ? "1" : "0");
-        sb.append("|");
+    /**
+     * Records that a task was removed from the list.
+     *
+     * @param index the index of the deleted task (0-based)
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTaskDeleted(int index) throws IOException {
+        appendRecord(Journal.DELETE + "|" + index);
+    }
 
-        // Add description
-        sb.append(task.getDescription());
+    /**
+     * Records that several tasks were marked as done, as a single record.
+     *
+     * @param indexes the indexes of the marked tasks (0-based)
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTasksMarked(BitSet indexes) throws IOException {
+        assert !indexes.isEmpty() : "At least one task must be marked";
+        appendRecord(Journal.MARK + "|" + Journal.formatIndexes(indexes));
+    }
 
-        // Add extra info for deadlines and events
-        if (task instanceof Deadline) {
-            Deadline deadline = (Deadline) task;
-            sb.append("|").append(DateTimeParser.formatForStorage(deadline.getBy()));
-        } else if (task instanceof Event) {
-            Event event = (Event) task;
-            sb.append("|").append(DateTimeParser.formatForStorage(event.getFrom())).append("|").append(DateTimeParser.formatForStorage(event.getTo()));
-        }
+    /**
+     * Records that several tasks were marked as not done, as a single record.
+     *
+     * @param indexes the indexes of the unmarked tasks (0-based)
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTasksUnmarked(BitSet indexes) throws IOException {
+        assert !indexes.isEmpty() : "At least one task must be unmarked";
+        appendRecord(Journal.UNMARK + "|" + Journal.formatIndexes(indexes));
+    }
 
-        return sb.toString();
+    /**
+     * Records that several tasks were removed from the list, as a single record.
+     * The indexes are the ones the tasks had before any of them were removed.
+     *
+     * @param indexes the indexes of the deleted tasks (0-based)
+     * @throws IOException if the change cannot be recorded
+     */
+    public void appendTasksDeleted(BitSet indexes) throws IOException {
+        assert !indexes.isEmpty() : "At least one task must be deleted";
+        appendRecord(Journal.DELETE + "|" + Journal.formatIndexes(indexes));
     }
 
     /**
-     * Converts a string back to a task.
-     * Parses the saved format and creates the right type of task.
-     * Provides detailed validation and error reporting for corrupted data.
+     * Gets the total time spent recording changes, including any wait for them to reach the disk.
+     * The difference before and after a command is how long that command spent saving.
      *
-     * @param line the string representation of the task
-     * @param lineNumber the line number in the file (for error reporting)
-     * @return the recreated task, or null if format is invalid
+     * @return the time in nanoseconds since this file manager was created
      */
-    private Task stringToTask(String line, int lineNumber) {
-        if (line.isEmpty()) {
-            return null;
-        }
+    public long getPersistNanos() {
+        return persistNanos.get();
+    }
 
-        String[] parts = line.split("\\|");
-        if (parts.length < 3) {
-            logWarning("Line %d has too few fields - expected at least 3, got %d", lineNumber, parts.length);
-            return null;
+    /**
+     * Gets the number of snapshot lines the last load skipped as corrupted.
+     * For a binary snapshot, this is the number of tasks skipped.
+     *
+     * @return the number of lines or tasks skipped
+     */
+    public int getCorruptedLines() {
+        synchronized (snapshotLock) {
+            return corruptedLines;
         }
-        assert parts.length >= 3 : "Parser validation should have caught this";
+    }
 
-        String type = parts[0];
-        String statusStr = parts[1];
-        String description = parts[2];
+    /**
+     * Gets the number of changes recorded since the last snapshot.
+     *
+     * @return the number of journal records
+     */
+    public int getJournalSize() {
+        return journal.getRecordCount();
+    }
 
-        // Validate task type
-        if (!isValidTaskType(type)) {
-            logWarning("Line %d has invalid task type '%s' - expected T, D, or E", lineNumber, type);
-            return null;
-        }
+    /**
+     * Checks whether enough changes have piled up to be worth folding into the snapshot.
+     *
+     * @param threshold the number of journal records that triggers compaction
+     * @return true if compaction should run
+     */
+    public boolean needsCompaction(int threshold) {
+        return journal.getRecordCount() >= threshold || sealedJournalFile.exists();
+    }
 
-        // Validate status
-        if (!isValidStatus(statusStr)) {
-            logWarning("Line %d has invalid status '%s' - expected 0 or 1", lineNumber, statusStr);
-            return null;
-        }
+    /**
+     * Starts holding back the changes the calling thread records, so a transaction's changes reach the journal
+     * together or not at all. Changes recorded by other threads are saved as usual.
+     */
+    public void beginStaging() {
+        journal.beginStaging();
+    }
 
-        // Validate description
-        if (description.trim().isEmpty()) {
-            logWarning("Line %d has empty description", lineNumber);
-            return null;
+    /**
+     * Writes every change the calling thread held back in one batch and waits until it is on disk.
+     *
+     * @throws IOException if the changes cannot be written
+     */
+    public void commitStaged() throws IOException {
+        long start = System.nanoTime();
+        try {
+            journal.commitStaged();
+        } finally {
+            persistNanos.addAndGet(System.nanoTime() - start);
         }
+    }
 
-        boolean isDone = statusStr.equals("1");
-        Task task = null;
+    /**
+     * Throws away every change the calling thread held back.
+     */
+    public void discardStaged() {
+        journal.discardStaged();
+    }
 
-        try {
-            switch (type) {
-            case "T":
-                if (parts.length != 3) {
-                    logWarning("Line %d - Todo tasks should have exactly 3 fields, got %d", lineNumber, parts.length);
-                    return null;
-                }
-                task = new ToDo(description);
-                break;
-            case "D":
-                if (parts.length != 4) {
-                    logWarning("Line %d - Deadline tasks should have exactly 4 fields, got %d", lineNumber, parts.length);
-                    return null;
-                }
-                String by = parts[3];
-                if (by.trim().isEmpty()) {
-                    logWarning("Line %d - Deadline has empty 'by' field", lineNumber);
-                    return null;
-                }
-                try {
-                    LocalDateTime dateTime = DateTimeParser.parseFromStorage(by);
-                    assert dateTime != null : "DateTimeParser should not return null for valid input";
-                    task = new Deadline(description, dateTime);
-                } catch (LeBronException e) {
-                    logWarning("Line %d - Invalid date format in deadline: %s", lineNumber, e.getMessage());
-                    return null;
-                }
-                break;
-            case "E":
-                if (parts.length != 5) {
-                    logWarning("Line %d - Event tasks should have exactly 5 fields, got %d", lineNumber, parts.length);
-                    return null;
-                }
-                String from = parts[3];
-                String to = parts[4];
-                if (from.trim().isEmpty() || to.trim().isEmpty()) {
-                    logWarning("Line %d - Event has empty time fields", lineNumber);
-                    return null;
-                }
-                try {
-                    LocalDateTime fromDateTime = DateTimeParser.parseFromStorage(from);
-                    LocalDateTime toDateTime = DateTimeParser.parseFromStorage(to);
-                    assert fromDateTime != null && toDateTime != null : "DateTimeParser should not return null for valid input";
-                    task = new Event(description, fromDateTime, toDateTime);
-                } catch (LeBronException e) {
-                    logWarning("Line %d - Invalid date format in event: %s", lineNumber, e.getMessage());
-                    return null;
-                }
-                break;
-            }
+    /**
+     * Moves journal writes onto a background thread that batches them.
+     * Recording a change then only queues it, so commands never wait for the disk.
+     *
+     * @param maxDelayMillis the longest a change may wait before being written, in milliseconds
+     */
+    public void startAsyncWrites(long maxDelayMillis) {
+        journal.startWriter(maxDelayMillis);
+    }
 
-            // Set the completion status
-            if (task != null && isDone) {
-                task.markAsDone();
-            }
+    /**
+     * Asks for queued changes to be written now, without waiting for the write to finish.
+     */
+    public void flush() {
+        journal.flush();
+    }
+
+    /**
+     * Waits until every change recorded so far is safely on disk.
+     *
+     * @throws IOException if the changes cannot be written
+     */
+    public void awaitDurable() throws IOException {
+        journal.awaitDurable();
+    }
 
-        } catch (Exception e) {
-            logWarning("Line %d - Error creating task: %s", lineNumber, e.getMessage());
-            return null;
+    /**
+     * Writes any queued changes, stops the background writer and releases the open journal file.
+     *
+     * @throws IOException if the journal cannot be written or closed
+     */
+    public void close() throws IOException {
+        journal.stopWriter();
+        journal.close();
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and then renames it over the old one,
+     * so a crash midway never leaves a half-written task file behind.
+     *
+     * @param tasks the tasks to write
+     * @throws IOException if something goes wrong with file writing
+     */
+    private void writeSnapshot(ArrayList<Task> tasks) throws IOException {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        // Create data directory if it doesn't exist
+        File dataDirectory = new File(dataDir);
+        if (!dataDirectory.exists()) {
+            dataDirectory.mkdirs();
         }
 
-        return task;
+        Path target = Paths.get(filePath);
+        Path temp = Paths.get(filePath + TEMP_FILE_SUFFIX);
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshot.write(temp, tasks);
+        } else {
+            try (PrintWriter writer = new PrintWriter(new FileWriter(temp.toFile(), StandardCharsets.UTF_8))) {
+                tasks.stream()
+                    .map(TaskCodec::taskToString)
+                    .forEach(writer::println);
+            }
+        }
+        long bytesWritten = Files.size(temp);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        event.record(format.name(), tasks.size(), bytesWritten);
     }
 
     /**
-     * Checks if the task type character is valid.
+     * Reads the snapshot file in the configured format.
+     * Migrates a text snapshot to the binary format if no binary snapshot exists yet.
      *
-     * @param type the type character to validate
-     * @return true if valid (T, D, or E), false otherwise
+     * @return the tasks in the snapshot, or an empty list if there is none
+     * @throws IOException if something goes wrong with file reading
      */
-    private boolean isValidTaskType(String type) {
-        return type.equals("T") || type.equals("D") || type.equals("E");
+    private ArrayList<Task> loadSnapshot() throws IOException {
+        if (format == SnapshotFormat.TEXT) {
+            return loadTextSnapshot();
+        }
+
+        Path binaryFile = Paths.get(filePath);
+        if (Files.exists(binaryFile)) {
+            BinarySnapshot.Contents contents = BinarySnapshot.read(binaryFile);
+            corruptedLines = contents.getCorruptedTasks();
+            return contents.getTasks();
+        }
+
+        Path textFile = Paths.get(textFilePath);
+        if (!Files.exists(textFile)) {
+            return new ArrayList<>();
+        }
+        ArrayList<Task> tasks = loadTextSnapshot();
+        writeSnapshot(tasks);
+        // Keep the old file as a backup, out of the way of a later switch back to text
+        Files.move(textFile, Paths.get(textFilePath + MIGRATED_FILE_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        return tasks;
     }
 
     /**
-     * Checks if the status string is valid.
+     * Hands a record to the journal, counting the time it takes towards {@link #getPersistNanos()}.
      *
-     * @param status the status string to validate
-     * @return true if valid (0 or 1), false otherwise
+     * @param record the record
+     * @throws IOException if the change cannot be recorded
      */
-    private boolean isValidStatus(String status) {
-        return status.equals("0") || status.equals("1");
+    private void appendRecord(String record) throws IOException {
+        long start = System.nanoTime();
+        try {
+            journal.append(record);
+        } finally {
+            persistNanos.addAndGet(System.nanoTime() - start);
+        }
     }
 
     /**
-     * Logs a warning message with formatted output using varargs.
-     * 
-     * @param format the format string
-     * @param args the arguments for the format string
+     * Works out which snapshot file a load will read: the configured one, or the text file a binary
+     * snapshot is about to be migrated from.
+     *
+     * @return the snapshot file, which may not exist
      */
-    private void logWarning(String format, Object... args) {
-        System.out.printf("Warning: " + format + "%n", args);
+    private File getSnapshotFileToLoad() {
+        File snapshotFile = new File(filePath);
+        return format == SnapshotFormat.BINARY && !snapshotFile.exists() ? new File(textFilePath) : snapshotFile;
     }
 
+    /**
+     * Reads the text snapshot file, parsing large files on several threads.
+     * Counts the bytes parsed towards the load progress, and remembers how many lines were corrupted.
+     *
+     * @return the tasks in the snapshot, or an empty list if there is none
+     * @throws IOException if something goes wrong with file reading
+     */
+    private ArrayList<Task> loadTextSnapshot() throws IOException {
+        Path file = Paths.get(textFilePath);
+
+        // Return empty list if file doesn't exist
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        TextSnapshotReader reader = new TextSnapshotReader(loadedBytes);
+        ArrayList<Task> tasks = reader.read(file);
+        corruptedLines = reader.getCorruptedLines();
+        return tasks;
+    }
 }
@@ -0,0 +1,580 @@
+package lebron.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import lebron.task.Task;
+
+/**
+ * Append-only log of changes made to the task list since the last snapshot.
+ * Each change is one short line, so recording a change costs the same no matter how many tasks there are.
+ *
+ * Record formats:
+ * ADD|TYPE|STATUS|DESCRIPTION|EXTRA_INFO, MARK|INDEXES, UNMARK|INDEXES, DELETE|INDEXES
+ * where INDEXES is a single 0-based index, or a comma-separated list of indexes and ranges such as 2,5-9.
+ * A command that changes many tasks is still one record.
+ */
+class Journal {
+    static final String ADD = "ADD";
+    static final String MARK = "MARK";
+    static final String UNMARK = "UNMARK";
+    static final String DELETE = "DELETE";
+
+    private final File file;
+    // Guards the file itself; always taken before the journal's own monitor
+    private final Object ioLock = new Object();
+    private FileOutputStream fileStream;
+    private BufferedWriter writer;
+    private int recordCount;
+
+    // Records waiting to be written, and how many records have been appended / made durable so far
+    private ArrayList<String> pending = new ArrayList<>();
+    private long appendedCount;
+    private long durableCount;
+    private IOException writeError;
+    private Thread writerThread;
+    private long maxDelayMillis;
+    private boolean isFlushRequested;
+    // Records each thread holds back until its open transaction commits, unset if it has none open
+    private final ThreadLocal<ArrayList<String>> staged = new ThreadLocal<>();
+
+    /**
+     * Creates a journal backed by the given file.
+     *
+     * @param file the journal file
+     */
+    Journal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Appends a single change record.
+     * With a background writer running the record is only queued, otherwise it is written right away.
+     *
+     * @param record the record to append (without line separator)
+     * @throws IOException if the record cannot be written, or an earlier background write failed
+     */
+    void append(String record) throws IOException {
+        assert record != null && !record.contains("\n") : "Journal records must be single lines";
+        ArrayList<String> stagedRecords = staged.get();
+        if (stagedRecords != null) {
+            stagedRecords.add(record);
+            return;
+        }
+        boolean isAsync;
+        synchronized (this) {
+            pending.add(record);
+            appendedCount++;
+            recordCount++;
+            isAsync = writerThread != null;
+            if (isAsync) {
+                notifyAll();
+                // The record stays queued either way; the error only tells the caller saving is failing
+                throwWriteError();
+            }
+        }
+        if (!isAsync) {
+            writePending();
+        }
+    }
+
+    /**
+     * Starts holding back the records the calling thread appends instead of writing them.
+     * Records appended by other threads are written as usual.
+     */
+    void beginStaging() {
+        assert staged.get() == null : "Records are already being staged";
+        staged.set(new ArrayList<>());
+    }
+
+    /**
+     * Queues every record the calling thread held back as one batch and waits until they are on disk.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    void commitStaged() throws IOException {
+        ArrayList<String> stagedRecords = staged.get();
+        assert stagedRecords != null : "No records are being staged";
+        staged.remove();
+        synchronized (this) {
+            pending.addAll(stagedRecords);
+            appendedCount += stagedRecords.size();
+            recordCount += stagedRecords.size();
+            notifyAll();
+        }
+        awaitDurable();
+    }
+
+    /**
+     * Throws away every record the calling thread held back.
+     */
+    void discardStaged() {
+        staged.remove();
+    }
+
+    /**
+     * Starts a background thread that writes queued records in batches.
+     * Records are held back for at most the given delay, so a burst of changes becomes a single write.
+     *
+     * @param maxDelayMillis the longest a record may wait before being written, in milliseconds
+     */
+    synchronized void startWriter(long maxDelayMillis) {
+        assert maxDelayMillis >= 0 : "Delay cannot be negative";
+        if (writerThread != null) {
+            return;
+        }
+        this.maxDelayMillis = maxDelayMillis;
+        writerThread = new Thread(this::runWriter, "lebron-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Stops the background writer after writing everything still queued.
+     *
+     * @throws IOException if the remaining records cannot be written
+     */
+    void stopWriter() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            thread = writerThread;
+            writerThread = null;
+            notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writePending();
+    }
+
+    /**
+     * Asks the background writer to write the queued records now instead of waiting out the delay.
+     * Returns without waiting for the write.
+     */
+    synchronized void flush() {
+        isFlushRequested = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits until every record appended so far has been written and synced to disk.
+     *
+     * @throws IOException if the records cannot be written
+     */
+    void awaitDurable() throws IOException {
+        synchronized (this) {
+            if (writerThread != null) {
+                long target = appendedCount;
+                isFlushRequested = true;
+                notifyAll();
+                while (durableCount < target && writerThread != null && writeError == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while waiting for tasks to be saved", e);
+                    }
+                }
+                throwWriteError();
+                if (durableCount >= target) {
+                    return;
+                }
+            }
+        }
+        // No writer running (or it just stopped), so write on this thread
+        writePending();
+    }
+
+    /**
+     * Body of the background writer thread.
+     * Waits for records, gives a burst up to the maximum delay to finish, then writes it in one go.
+     */
+    private void runWriter() {
+        while (true) {
+            synchronized (this) {
+                while (pending.isEmpty() && writerThread == Thread.currentThread()) {
+                    waitQuietly(0);
+                }
+                if (writerThread != Thread.currentThread()) {
+                    return;
+                }
+                long deadline = System.currentTimeMillis() + maxDelayMillis;
+                long remaining = maxDelayMillis;
+                while (remaining > 0 && !isFlushRequested && writerThread == Thread.currentThread()) {
+                    waitQuietly(remaining);
+                    remaining = deadline - System.currentTimeMillis();
+                }
+                isFlushRequested = false;
+            }
+            try {
+                writePending();
+            } catch (IOException e) {
+                synchronized (this) {
+                    writeError = e;
+                    notifyAll();
+                    // Back off so a broken disk does not turn into a busy loop
+                    waitQuietly(Math.max(maxDelayMillis, 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every queued record to the file as one batch and syncs it to disk.
+     * Failed batches are put back at the front of the queue to be retried.
+     *
+     * @throws IOException if the batch cannot be written
+     */
+    private void writePending() throws IOException {
+        synchronized (ioLock) {
+            ArrayList<String> batch;
+            long batchEnd;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                batchEnd = appendedCount;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                if (writer == null) {
+                    File parent = file.getParentFile();
+                    if (parent != null && !parent.exists()) {
+                        parent.mkdirs();
+                    }
+                    fileStream = new FileOutputStream(file, true);
+                    writer = new BufferedWriter(new OutputStreamWriter(fileStream));
+                }
+                for (String record : batch) {
+                    writer.write(record);
+                    writer.newLine();
+                }
+                writer.flush();
+                fileStream.getFD().sync();
+            } catch (IOException e) {
+                synchronized (this) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                closeWriter();
+                throw e;
+            }
+
+            synchronized (this) {
+                durableCount = Math.max(durableCount, batchEnd);
+                writeError = null;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Rethrows the error of a failed background write, so the caller can report it.
+     *
+     * @throws IOException the error of the last failed write, if any
+     */
+    private void throwWriteError() throws IOException {
+        assert Thread.holdsLock(this);
+        if (writeError != null) {
+            IOException error = writeError;
+            writeError = null;
+            throw error;
+        }
+    }
+
+    /**
+     * Waits on the journal's monitor, treating an interrupt as a wake-up.
+     *
+     * @param millis how long to wait, or 0 to wait until notified
+     */
+    private void waitQuietly(long millis) {
+        try {
+            wait(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replays all records in the journal on top of the given tasks.
+     * Skips records that are corrupted or no longer apply.
+     *
+     * @param tasks the tasks loaded from the snapshot, updated in place
+     * @throws IOException if the journal cannot be read
+     */
+    void replay(ArrayList<Task> tasks) throws IOException {
+        synchronized (ioLock) {
+            int records = replay(file, tasks);
+            synchronized (this) {
+                recordCount = records;
+            }
+        }
+    }
+
+    /**
+     * Replays the records of a journal file on top of the given tasks.
+     *
+     * @param journalFile the journal file to read
+     * @param tasks the tasks to update in place
+     * @return the number of records read
+     * @throws IOException if the journal cannot be read
+     */
+    static int replay(File journalFile, ArrayList<Task> tasks) throws IOException {
+        if (!journalFile.exists()) {
+            return 0;
+        }
+
+        int lineNumber = 0;
+        int records = 0;
+        int corruptedRecords = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journalFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                records++;
+                if (!applyRecord(line, lineNumber, tasks)) {
+                    corruptedRecords++;
+                }
+            }
+        }
+
+        if (corruptedRecords > 0) {
+            TaskCodec.logWarning("%d corrupted journal record(s) were skipped while loading.", corruptedRecords);
+        }
+        return records;
+    }
+
+    /**
+     * Applies one journal record to the task list.
+     *
+     * @param line the record
+     * @param lineNumber the line number in the journal (for error reporting)
+     * @param tasks the tasks to update
+     * @return true if the record was applied, false if it was skipped
+     */
+    private static boolean applyRecord(String line, int lineNumber, ArrayList<Task> tasks) {
+        int separator = line.indexOf('|');
+        if (separator == -1) {
+            TaskCodec.logWarning("Journal line %d has no operation separator", lineNumber);
+            return false;
+        }
+        String operation = line.substring(0, separator);
+        String payload = line.substring(separator + 1);
+
+        if (operation.equals(ADD)) {
+            Task task = TaskCodec.stringToTask(payload, lineNumber);
+            if (task == null) {
+                return false;
+            }
+            tasks.add(task);
+            return true;
+        }
+
+        int[] ranges = parseIndexRanges(payload);
+        if (ranges == null) {
+            TaskCodec.logWarning("Journal line %d has invalid task index '%s'", lineNumber, payload);
+            return false;
+        }
+        // Ranges are checked before any are set, so a corrupted huge index can't allocate a huge set
+        BitSet indexes = new BitSet(tasks.size());
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i + 1] >= tasks.size()) {
+                TaskCodec.logWarning("Journal line %d refers to missing task %d", lineNumber, ranges[i + 1]);
+                return false;
+            }
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            indexes.set(ranges[i], ranges[i + 1] + 1);
+        }
+
+        switch (operation) {
+        case MARK:
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                tasks.get(i).markAsDone();
+            }
+            return true;
+        case UNMARK:
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                tasks.get(i).markAsNotDone();
+            }
+            return true;
+        case DELETE:
+            int kept = indexes.nextSetBit(0);
+            for (int i = kept; i < tasks.size(); i++) {
+                if (!indexes.get(i)) {
+                    tasks.set(kept++, tasks.get(i));
+                }
+            }
+            tasks.subList(kept, tasks.size()).clear();
+            return true;
+        default:
+            TaskCodec.logWarning("Journal line %d has unknown operation '%s'", lineNumber, operation);
+            return false;
+        }
+    }
+
+    /**
+     * Writes a set of task indexes as a record payload, with each run of indexes written as a range.
+     * For example, indexes 1, 4, 5 and 6 become "1,4-6".
+     *
+     * @param indexes the task indexes (0-based)
+     * @return the payload
+     */
+    static String formatIndexes(BitSet indexes) {
+        StringBuilder payload = new StringBuilder();
+        for (int first = indexes.nextSetBit(0); first >= 0; first = indexes.nextSetBit(first + 1)) {
+            int last = indexes.nextClearBit(first) - 1;
+            if (payload.length() > 0) {
+                payload.append(',');
+            }
+            payload.append(first);
+            if (last > first) {
+                payload.append('-').append(last);
+            }
+            first = last;
+        }
+        return payload.toString();
+    }
+
+    /**
+     * Reads a payload written by {@link #formatIndexes(BitSet)}.
+     *
+     * @param payload the payload
+     * @return the first and last index (0-based, inclusive) of each range, one pair after another,
+     *         or null if the payload is malformed
+     */
+    private static int[] parseIndexRanges(String payload) {
+        int[] ranges = new int[2];
+        int count = 0;
+        int start = 0;
+        while (start <= payload.length()) {
+            int end = payload.indexOf(',', start);
+            if (end == -1) {
+                end = payload.length();
+            }
+            int dash = payload.indexOf('-', start);
+            boolean isRange = dash != -1 && dash < end;
+            int first;
+            int last;
+            try {
+                first = Integer.parseInt(payload, start, isRange ? dash : end, 10);
+                last = isRange ? Integer.parseInt(payload, dash + 1, end, 10) : first;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (count == ranges.length) {
+                ranges = Arrays.copyOf(ranges, count * 2);
+            }
+            ranges[count++] = first;
+            ranges[count++] = last;
+            start = end + 1;
+        }
+        return Arrays.copyOf(ranges, count);
+    }
+
+    /**
+     * Seals the current records by moving the journal file aside, so that new records
+     * start a fresh journal while the sealed ones are folded into a snapshot.
+     * Queued records are written before the file is moved.
+     *
+     * @param sealedFile where to move the current journal file
+     * @return true if records were sealed, false if the journal was empty
+     * @throws IOException if the journal file cannot be moved
+     */
+    boolean rotate(File sealedFile) throws IOException {
+        synchronized (ioLock) {
+            writePending();
+            closeWriter();
+            synchronized (this) {
+                recordCount = 0;
+            }
+            if (!file.exists()) {
+                return false;
+            }
+            Files.move(file.toPath(), sealedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        }
+    }
+
+    /**
+     * Discards every record, including queued ones, typically after a fresh snapshot has been written.
+     *
+     * @throws IOException if the journal file cannot be removed
+     */
+    void clear() throws IOException {
+        synchronized (ioLock) {
+            synchronized (this) {
+                pending.clear();
+                durableCount = appendedCount;
+                recordCount = 0;
+                notifyAll();
+            }
+            closeWriter();
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Could not clear journal " + file.getPath());
+            }
+        }
+    }
+
+    /**
+     * Writes any queued records and closes the underlying writer.
+     * The journal reopens it on the next write.
+     *
+     * @throws IOException if the writer cannot be closed
+     */
+    void close() throws IOException {
+        synchronized (ioLock) {
+            writePending();
+            closeWriter();
+        }
+    }
+
+    /**
+     * Closes the underlying writer without writing queued records.
+     *
+     * @throws IOException if the writer cannot be closed
+     */
+    private void closeWriter() throws IOException {
+        synchronized (ioLock) {
+            if (writer != null) {
+                BufferedWriter oldWriter = writer;
+                writer = null;
+                fileStream = null;
+                oldWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of records written since the last snapshot.
+     *
+     * @return the number of records in the journal
+     */
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+}
@@ -0,0 +1,98 @@
+package lebron.storage;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically folds the change journal into a fresh snapshot on a background thread.
+ * Keeps startup replay time and disk usage bounded however many changes are made,
+ * without ever making a command wait for the snapshot to be rewritten.
+ */
+public class LogCompactor {
+    private static final long DEFAULT_INTERVAL_MILLIS = 30_000;
+    private static final int DEFAULT_THRESHOLD = 1_000;
+
+    private final FileManager fileManager;
+    private final long intervalMillis;
+    private final int threshold;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a compactor with the default interval and threshold.
+     *
+     * @param fileManager the file manager whose journal should be compacted
+     */
+    public LogCompactor(FileManager fileManager) {
+        this(fileManager, DEFAULT_INTERVAL_MILLIS, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a compactor.
+     *
+     * @param fileManager the file manager whose journal should be compacted
+     * @param intervalMillis how often to check the journal, in milliseconds
+     * @param threshold the number of journal records that triggers compaction
+     */
+    public LogCompactor(FileManager fileManager, long intervalMillis, int threshold) {
+        assert fileManager != null : "FileManager cannot be null";
+        assert intervalMillis > 0 : "Interval must be positive";
+        assert threshold > 0 : "Threshold must be positive";
+        this.fileManager = fileManager;
+        this.intervalMillis = intervalMillis;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Starts checking the journal in the background.
+     * Does nothing if the compactor is already running.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lebron-compactor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::compactIfNeeded, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background thread, waiting for a compaction in progress to finish.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+
+    /**
+     * Compacts the journal if it has grown past the threshold.
+     *
+     * @return true if a new snapshot was written
+     */
+    public boolean compactIfNeeded() {
+        if (!fileManager.needsCompaction(threshold)) {
+            return false;
+        }
+        try {
+            return fileManager.compact();
+        } catch (IOException e) {
+            // The journal is still intact, so the next run simply tries again
+            TaskCodec.logWarning("Could not compact task journal: %s", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package lebron.storage;
+
+/**
+ * The file formats a task snapshot can be stored in.
+ * The format can be picked with the "lebron.storage.format" system property (text or binary).
+ */
+public enum SnapshotFormat {
+    /** Human-readable lines like T|0|read book */
+    TEXT("lebron.txt"),
+    /** Compact columnar binary file that loads through a memory-mapped buffer */
+    BINARY("lebron.bin");
+
+    private static final String FORMAT_PROPERTY = "lebron.storage.format";
+
+    private final String fileName;
+
+    /**
+     * Creates a snapshot format with the name of its file.
+     *
+     * @param fileName the snapshot file name inside the data folder
+     */
+    SnapshotFormat(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Gets the name of the snapshot file for this format.
+     *
+     * @return the file name, like "lebron.txt"
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the format chosen through the "lebron.storage.format" system property.
+     * Falls back to the text format if the property is missing or not recognised.
+     *
+     * @return the configured snapshot format
+     */
+    public static SnapshotFormat fromSystemProperty() {
+        String value = System.getProperty(FORMAT_PROPERTY, "");
+        return value.equalsIgnoreCase("binary") ? BINARY : TEXT;
+    }
+}
@@ -10,23 +10,42 @@ import lebron.task.Task;
  * Provides a clean interface for saving and loading tasks from storage.
  */
 public class Storage {
+    private static final String MAX_DELAY_PROPERTY = "lebron.storage.maxDelayMillis";
+    private static final long DEFAULT_MAX_DELAY_MILLIS = 50;
+
     private FileManager fileManager;
+    private LogCompactor compactor;
 
     /**
      * Creates a new Storage instance using the default FileManager.
      */
     public Storage() {
-        this.fileManager = new FileManager();
+        this(new FileManager());
     }
 
     /**
      * Creates a new Storage instance with a custom FileManager.
+     * The write delay comes from the "lebron.storage.maxDelayMillis" system property (50ms by default).
      *
      * @param fileManager the file manager to use for storage operations
      */
     public Storage(FileManager fileManager) {
+        this(fileManager, Long.getLong(MAX_DELAY_PROPERTY, DEFAULT_MAX_DELAY_MILLIS));
+    }
+
+    /**
+     * Creates a new Storage instance with a custom FileManager.
+     * Starts writing changes on a background thread and compacting the journal.
+     *
+     * @param fileManager the file manager to use for storage operations
+     * @param maxDelayMillis the longest a change may wait before being written, in milliseconds
+     */
+    public Storage(FileManager fileManager, long maxDelayMillis) {
         assert fileManager != null : "FileManager cannot be null";
         this.fileManager = fileManager;
+        this.compactor = new LogCompactor(fileManager);
+        fileManager.startAsyncWrites(maxDelayMillis);
+        compactor.start();
     }
 
     /**
@@ -50,6 +69,32 @@ public class Storage {
         fileManager.saveTasks(tasks);
     }
 
+    /**
+     * Asks for pending changes to be written now, without waiting for the write.
+     */
+    public void flush() {
+        fileManager.flush();
+    }
+
+    /**
+     * Waits until every change made so far is safely on disk.
+     *
+     * @throws IOException if the changes cannot be written
+     */
+    public void awaitDurable() throws IOException {
+        fileManager.awaitDurable();
+    }
+
+    /**
+     * Writes pending changes, stops the background threads and releases open files.
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    public void close() throws IOException {
+        compactor.stop();
+        fileManager.close();
+    }
+
     /**
      * Gets the underlying FileManager for backward compatibility.
      *
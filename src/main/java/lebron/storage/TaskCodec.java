@@ -0,0 +1,234 @@
+package lebron.storage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lebron.common.LeBronException;
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.ToDo;
+import lebron.util.DateTimeParser;
+
+/**
+ * Converts tasks to and from the line format used in the data files.
+ * Shared by the snapshot file and the change journal so both stay in sync.
+ */
+class TaskCodec {
+    private static final String WARNING_PREFIX = "Warning: ";
+
+    /**
+     * Converts a task to a string format for saving.
+     * Format: TYPE|STATUS|DESCRIPTION|EXTRA_INFO
+     *
+     * @param task the task to convert
+     * @return the string representation
+     */
+    static String taskToString(Task task) {
+        StringBuilder sb = new StringBuilder();
+
+        // Add type
+        if (task instanceof ToDo) {
+            sb.append("T");
+        } else if (task instanceof Deadline) {
+            sb.append("D");
+        } else if (task instanceof Event) {
+            sb.append("E");
+        }
+
+        sb.append("|");
+
+        // Add status
+        sb.append(task.isDone() ? "1" : "0");
+        sb.append("|");
+
+        // Add description
+        sb.append(task.getDescription());
+
+        // Add extra info for deadlines and events
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            sb.append("|").append(DateTimeParser.formatForStorage(deadline.getBy()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            sb.append("|").append(DateTimeParser.formatForStorage(event.getFrom()))
+                    .append("|").append(DateTimeParser.formatForStorage(event.getTo()));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Converts a string back to a task.
+     * Parses the saved format and creates the right type of task.
+     * Provides detailed validation and error reporting for corrupted data.
+     *
+     * @param line the string representation of the task
+     * @param lineNumber the line number in the file (for error reporting)
+     * @return the recreated task, or null if format is invalid
+     */
+    static Task stringToTask(String line, int lineNumber) {
+        return stringToTask(line, lineNumber, null);
+    }
+
+    /**
+     * Converts a string back to a task, collecting any warnings instead of printing them.
+     * Lets lines parsed on other threads be reported in file order afterwards.
+     *
+     * @param line the string representation of the task
+     * @param lineNumber the line number in the file (for error reporting)
+     * @param warnings where to add warnings, or null to print them straight away
+     * @return the recreated task, or null if format is invalid
+     */
+    static Task stringToTask(String line, int lineNumber, List<String> warnings) {
+        if (line.isEmpty()) {
+            return null;
+        }
+
+        String[] parts = line.split("\\|");
+        if (parts.length < 3) {
+            warn(warnings, "Line %d has too few fields - expected at least 3, got %d", lineNumber, parts.length);
+            return null;
+        }
+        assert parts.length >= 3 : "Parser validation should have caught this";
+
+        String type = parts[0];
+        String statusStr = parts[1];
+        String description = parts[2];
+
+        // Validate task type
+        if (!isValidTaskType(type)) {
+            warn(warnings, "Line %d has invalid task type '%s' - expected T, D, or E", lineNumber, type);
+            return null;
+        }
+
+        // Validate status
+        if (!isValidStatus(statusStr)) {
+            warn(warnings, "Line %d has invalid status '%s' - expected 0 or 1", lineNumber, statusStr);
+            return null;
+        }
+
+        // Validate description
+        if (description.trim().isEmpty()) {
+            warn(warnings, "Line %d has empty description", lineNumber);
+            return null;
+        }
+
+        boolean isDone = statusStr.equals("1");
+        Task task = null;
+
+        try {
+            switch (type) {
+            case "T":
+                if (parts.length != 3) {
+                    warn(warnings, "Line %d - Todo tasks should have exactly 3 fields, got %d",
+                            lineNumber, parts.length);
+                    return null;
+                }
+                task = new ToDo(description);
+                break;
+            case "D":
+                if (parts.length != 4) {
+                    warn(warnings, "Line %d - Deadline tasks should have exactly 4 fields, got %d",
+                            lineNumber, parts.length);
+                    return null;
+                }
+                String by = parts[3];
+                if (by.trim().isEmpty()) {
+                    warn(warnings, "Line %d - Deadline has empty 'by' field", lineNumber);
+                    return null;
+                }
+                try {
+                    LocalDateTime dateTime = DateTimeParser.parseFromStorage(by);
+                    assert dateTime != null : "DateTimeParser should not return null for valid input";
+                    task = new Deadline(description, dateTime);
+                } catch (LeBronException e) {
+                    warn(warnings, "Line %d - Invalid date format in deadline: %s", lineNumber, e.getMessage());
+                    return null;
+                }
+                break;
+            case "E":
+                if (parts.length != 5) {
+                    warn(warnings, "Line %d - Event tasks should have exactly 5 fields, got %d",
+                            lineNumber, parts.length);
+                    return null;
+                }
+                String from = parts[3];
+                String to = parts[4];
+                if (from.trim().isEmpty() || to.trim().isEmpty()) {
+                    warn(warnings, "Line %d - Event has empty time fields", lineNumber);
+                    return null;
+                }
+                try {
+                    LocalDateTime fromDateTime = DateTimeParser.parseFromStorage(from);
+                    LocalDateTime toDateTime = DateTimeParser.parseFromStorage(to);
+                    assert fromDateTime != null && toDateTime != null
+                            : "DateTimeParser should not return null for valid input";
+                    task = new Event(description, fromDateTime, toDateTime);
+                } catch (LeBronException e) {
+                    warn(warnings, "Line %d - Invalid date format in event: %s", lineNumber, e.getMessage());
+                    return null;
+                }
+                break;
+            default:
+                break;
+            }
+
+            // Set the completion status
+            if (task != null && isDone) {
+                task.markAsDone();
+            }
+
+        } catch (Exception e) {
+            warn(warnings, "Line %d - Error creating task: %s", lineNumber, e.getMessage());
+            return null;
+        }
+
+        return task;
+    }
+
+    /**
+     * Checks if the task type character is valid.
+     *
+     * @param type the type character to validate
+     * @return true if valid (T, D, or E), false otherwise
+     */
+    private static boolean isValidTaskType(String type) {
+        return type.equals("T") || type.equals("D") || type.equals("E");
+    }
+
+    /**
+     * Checks if the status string is valid.
+     *
+     * @param status the status string to validate
+     * @return true if valid (0 or 1), false otherwise
+     */
+    private static boolean isValidStatus(String status) {
+        return status.equals("0") || status.equals("1");
+    }
+
+    /**
+     * Logs a warning message with formatted output using varargs.
+     *
+     * @param format the format string
+     * @param args the arguments for the format string
+     */
+    static void logWarning(String format, Object... args) {
+        System.out.printf(WARNING_PREFIX + format + "%n", args);
+    }
+
+    /**
+     * Prints a warning, or adds it to a list to be printed later.
+     *
+     * @param warnings where to add the warning, or null to print it straight away
+     * @param format the format string
+     * @param args the arguments for the format string
+     */
+    private static void warn(List<String> warnings, String format, Object... args) {
+        if (warnings == null) {
+            logWarning(format, args);
+        } else {
+            warnings.add(String.format(WARNING_PREFIX + format, args));
+        }
+    }
+}
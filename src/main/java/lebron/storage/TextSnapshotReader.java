@@ -0,0 +1,322 @@
+package lebron.storage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import lebron.task.Task;
+
+/**
+ * Reads a text snapshot on several threads at once.
+ * The file is split into chunks that each end at a line break, and the chunks are parsed in parallel
+ * by the fork/join pool the caller runs in, or the common pool otherwise. The lines in each chunk are
+ * counted first, so every chunk knows the line number it starts at and warnings name the right line.
+ * Tasks and warnings are put back together in file order, so the result matches reading line by line.
+ *
+ * The file is mapped into memory a window at a time rather than read onto the heap, so files of any size
+ * can be read. Lines may end in "\n", "\r\n" or "\r", and are decoded as UTF-8, which is what the
+ * snapshot is written in.
+ */
+class TextSnapshotReader {
+    // How much of the file is mapped at once, well under the 2 GB a single mapping can hold
+    private static final int WINDOW_SIZE = 256 * 1024 * 1024;
+    // Below this, splitting the file costs more than parsing it on more threads saves
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    // A few chunks per thread evens out chunks that happen to hold slower lines
+    private static final int CHUNKS_PER_THREAD = 4;
+    // How many lines a chunk parses between reports of its progress
+    private static final int PROGRESS_INTERVAL = 4096;
+
+    private final AtomicLong progress;
+    private int corruptedLines;
+
+    /**
+     * Creates a reader.
+     *
+     * @param progress a counter to add the number of bytes parsed to as parsing goes on
+     */
+    TextSnapshotReader(AtomicLong progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Reads all tasks from a text snapshot file.
+     * Skips corrupted lines with a warning, and sums up how many were skipped at the end.
+     *
+     * @param path the file to read
+     * @return the tasks in the file, in order
+     * @throws IOException if something goes wrong with file reading
+     */
+    ArrayList<Task> read(Path path) throws IOException {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long windowStart = 0;
+            int lineNumber = 1;
+            while (windowStart < fileSize) {
+                long mapSize = Math.min(WINDOW_SIZE, fileSize - windowStart);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, mapSize);
+                boolean isLast = windowStart + mapSize == fileSize;
+                int windowEnd = isLast ? (int) mapSize : lastLineEnd(window, (int) mapSize);
+                if (windowEnd == 0) {
+                    throw new IOException("Line longer than " + WINDOW_SIZE + " bytes in " + path);
+                }
+                lineNumber = readWindow(window, windowEnd, lineNumber, chunks);
+                windowStart += windowEnd;
+            }
+        }
+
+        int taskCount = 0;
+        for (Chunk chunk : chunks) {
+            taskCount += chunk.tasks.size();
+        }
+        ArrayList<Task> tasks = new ArrayList<>(taskCount);
+        corruptedLines = 0;
+        for (Chunk chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+            chunk.warnings.forEach(System.out::println);
+            corruptedLines += chunk.corruptedLines;
+        }
+
+        // Inform user if some data was corrupted
+        if (corruptedLines > 0) {
+            TaskCodec.logWarning("%d corrupted task(s) were skipped while loading.", corruptedLines);
+        }
+        return tasks;
+    }
+
+    /**
+     * Gets the number of corrupted lines the last read skipped.
+     *
+     * @return the number of lines skipped
+     */
+    int getCorruptedLines() {
+        return corruptedLines;
+    }
+
+    /**
+     * Parses the whole lines in one window of the file, in parallel.
+     *
+     * @param window the mapped part of the file
+     * @param end where the last whole line in the window ends
+     * @param firstLineNumber the line number the window starts at
+     * @param chunks the list to add the parsed chunks to, in file order
+     * @return the line number the next window starts at
+     */
+    private int readWindow(MappedByteBuffer window, int end, int firstLineNumber, ArrayList<Chunk> chunks) {
+        Chunk[] windowChunks = split(window, end, getParallelism(), progress);
+        runAll(windowChunks, Chunk::countLines);
+        int lineNumber = firstLineNumber;
+        for (Chunk chunk : windowChunks) {
+            chunk.firstLineNumber = lineNumber;
+            lineNumber += chunk.lineBreaks;
+        }
+        runAll(windowChunks, Chunk::parse);
+        for (Chunk chunk : windowChunks) {
+            chunks.add(chunk);
+        }
+        return lineNumber;
+    }
+
+    /**
+     * Splits part of the file into chunks that each end just after a line break, except for the last one.
+     *
+     * @param bytes the mapped part of the file
+     * @param length how much of it to split
+     * @param parallelism the number of threads that will parse the chunks
+     * @param progress the counter the chunks report the bytes they have parsed to
+     * @return the chunks, in file order
+     */
+    private static Chunk[] split(MappedByteBuffer bytes, int length, int parallelism, AtomicLong progress) {
+        int chunkCount = Math.max(1, Math.min(parallelism * CHUNKS_PER_THREAD, length / MIN_CHUNK_SIZE));
+        int chunkSize = length / chunkCount;
+        ArrayList<Chunk> chunks = new ArrayList<>(chunkCount);
+        int start = 0;
+        while (start < length) {
+            int end = start + chunkSize >= length ? length : nextLineStart(bytes, start + chunkSize, length);
+            chunks.add(new Chunk(bytes, start, end, progress));
+            start = end;
+        }
+        return chunks.toArray(new Chunk[0]);
+    }
+
+    /**
+     * Finds where the line after the given position starts.
+     * A "\r\n" counts as one line break, so it is never split between two chunks.
+     *
+     * @param bytes the mapped part of the file
+     * @param position a position within some line
+     * @param length where the mapped part ends
+     * @return the position just after the next line break, or the end of the mapped part
+     */
+    private static int nextLineStart(MappedByteBuffer bytes, int position, int length) {
+        int i = position;
+        while (i < length && bytes.get(i) != '\n' && bytes.get(i) != '\r') {
+            i++;
+        }
+        if (i + 1 < length && bytes.get(i) == '\r' && bytes.get(i + 1) == '\n') {
+            i++;
+        }
+        return Math.min(i + 1, length);
+    }
+
+    /**
+     * Finds where the last whole line in a window ends, for a window that stops partway through the file.
+     * A "\r" in the last byte is left out, since the "\n" that may follow it is not in the window.
+     *
+     * @param window the mapped part of the file
+     * @param length the size of the window
+     * @return the position just after the last line break, or 0 if the window holds no whole line
+     */
+    private static int lastLineEnd(MappedByteBuffer window, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            byte b = window.get(i);
+            if (b == '\n' || (b == '\r' && i < length - 1)) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Runs a step on every chunk in parallel and waits for all of them to finish.
+     *
+     * @param chunks the chunks
+     * @param step what to do with each chunk
+     */
+    private static void runAll(Chunk[] chunks, Consumer<Chunk> step) {
+        if (chunks.length == 1) {
+            step.accept(chunks[0]);
+            return;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks.length);
+        for (Chunk chunk : chunks) {
+            tasks.add(ForkJoinTask.adapt(() -> step.accept(chunk)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    /**
+     * Gets the number of threads the chunks will be parsed on.
+     *
+     * @return the parallelism of the pool the caller runs in, or of the common pool
+     */
+    private static int getParallelism() {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * A run of whole lines in the file, with the tasks and warnings parsed from them.
+     */
+    private static class Chunk {
+        private final MappedByteBuffer bytes;
+        private final int start;
+        private final int end;
+        private final AtomicLong progress;
+        private final ArrayList<Task> tasks = new ArrayList<>();
+        private final ArrayList<String> warnings = new ArrayList<>();
+        private int lineBreaks;
+        private int firstLineNumber;
+        private int corruptedLines;
+
+        /**
+         * Creates a chunk covering part of the file.
+         *
+         * @param bytes the mapped part of the file the chunk is in
+         * @param start where the chunk starts
+         * @param end where the chunk ends (exclusive)
+         * @param progress the counter to report the bytes parsed to
+         */
+        Chunk(MappedByteBuffer bytes, int start, int end, AtomicLong progress) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.progress = progress;
+        }
+
+        /**
+         * Counts the line breaks in the chunk, which is how many lines the next chunk starts after.
+         */
+        void countLines() {
+            for (int i = start; i < end; i = nextLine(i)) {
+                if (lineEnd(i) < end) {
+                    lineBreaks++;
+                }
+            }
+        }
+
+        /**
+         * Parses every line in the chunk, skipping empty lines and collecting warnings for corrupted ones.
+         * The file is decoded as UTF-8, the same charset it is written in.
+         */
+        void parse() {
+            byte[] scratch = new byte[256];
+            int lineNumber = firstLineNumber;
+            int lineStart = start;
+            int reportedEnd = start;
+            while (lineStart < end) {
+                int lineEnd = lineEnd(lineStart);
+                int length = lineEnd - lineStart;
+                if (scratch.length < length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                // Absolute reads leave the buffer's position alone, so chunks can share it across threads
+                bytes.get(lineStart, scratch, 0, length);
+                String line = new String(scratch, 0, length, StandardCharsets.UTF_8).trim();
+                if (!line.isEmpty()) {
+                    Task task = TaskCodec.stringToTask(line, lineNumber, warnings);
+                    if (task != null) {
+                        tasks.add(task);
+                    } else {
+                        corruptedLines++;
+                    }
+                }
+                lineNumber++;
+                lineStart = nextLine(lineStart);
+                if ((lineNumber - firstLineNumber) % PROGRESS_INTERVAL == 0) {
+                    progress.addAndGet(lineStart - reportedEnd);
+                    reportedEnd = lineStart;
+                }
+            }
+            progress.addAndGet(end - reportedEnd);
+        }
+
+        /**
+         * Finds where the line starting at a position ends.
+         *
+         * @param lineStart where the line starts
+         * @return the position of the line break, or the end of the chunk
+         */
+        private int lineEnd(int lineStart) {
+            int i = lineStart;
+            while (i < end && bytes.get(i) != '\n' && bytes.get(i) != '\r') {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Finds where the line after the one starting at a position starts.
+         *
+         * @param lineStart where the line starts
+         * @return the position just after the line break, counting "\r\n" as one, or the end of the chunk
+         */
+        private int nextLine(int lineStart) {
+            int i = lineEnd(lineStart);
+            if (i + 1 < end && bytes.get(i) == '\r' && bytes.get(i + 1) == '\n') {
+                i++;
+            }
+            return Math.min(i + 1, end);
+        }
+    }
+}
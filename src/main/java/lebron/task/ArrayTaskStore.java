@@ -0,0 +1,93 @@
+package lebron.task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Keeps each task as the object it was added as, in an ArrayList.
+ * Reads are as cheap as they get, at the cost of several objects per task.
+ */
+class ArrayTaskStore implements TaskStore {
+    private final ArrayList<Task> tasks;
+
+    /**
+     * Creates a store holding the given tasks.
+     *
+     * @param tasks the initial tasks, which are copied into the store's own list
+     */
+    ArrayTaskStore(List<Task> tasks) {
+        this.tasks = new ArrayList<>(tasks);
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public Task get(int index) {
+        return tasks.get(index);
+    }
+
+    @Override
+    public String getDescription(int index) {
+        return tasks.get(index).getDescription();
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        return tasks.get(index).isDone();
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        if (isDone) {
+            tasks.get(index).markAsDone();
+        } else {
+            tasks.get(index).markAsNotDone();
+        }
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        tasks.add(index, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        return tasks.remove(index);
+    }
+
+    @Override
+    public void removeAll(BitSet indexes) {
+        int kept = indexes.nextSetBit(0);
+        if (kept < 0) {
+            return;
+        }
+        for (int i = kept; i < tasks.size(); i++) {
+            if (!indexes.get(i)) {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+    }
+
+    @Override
+    public void insertAll(BitSet positions, List<Task> inserted) {
+        int source = tasks.size() - 1;
+        int next = inserted.size() - 1;
+        for (int i = 0; i < inserted.size(); i++) {
+            tasks.add(null);
+        }
+        // Fill from the back; once every task is placed, the rest of the list is already where it belongs
+        for (int target = tasks.size() - 1; next >= 0; target--) {
+            tasks.set(target, positions.get(target) ? inserted.get(next--) : tasks.get(source--));
+        }
+    }
+
+    @Override
+    public ArrayList<Task> toList() {
+        return new ArrayList<>(tasks);
+    }
+}
@@ -0,0 +1,482 @@
+package lebron.task;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import lebron.common.TaskType;
+
+/**
+ * Packs tasks into parallel primitive arrays instead of keeping one object graph per task.
+ * A task is one byte for its type and status, two timestamps and an entry in a shared description heap,
+ * about a third of the memory of a Task object with its String and LocalDateTimes.
+ * Tasks are rebuilt as objects only when they are read, so the tasks handed out are copies.
+ *
+ * Timestamps are kept to the second, which is finer than any date or time a task is created with.
+ *
+ * Tasks with the same description share one heap entry, found through a hash table of entries keyed by their
+ * bytes, so a list of repeated chores keeps each description once. An entry no task uses any more stays in
+ * the table, ready to be reused, until the heap is next compacted.
+ */
+class CompactTaskStore implements TaskStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_HEAP_CAPACITY = 256;
+    private static final TaskType[] TYPES = TaskType.values();
+    // A task's flags hold the ordinal of its type, plus this bit once it is done
+    private static final int DONE_FLAG = 0x80;
+    private static final int TYPE_MASK = 0x7f;
+    // Description lengths are written in groups of seven bits, with the top bit set on all but the last group
+    private static final int LENGTH_BITS = 7;
+    private static final int LENGTH_MASK = 0x7f;
+    private static final int MORE_LENGTH = 0x80;
+    private static final int INITIAL_TABLE_CAPACITY = 32;
+    private static final int EMPTY_SLOT = -1;
+
+    private int size;
+    private byte[] flags;
+    // Seconds since the epoch in UTC: the deadline of a deadline, or the start and end of an event
+    private long[] firstTimes;
+    private long[] secondTimes;
+    // Where each task's description entry starts in the heap
+    private int[] descriptionStarts;
+    // Description entries of every task, back to back: the length of the UTF-8 text, then the text itself.
+    // Removed tasks leave gaps that are squeezed out once they add up
+    private byte[] heap;
+    private int heapEnd;
+    private int heapGaps;
+    // Open-addressing hash table of heap entries: where each entry starts, and how many tasks use it
+    private int[] entryStarts;
+    private int[] entryUses;
+    private int entryCount;
+
+    /**
+     * Creates a store holding the given tasks.
+     *
+     * @param tasks the initial tasks
+     */
+    CompactTaskStore(List<Task> tasks) {
+        int capacity = Math.max(INITIAL_CAPACITY, tasks.size());
+        flags = new byte[capacity];
+        firstTimes = new long[capacity];
+        secondTimes = new long[capacity];
+        descriptionStarts = new int[capacity];
+        heap = new byte[INITIAL_HEAP_CAPACITY];
+        clearEntries(INITIAL_TABLE_CAPACITY);
+        for (Task task : tasks) {
+            add(size, task);
+        }
+        // A loaded list mostly stays the size it was loaded at, so the heap's room to grow is given back
+        if (heapEnd > INITIAL_HEAP_CAPACITY) {
+            heap = Arrays.copyOf(heap, heapEnd);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        String description = getDescription(index);
+        Task task;
+        switch (TYPES[flags[index] & TYPE_MASK]) {
+        case DEADLINE:
+            task = new Deadline(description, toDateTime(firstTimes[index]));
+            break;
+        case EVENT:
+            task = new Event(description, toDateTime(firstTimes[index]), toDateTime(secondTimes[index]));
+            break;
+        default:
+            task = new ToDo(description);
+            break;
+        }
+        if ((flags[index] & DONE_FLAG) != 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    @Override
+    public String getDescription(int index) {
+        checkIndex(index);
+        int start = descriptionStarts[index];
+        int length = readLength(start);
+        return new String(heap, start + prefixSize(length), length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean isDone(int index) {
+        checkIndex(index);
+        return (flags[index] & DONE_FLAG) != 0;
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        flags[index] = (byte) (isDone ? flags[index] | DONE_FLAG : flags[index] & TYPE_MASK);
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        assert index >= 0 && index <= size : "Position out of range";
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        size++;
+        set(index, task);
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        release(descriptionStarts[index]);
+        shift(index + 1, index, size - index - 1);
+        size--;
+        compactHeapIfSparse();
+        return removed;
+    }
+
+    @Override
+    public void removeAll(BitSet indexes) {
+        int kept = indexes.nextSetBit(0);
+        if (kept < 0) {
+            return;
+        }
+        assert indexes.length() <= size : "Position out of range";
+        for (int i = kept; i < size; i++) {
+            if (indexes.get(i)) {
+                release(descriptionStarts[i]);
+            } else {
+                shift(i, kept++, 1);
+            }
+        }
+        size = kept;
+        compactHeapIfSparse();
+    }
+
+    @Override
+    public void insertAll(BitSet positions, List<Task> inserted) {
+        int newSize = size + inserted.size();
+        assert positions.length() <= newSize : "Position out of range";
+        ensureCapacity(newSize);
+        int source = size - 1;
+        int next = inserted.size() - 1;
+        size = newSize;
+        // Fill from the back; once every task is placed, the rest of the list is already where it belongs
+        for (int target = newSize - 1; next >= 0; target--) {
+            if (positions.get(target)) {
+                set(target, inserted.get(next--));
+            } else {
+                shift(source--, target, 1);
+            }
+        }
+    }
+
+    @Override
+    public ArrayList<Task> toList() {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(get(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes a task into a slot, sharing the heap entry of any task with the same description.
+     *
+     * @param index the slot
+     * @param task the task
+     */
+    private void set(int index, Task task) {
+        flags[index] = (byte) (task.type.ordinal() | (task.isDone() ? DONE_FLAG : 0));
+        firstTimes[index] = 0;
+        secondTimes[index] = 0;
+        if (task instanceof Deadline) {
+            firstTimes[index] = toSeconds(((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            firstTimes[index] = toSeconds(event.getFrom());
+            secondTimes[index] = toSeconds(event.getTo());
+        }
+
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        descriptionStarts[index] = use(description, 0, description.length);
+    }
+
+    /**
+     * Finds the heap entry for a description, adding one if there is none, and counts one more task using it.
+     *
+     * @param text the array holding the description's UTF-8 text
+     * @param offset where the text starts
+     * @param length the length of the text in bytes
+     * @return where the entry starts in the heap
+     */
+    private int use(byte[] text, int offset, int length) {
+        int slot = findSlot(text, offset, length);
+        if (entryStarts[slot] != EMPTY_SLOT) {
+            if (entryUses[slot]++ == 0) {
+                heapGaps -= entryLength(entryStarts[slot]);
+            }
+            return entryStarts[slot];
+        }
+
+        // Five groups of seven bits are enough for any int
+        ensureHeapCapacity(heapEnd + 5 + length);
+        int start = heapEnd;
+        int remaining = length;
+        while (remaining > LENGTH_MASK) {
+            heap[heapEnd++] = (byte) ((remaining & LENGTH_MASK) | MORE_LENGTH);
+            remaining >>>= LENGTH_BITS;
+        }
+        heap[heapEnd++] = (byte) remaining;
+        System.arraycopy(text, offset, heap, heapEnd, length);
+        heapEnd += length;
+
+        entryStarts[slot] = start;
+        entryUses[slot] = 1;
+        entryCount++;
+        // Kept at most half full, so probes stay short
+        if (entryCount * 2 > entryStarts.length) {
+            growEntries();
+        }
+        return start;
+    }
+
+    /**
+     * Counts one task fewer using a heap entry. An entry no task uses becomes a gap in the heap.
+     *
+     * @param start where the entry starts
+     */
+    private void release(int start) {
+        int length = readLength(start);
+        int slot = findSlot(heap, start + prefixSize(length), length);
+        assert entryStarts[slot] == start : "Entry must be in the table";
+        if (--entryUses[slot] == 0) {
+            heapGaps += prefixSize(length) + length;
+        }
+    }
+
+    /**
+     * Finds the table slot holding the entry for a description, or the empty slot where it would go.
+     *
+     * @param text the array holding the description's UTF-8 text
+     * @param offset where the text starts
+     * @param length the length of the text in bytes
+     * @return the slot
+     */
+    private int findSlot(byte[] text, int offset, int length) {
+        int mask = entryStarts.length - 1;
+        int slot = hash(text, offset, length) & mask;
+        while (entryStarts[slot] != EMPTY_SLOT) {
+            int start = entryStarts[slot];
+            int entryLength = readLength(start);
+            int textStart = start + prefixSize(entryLength);
+            if (entryLength == length
+                    && Arrays.equals(heap, textStart, textStart + length, text, offset, offset + length)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the hash table, putting every entry back in its new slot.
+     */
+    private void growEntries() {
+        int[] oldStarts = entryStarts;
+        int[] oldUses = entryUses;
+        clearEntries(oldStarts.length * 2);
+        for (int i = 0; i < oldStarts.length; i++) {
+            if (oldStarts[i] != EMPTY_SLOT) {
+                int length = readLength(oldStarts[i]);
+                int slot = findSlot(heap, oldStarts[i] + prefixSize(length), length);
+                entryStarts[slot] = oldStarts[i];
+                entryUses[slot] = oldUses[i];
+                entryCount++;
+            }
+        }
+    }
+
+    /**
+     * Empties the hash table.
+     *
+     * @param capacity the number of slots, a power of two
+     */
+    private void clearEntries(int capacity) {
+        entryStarts = new int[capacity];
+        Arrays.fill(entryStarts, EMPTY_SLOT);
+        entryUses = new int[capacity];
+        entryCount = 0;
+    }
+
+    /**
+     * Moves a run of slots, in every array at once.
+     *
+     * @param from the first slot to move
+     * @param to where the first slot ends up
+     * @param count the number of slots to move
+     */
+    private void shift(int from, int to, int count) {
+        System.arraycopy(flags, from, flags, to, count);
+        System.arraycopy(firstTimes, from, firstTimes, to, count);
+        System.arraycopy(secondTimes, from, secondTimes, to, count);
+        System.arraycopy(descriptionStarts, from, descriptionStarts, to, count);
+    }
+
+    /**
+     * Rewrites the heap without the descriptions no task uses any more, once they take up more than half of it.
+     * Costs one pass over the remaining tasks, so removals stay cheap on average.
+     */
+    private void compactHeapIfSparse() {
+        if (heapGaps <= heapEnd / 2 || heapEnd < INITIAL_HEAP_CAPACITY) {
+            return;
+        }
+        byte[] oldHeap = heap;
+        heap = new byte[Math.max(INITIAL_HEAP_CAPACITY, heapEnd - heapGaps)];
+        heapEnd = 0;
+        heapGaps = 0;
+        clearEntries(INITIAL_TABLE_CAPACITY);
+        for (int i = 0; i < size; i++) {
+            int start = descriptionStarts[i];
+            int length = readLength(oldHeap, start);
+            descriptionStarts[i] = use(oldHeap, start + prefixSize(length), length);
+        }
+    }
+
+    /**
+     * Measures a description entry in the heap, length prefix included.
+     *
+     * @param start where the entry starts
+     * @return the number of bytes the entry takes up
+     */
+    private int entryLength(int start) {
+        int length = readLength(start);
+        return prefixSize(length) + length;
+    }
+
+    /**
+     * Reads the length prefix of a description entry.
+     *
+     * @param start where the entry starts
+     * @return the length of the description text in bytes
+     */
+    private int readLength(int start) {
+        return readLength(heap, start);
+    }
+
+    /**
+     * Reads the length prefix of a description entry in the given heap.
+     *
+     * @param heap the heap holding the entry
+     * @param start where the entry starts
+     * @return the length of the description text in bytes
+     */
+    private static int readLength(byte[] heap, int start) {
+        int position = start;
+        int length = 0;
+        int shift = 0;
+        int group;
+        do {
+            group = heap[position++];
+            length |= (group & LENGTH_MASK) << shift;
+            shift += LENGTH_BITS;
+        } while ((group & MORE_LENGTH) != 0);
+        return length;
+    }
+
+    /**
+     * Works out how many bytes the length prefix of a description takes up.
+     *
+     * @param length the length of the description text in bytes
+     * @return the size of the prefix
+     */
+    private static int prefixSize(int length) {
+        int size = 1;
+        while (length > LENGTH_MASK) {
+            length >>>= LENGTH_BITS;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Grows the slot arrays so they can hold at least the given number of tasks.
+     *
+     * @param capacity the number of tasks needed
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= flags.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, flags.length + (flags.length >> 1));
+        flags = Arrays.copyOf(flags, newCapacity);
+        firstTimes = Arrays.copyOf(firstTimes, newCapacity);
+        secondTimes = Arrays.copyOf(secondTimes, newCapacity);
+        descriptionStarts = Arrays.copyOf(descriptionStarts, newCapacity);
+    }
+
+    /**
+     * Grows the heap so it can hold at least the given number of bytes.
+     *
+     * @param capacity the number of bytes needed
+     */
+    private void ensureHeapCapacity(int capacity) {
+        if (capacity > heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(capacity, heap.length + (heap.length >> 1)));
+        }
+    }
+
+    /**
+     * Checks that a position refers to a task in the store.
+     *
+     * @param index the position (0-based)
+     * @throws IndexOutOfBoundsException if there is no task there
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        }
+    }
+
+    /**
+     * Hashes a description's UTF-8 text.
+     *
+     * @param text the array holding the text
+     * @param offset where the text starts
+     * @param length the length of the text in bytes
+     * @return the hash, with its high bits folded into the low ones the table uses
+     */
+    private static int hash(byte[] text, int offset, int length) {
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Converts a date and time to whole seconds since the epoch in UTC.
+     *
+     * @param dateTime the date and time
+     * @return the seconds
+     */
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts whole seconds since the epoch in UTC back to a date and time.
+     *
+     * @param seconds the seconds
+     * @return the date and time
+     */
+    private static LocalDateTime toDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
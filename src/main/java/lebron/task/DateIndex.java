@@ -0,0 +1,84 @@
+package lebron.task;
+
+import java.time.LocalDate;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Index of deadlines by due date and events by the days they span.
+ * Answers "what is on this day" without looking at tasks on other days.
+ */
+class DateIndex {
+    private final TreeMap<LocalDate, SequenceList> deadlinesByDate = new TreeMap<>();
+    private final IntervalTree eventsByDays = new IntervalTree();
+
+    /**
+     * Indexes a task if it is a deadline or an event.
+     *
+     * @param sequence the task's sequence number
+     * @param task the task to index
+     */
+    void add(int sequence, Task task) {
+        if (task instanceof Deadline) {
+            LocalDate date = ((Deadline) task).getBy().toLocalDate();
+            deadlinesByDate.computeIfAbsent(date, key -> new SequenceList()).add(sequence);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            eventsByDays.insert(event.getFrom().toLocalDate().toEpochDay(),
+                    event.getTo().toLocalDate().toEpochDay(), sequence);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param sequence the task's sequence number
+     * @param task the task to remove
+     */
+    void remove(int sequence, Task task) {
+        if (task instanceof Deadline) {
+            LocalDate date = ((Deadline) task).getBy().toLocalDate();
+            SequenceList deadlines = deadlinesByDate.get(date);
+            if (deadlines != null && deadlines.remove(sequence) && deadlines.isEmpty()) {
+                deadlinesByDate.remove(date);
+            }
+        } else if (task instanceof Event) {
+            eventsByDays.remove(((Event) task).getFrom().toLocalDate().toEpochDay(), sequence);
+        }
+    }
+
+    /**
+     * Finds the deadlines due on a date and the events spanning it.
+     *
+     * @param date the date to look for
+     * @return the sequence numbers of the matching tasks, in ascending order
+     */
+    int[] findOnDate(LocalDate date) {
+        IntStream.Builder matches = IntStream.builder();
+        SequenceList deadlines = deadlinesByDate.get(date);
+        if (deadlines != null) {
+            for (int i = 0; i < deadlines.size(); i++) {
+                matches.accept(deadlines.get(i));
+            }
+        }
+        eventsByDays.findContaining(date.toEpochDay(), matches);
+        return matches.build().sorted().toArray();
+    }
+
+    /**
+     * Checks whether a single task would be found on a date, for tasks that are not in any index.
+     *
+     * @param task the task to check
+     * @param date the date to look for
+     * @return true if the task is a deadline due on the date or an event spanning it
+     */
+    static boolean isOnDate(Task task, LocalDate date) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy().toLocalDate().equals(date);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            return !date.isBefore(event.getFrom().toLocalDate()) && !date.isAfter(event.getTo().toLocalDate());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,150 @@
+package lebron.task;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares one String between tasks with the same description, so lists full of recurring tasks
+ * like "standup" or "submit timesheet" keep one copy of the text instead of one per task.
+ *
+ * The pool is a fixed-size table in which each description has one slot, picked by its hash.
+ * A new description takes over its slot, so the pool never holds more than a fixed number of strings
+ * and a lookup never blocks, at the cost of sometimes forgetting a description that shares a slot.
+ * Frequent descriptions keep winning their slots back, which is where the savings are.
+ *
+ * Tasks use the shared pool when the "lebron.tasks.pool" system property is "true".
+ */
+public final class DescriptionPool {
+    private static final String POOL_PROPERTY = "lebron.tasks.pool";
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    // What a String costs apart from its characters: the String object plus the header of its byte array
+    private static final int STRING_OVERHEAD = 40;
+    private static final int OBJECT_ALIGNMENT = 8;
+    private static final DescriptionPool SHARED =
+            Boolean.getBoolean(POOL_PROPERTY) ? new DescriptionPool(DEFAULT_CAPACITY) : null;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param capacity the most descriptions to remember, rounded up to a power of two
+     */
+    public DescriptionPool(int capacity) {
+        assert capacity > 0 : "Capacity must be positive";
+        int slotCount = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Gets the pool shared by all tasks.
+     *
+     * @return the shared pool, or null if pooling is turned off
+     */
+    public static DescriptionPool getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Swaps a description for an equal one from the shared pool, if pooling is turned on.
+     *
+     * @param description the description
+     * @return an equal description, possibly shared with other tasks
+     */
+    static String share(String description) {
+        return SHARED == null || description == null ? description : SHARED.canonicalize(description);
+    }
+
+    /**
+     * Swaps a description for an equal one already in the pool, or remembers it if there is none.
+     *
+     * @param description the description
+     * @return the pooled description, which equals the one given
+     */
+    public String canonicalize(String description) {
+        assert description != null : "Description cannot be null";
+        lookups.increment();
+        int hash = description.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String pooled = slots.get(slot);
+        if (pooled != null && pooled.equals(description)) {
+            hits.increment();
+            if (pooled != description) {
+                bytesSaved.add(sizeOf(description));
+            }
+            return pooled;
+        }
+        slots.set(slot, description);
+        return description;
+    }
+
+    /**
+     * Gets the number of descriptions looked up so far.
+     *
+     * @return the number of lookups
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found an equal description already in the pool.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the share of lookups that found an equal description already in the pool.
+     *
+     * @return the hit rate, from 0 to 1
+     */
+    public double getHitRate() {
+        long lookupCount = lookups.sum();
+        return lookupCount == 0 ? 0 : (double) hits.sum() / lookupCount;
+    }
+
+    /**
+     * Estimates how much memory the pool has saved, counting each duplicate it replaced as freed.
+     *
+     * @return the bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Sums up the pool's statistics in one line.
+     *
+     * @return a line like "Description pool: 1000 lookups, 87.5% hits, 42 KB saved"
+     */
+    public String formatStats() {
+        return String.format("Description pool: %d lookups, %.1f%% hits, %d KB saved",
+                getLookupCount(), getHitRate() * 100, getBytesSaved() / 1024);
+    }
+
+    /**
+     * Estimates the memory a String takes up, assuming characters are stored one byte each when they can be.
+     *
+     * @param text the string
+     * @return its size in bytes
+     */
+    private static long sizeOf(String text) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xff) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long arraySize = (long) text.length() * bytesPerChar;
+        return STRING_OVERHEAD + (arraySize + OBJECT_ALIGNMENT - 1) / OBJECT_ALIGNMENT * OBJECT_ALIGNMENT;
+    }
+}
@@ -0,0 +1,195 @@
+package lebron.task;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A set of day ranges that can be searched for every range containing a given day.
+ * Implemented as a treap ordered by start day, where every node also remembers the
+ * latest end day below it so whole subtrees that end too early can be skipped.
+ */
+class IntervalTree {
+    private Node root;
+    private int size;
+    private int seed = 0x2545F491;
+
+    /**
+     * A single range in the tree.
+     */
+    private static class Node {
+        private final long start;
+        private final long end;
+        private final int sequence;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, int sequence, int priority) {
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    /**
+     * Adds a range.
+     *
+     * @param start the first day of the range (epoch day)
+     * @param end the last day of the range (epoch day)
+     * @param sequence the sequence number of the task the range belongs to
+     */
+    void insert(long start, long end, int sequence) {
+        root = insert(root, new Node(start, end, sequence, nextPriority()));
+        size++;
+    }
+
+    /**
+     * Removes a range.
+     *
+     * @param start the first day of the range (epoch day)
+     * @param sequence the sequence number of the task the range belongs to
+     */
+    void remove(long start, int sequence) {
+        int sizeBefore = size;
+        root = remove(root, start, sequence);
+        assert size == sizeBefore - 1 : "Removed a range that was never added";
+    }
+
+    /**
+     * Finds every range that contains the given day.
+     *
+     * @param day the day to look for (epoch day)
+     * @param results receives the sequence numbers of the matching tasks, in no particular order
+     */
+    void findContaining(long day, IntConsumer results) {
+        findContaining(root, day, results);
+    }
+
+    /**
+     * Gets the number of ranges in the tree.
+     *
+     * @return the number of ranges
+     */
+    int size() {
+        return size;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.sequence, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node remove(Node node, long start, int sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, sequence, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, sequence);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, sequence);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every key on the left is smaller than every key on the right.
+     */
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private void findContaining(Node node, long day, IntConsumer results) {
+        if (node == null || node.maxEnd < day) {
+            return;
+        }
+        findContaining(node.left, day, results);
+        if (node.start > day) {
+            // Everything to the right starts even later
+            return;
+        }
+        if (day <= node.end) {
+            results.accept(node.sequence);
+        }
+        findContaining(node.right, day, results);
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private int compare(long start, int sequence, Node node) {
+        if (start != node.start) {
+            return Long.compare(start, node.start);
+        }
+        return Integer.compare(sequence, node.sequence);
+    }
+
+    /**
+     * Produces pseudo-random priorities (xorshift) to keep the treap balanced.
+     */
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
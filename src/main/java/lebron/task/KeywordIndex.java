@@ -0,0 +1,110 @@
+package lebron.task;
+
+import java.util.HashMap;
+
+/**
+ * Inverted index from three-character slices of task descriptions to the tasks containing them.
+ * Lets keyword searches look at only the tasks sharing every slice of the keyword
+ * instead of scanning the whole list.
+ *
+ * Descriptions are lowercased the same way the keyword search does, so the tasks returned by
+ * {@link #findCandidates(String)} always include every task whose description contains the keyword.
+ */
+class KeywordIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, SequenceList> postings = new HashMap<>();
+
+    /**
+     * Indexes a task's description.
+     *
+     * @param sequence the task's sequence number
+     * @param task the task to index
+     */
+    void add(int sequence, Task task) {
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gramAt(text, i), key -> new SequenceList()).add(sequence);
+        }
+    }
+
+    /**
+     * Removes a task's description from the index.
+     *
+     * @param sequence the task's sequence number
+     * @param task the task to remove
+     */
+    void remove(int sequence, Task task) {
+        String text = task.getDescription().toLowerCase();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Long gram = gramAt(text, i);
+            SequenceList posting = postings.get(gram);
+            if (posting != null && posting.remove(sequence) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks that share every three-character slice with the keyword.
+     * The result can contain tasks that only have the slices in a different order,
+     * so callers still check each candidate.
+     *
+     * @param lowerKeyword the lowercased keyword, at least three characters long
+     * @return the sequence numbers of the candidate tasks, in ascending order
+     */
+    SequenceList findCandidates(String lowerKeyword) {
+        assert lowerKeyword.length() >= GRAM_LENGTH : "Keyword is too short for the index";
+
+        // Start from the rarest slice so the candidate list is as small as possible
+        SequenceList rarest = null;
+        int gramCount = lowerKeyword.length() - GRAM_LENGTH + 1;
+        SequenceList[] keywordPostings = new SequenceList[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            SequenceList posting = postings.get(gramAt(lowerKeyword, i));
+            if (posting == null) {
+                return new SequenceList();
+            }
+            keywordPostings[i] = posting;
+            if (rarest == null || posting.size() < rarest.size()) {
+                rarest = posting;
+            }
+        }
+
+        SequenceList candidates = new SequenceList();
+        for (int i = 0; i < rarest.size(); i++) {
+            int sequence = rarest.get(i);
+            if (isInAll(sequence, keywordPostings)) {
+                candidates.add(sequence);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Checks whether a task appears in every one of the given postings.
+     *
+     * @param sequence the task's sequence number
+     * @param keywordPostings the postings to check
+     * @return true if the task is in all of them
+     */
+    private boolean isInAll(int sequence, SequenceList[] keywordPostings) {
+        for (SequenceList posting : keywordPostings) {
+            if (!posting.contains(sequence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Packs the three characters starting at a position into a single key.
+     *
+     * @param text the text to read from
+     * @param start the position of the first character
+     * @return the key for that slice
+     */
+    private static Long gramAt(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,195 @@
+package lebron.task;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A growable, sorted list of task sequence numbers backed by a plain int array.
+ * Used for the ids kept alongside the task list and for index postings.
+ */
+class SequenceList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty sequence list.
+     */
+    SequenceList() {
+        this.values = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a sequence number, keeping the list sorted and free of duplicates.
+     * Appending a number larger than every other one takes constant time.
+     *
+     * @param sequence the number to add
+     * @return true if the number was added, false if it was already present
+     */
+    boolean add(int sequence) {
+        if (size == 0 || values[size - 1] < sequence) {
+            ensureCapacity(size + 1);
+            values[size++] = sequence;
+            return true;
+        }
+        int position = Arrays.binarySearch(values, 0, size, sequence);
+        if (position >= 0) {
+            return false;
+        }
+        insertAt(-position - 1, sequence);
+        return true;
+    }
+
+    /**
+     * Inserts a sequence number at a given position, shifting later numbers up.
+     * The caller is responsible for keeping the list sorted.
+     *
+     * @param position where to insert the number
+     * @param sequence the number to insert
+     */
+    void insertAt(int position, int sequence) {
+        assert position >= 0 && position <= size : "Position out of range";
+        ensureCapacity(size + 1);
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = sequence;
+        size++;
+    }
+
+    /**
+     * Removes a sequence number if present.
+     *
+     * @param sequence the number to remove
+     * @return true if the number was removed
+     */
+    boolean remove(int sequence) {
+        int position = indexOf(sequence);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    /**
+     * Removes the sequence number at the given position.
+     *
+     * @param position the position to remove
+     * @return the removed number
+     */
+    int removeAt(int position) {
+        assert position >= 0 && position < size : "Position out of range";
+        int removed = values[position];
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Removes the sequence numbers at the given positions, moving each remaining number at most once.
+     *
+     * @param positions the positions to remove
+     */
+    void removeAll(BitSet positions) {
+        int first = positions.nextSetBit(0);
+        if (first < 0) {
+            return;
+        }
+        assert positions.length() <= size : "Position out of range";
+        int kept = first;
+        for (int i = first; i < size; i++) {
+            if (!positions.get(i)) {
+                values[kept++] = values[i];
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Inserts sequence numbers so that they end up at the given positions, moving each existing number
+     * at most once. The caller is responsible for keeping the list sorted.
+     *
+     * @param positions where the numbers end up once all of them are inserted
+     * @param inserted the numbers to insert, in position order
+     */
+    void insertAll(BitSet positions, int[] inserted) {
+        assert positions.cardinality() == inserted.length : "Each number needs a position";
+        int newSize = size + inserted.length;
+        assert positions.length() <= newSize : "Position out of range";
+        ensureCapacity(newSize);
+        int source = size - 1;
+        int next = inserted.length - 1;
+        // Fill from the back; once every number is placed, the rest of the list is already where it belongs
+        for (int target = newSize - 1; next >= 0; target--) {
+            values[target] = positions.get(target) ? inserted[next--] : values[source--];
+        }
+        size = newSize;
+    }
+
+    /**
+     * Finds the position of a sequence number with a binary search.
+     *
+     * @param sequence the number to look for
+     * @return its position, or a negative number if it is not in the list
+     */
+    int indexOf(int sequence) {
+        return Arrays.binarySearch(values, 0, size, sequence);
+    }
+
+    /**
+     * Checks whether the list contains a sequence number.
+     *
+     * @param sequence the number to look for
+     * @return true if it is in the list
+     */
+    boolean contains(int sequence) {
+        return indexOf(sequence) >= 0;
+    }
+
+    /**
+     * Gets the sequence number at a position.
+     *
+     * @param position the position (0-based)
+     * @return the number at that position
+     */
+    int get(int position) {
+        assert position >= 0 && position < size : "Position out of range";
+        return values[position];
+    }
+
+    /**
+     * Gets the number of sequence numbers in the list.
+     *
+     * @return the size of the list
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the list is empty.
+     *
+     * @return true if there are no numbers in the list
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every sequence number.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Grows the backing array so it can hold at least the given number of values.
+     *
+     * @param capacity the number of values needed
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+}
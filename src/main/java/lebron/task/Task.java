@@ -8,18 +8,19 @@ import lebron.common.TaskType;
  */
 public abstract class Task {
     protected String description;
-    protected TaskStatus status;
+    protected volatile TaskStatus status;
     protected TaskType type;
 
     /**
      * Creates a new task with the given description.
-     * The task starts as not done.
+     * The task starts as not done. The description is shared with other tasks through the
+     * {@link DescriptionPool} when pooling is turned on.
      *
      * @param description what the task is about
      * @param type the kind of task (todo, deadline, or event)
      */
     public Task(String description, TaskType type) {
-        this.description = description;
+        this.description = DescriptionPool.share(description);
         this.status = TaskStatus.NOT_DONE;
         this.type = type;
     }
@@ -0,0 +1,37 @@
+package lebron.task;
+
+import java.util.List;
+
+/**
+ * How a task list keeps its tasks in memory.
+ * The layout can be picked with the "lebron.tasks.layout" system property (objects or compact).
+ */
+public enum TaskLayout {
+    /** Each task is kept as the object it was added as */
+    OBJECTS,
+    /** Tasks are packed into primitive arrays and rebuilt when read, for very large lists */
+    COMPACT;
+
+    private static final String LAYOUT_PROPERTY = "lebron.tasks.layout";
+
+    /**
+     * Gets the layout chosen through the "lebron.tasks.layout" system property.
+     * Falls back to keeping task objects if the property is missing or not recognised.
+     *
+     * @return the configured layout
+     */
+    public static TaskLayout fromSystemProperty() {
+        String value = System.getProperty(LAYOUT_PROPERTY, "");
+        return value.equalsIgnoreCase("compact") ? COMPACT : OBJECTS;
+    }
+
+    /**
+     * Creates a store with this layout.
+     *
+     * @param tasks the initial tasks
+     * @return the store
+     */
+    TaskStore createStore(List<Task> tasks) {
+        return this == COMPACT ? new CompactTaskStore(tasks) : new ArrayTaskStore(tasks);
+    }
+}
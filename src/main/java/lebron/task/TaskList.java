@@ -2,20 +2,49 @@ package lebron.task;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+import lebron.metrics.IndexEvent;
+import lebron.metrics.IndexUpdateEvent;
 
 /**
  * Manages a collection of tasks with operations like add, delete, mark, and filter.
  * Encapsulates the task storage and provides clean methods for task management.
+ *
+ * Safe to use from several threads. Searches and listings run in parallel with each other
+ * and only wait for changes to the list, and the size can be read without any locking.
+ *
+ * Changes can be grouped into a transaction and undone together. Each change in a transaction
+ * records how to undo itself, so rolling back costs as much as the changes made, not the size of the list.
+ * A {@link TransactionView} lets one session make changes only it can see until they are applied here.
+ *
+ * The tasks themselves are kept in one of the {@link TaskLayout}s. With the compact layout, the tasks
+ * handed out are copies, so tasks are always changed through the list rather than directly.
  */
 public class TaskList {
-    private ArrayList<Task> tasks;
+    // Readers arriving after a waiting writer queue behind it, so a stream of searches can't starve changes
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TaskStore tasks;
+    // Copy of tasks.size(), updated under the write lock so size() never has to lock
+    private volatile int size;
+    // Sequence numbers of the tasks, in list order. They only ever grow, so the list stays sorted
+    private final SequenceList sequences;
+    private int nextSequence;
+    // Built on the first keyword or date search, then kept up to date
+    private KeywordIndex keywordIndex;
+    private DateIndex dateIndex;
+    // Undo steps for the changes in the open transaction, oldest first, or null if none is open
+    private ArrayList<Runnable> undoLog;
+    // How many times the tasks were given fresh sequence numbers, which a transaction view needs to know
+    private int renumberCount;
 
     /**
      * Creates a new empty task list.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(new ArrayList<>());
     }
 
     /**
@@ -24,7 +53,23 @@ public class TaskList {
      * @param tasks the initial list of tasks
      */
     public TaskList(ArrayList<Task> tasks) {
-        this.tasks = new ArrayList<>(tasks);
+        this(tasks, TaskLayout.OBJECTS);
+    }
+
+    /**
+     * Creates a task list with existing tasks, kept in the given layout.
+     *
+     * @param tasks the initial list of tasks
+     * @param layout how to keep the tasks in memory
+     */
+    public TaskList(ArrayList<Task> tasks, TaskLayout layout) {
+        assert layout != null : "Layout cannot be null";
+        this.tasks = layout.createStore(tasks);
+        this.size = tasks.size();
+        this.sequences = new SequenceList();
+        for (int i = 0; i < tasks.size(); i++) {
+            sequences.add(nextSequence++);
+        }
     }
 
     /**
@@ -34,7 +79,31 @@ public class TaskList {
      */
     public void addTask(Task task) {
         assert task != null : "Task cannot be null";
-        tasks.add(task);
+        lock.writeLock().lock();
+        try {
+            if (nextSequence == Integer.MAX_VALUE) {
+                renumber();
+            }
+            int sequence = nextSequence++;
+            tasks.add(task);
+            size = tasks.size();
+            sequences.add(sequence);
+            IndexUpdateEvent event = new IndexUpdateEvent();
+            event.begin();
+            if (keywordIndex != null) {
+                keywordIndex.add(sequence, task);
+            }
+            if (dateIndex != null) {
+                dateIndex.add(sequence, task);
+            }
+            recordIndexUpdate(event, "add", 1);
+            if (undoLog != null) {
+                int index = tasks.size() - 1;
+                undoLog.add(() -> removeAt(index));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -45,10 +114,20 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public Task deleteTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
-            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        lock.writeLock().lock();
+        try {
+            if (index < 0 || index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Task index must be within valid range");
+            }
+            int sequence = sequences.get(index);
+            Task removed = removeAt(index);
+            if (undoLog != null) {
+                undoLog.add(() -> insertAt(index, sequence, removed));
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
         }
-        return tasks.remove(index);
     }
 
     /**
@@ -59,10 +138,15 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public Task getTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
-            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        lock.readLock().lock();
+        try {
+            if (index < 0 || index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Task index must be within valid range");
+            }
+            return tasks.get(index);
+        } finally {
+            lock.readLock().unlock();
         }
-        return tasks.get(index);
     }
 
     /**
@@ -72,10 +156,16 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public void markTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
-            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        lock.writeLock().lock();
+        try {
+            if (index < 0 || index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Task index must be within valid range");
+            }
+            recordStatus(index);
+            tasks.setDone(index, true);
+        } finally {
+            lock.writeLock().unlock();
         }
-        tasks.get(index).markAsDone();
     }
 
     /**
@@ -85,10 +175,159 @@ public class TaskList {
      * @throws IndexOutOfBoundsException if index is invalid
      */
     public void unmarkTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
-            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        lock.writeLock().lock();
+        try {
+            if (index < 0 || index >= tasks.size()) {
+                throw new IndexOutOfBoundsException("Task index must be within valid range");
+            }
+            recordStatus(index);
+            tasks.setDone(index, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes several tasks at once. The tasks after the first removed one are each moved once,
+     * so removing a range costs about the same as removing a single task near its start.
+     *
+     * @param indexes the positions of the tasks to remove (0-based)
+     * @return the removed tasks, in list order
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    public ArrayList<Task> deleteTasks(BitSet indexes) {
+        lock.writeLock().lock();
+        try {
+            checkIndexes(indexes);
+            int count = indexes.cardinality();
+            ArrayList<Task> removed = new ArrayList<>(count);
+            if (count == 0) {
+                return removed;
+            }
+            int[] removedSequences = new int[count];
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                removedSequences[removed.size()] = sequences.get(i);
+                removed.add(tasks.get(i));
+            }
+            tasks.removeAll(indexes);
+            sequences.removeAll(indexes);
+            size = tasks.size();
+            IndexUpdateEvent event = new IndexUpdateEvent();
+            event.begin();
+            for (int i = 0; i < count; i++) {
+                if (keywordIndex != null) {
+                    keywordIndex.remove(removedSequences[i], removed.get(i));
+                }
+                if (dateIndex != null) {
+                    dateIndex.remove(removedSequences[i], removed.get(i));
+                }
+            }
+            recordIndexUpdate(event, "remove", count);
+            if (undoLog != null) {
+                BitSet positions = (BitSet) indexes.clone();
+                undoLog.add(() -> insertAll(positions, removedSequences, removed));
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks several tasks as done at once.
+     *
+     * @param indexes the positions of the tasks to mark (0-based)
+     * @return the marked tasks, in list order
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    public ArrayList<Task> markTasks(BitSet indexes) {
+        return setDone(indexes, true);
+    }
+
+    /**
+     * Marks several tasks as not done at once.
+     *
+     * @param indexes the positions of the tasks to unmark (0-based)
+     * @return the unmarked tasks, in list order
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    public ArrayList<Task> unmarkTasks(BitSet indexes) {
+        return setDone(indexes, false);
+    }
+
+    /**
+     * Starts a transaction. Changes from now on can be undone together with {@link #rollback()},
+     * or kept with {@link #commit()}.
+     *
+     * @throws IllegalStateException if a transaction is already open
+     */
+    public void beginTransaction() {
+        lock.writeLock().lock();
+        try {
+            if (undoLog != null) {
+                throw new IllegalStateException("A transaction is already open");
+            }
+            undoLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks if a transaction is open.
+     *
+     * @return true if changes are currently being recorded for a rollback
+     */
+    public boolean isInTransaction() {
+        lock.readLock().lock();
+        try {
+            return undoLog != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ends the open transaction, keeping its changes.
+     *
+     * @return the number of changes made in the transaction
+     * @throws IllegalStateException if no transaction is open
+     */
+    public int commit() {
+        lock.writeLock().lock();
+        try {
+            if (undoLog == null) {
+                throw new IllegalStateException("No transaction is open");
+            }
+            int changeCount = undoLog.size();
+            undoLog = null;
+            return changeCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ends the open transaction, undoing its changes from the newest to the oldest.
+     *
+     * @return the number of changes undone
+     * @throws IllegalStateException if no transaction is open
+     */
+    public int rollback() {
+        lock.writeLock().lock();
+        try {
+            if (undoLog == null) {
+                throw new IllegalStateException("No transaction is open");
+            }
+            ArrayList<Runnable> steps = undoLog;
+            undoLog = null;
+            for (int i = steps.size() - 1; i >= 0; i--) {
+                steps.get(i).run();
+            }
+            return steps.size();
+        } finally {
+            lock.writeLock().unlock();
         }
-        tasks.get(index).markAsNotDone();
     }
 
     /**
@@ -97,7 +336,7 @@ public class TaskList {
      * @return the size of the task lis
      */
     public int size() {
-        return tasks.size();
+        return size;
     }
 
     /**
@@ -106,7 +345,7 @@ public class TaskList {
      * @return true if there are no tasks, false otherwise
      */
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return size() == 0;
     }
 
     /**
@@ -115,51 +354,379 @@ public class TaskList {
      * @return a copy of the task lis
      */
     public ArrayList<Task> getTasks() {
-        return new ArrayList<>(tasks);
+        lock.readLock().lock();
+        try {
+            return tasks.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the tasks in a range of positions, copying only those tasks rather than the whole list.
+     *
+     * @param fromIndex the first position (0-based)
+     * @param toIndex the position just past the last one
+     * @return a copy of the tasks in the range, in list order
+     * @throws IndexOutOfBoundsException if the range is not within the list
+     */
+    public ArrayList<Task> getTasks(int fromIndex, int toIndex) {
+        lock.readLock().lock();
+        try {
+            if (fromIndex < 0 || toIndex > tasks.size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("Task range must be within valid range");
+            }
+            ArrayList<Task> range = new ArrayList<>(toIndex - fromIndex);
+            for (int i = fromIndex; i < toIndex; i++) {
+                range.add(tasks.get(i));
+            }
+            return range;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
      * Finds all tasks that occur on a specific date.
      * Includes deadlines due on that date and events that span that date.
+     * Uses a date index, so only the tasks on that date are looked at.
      *
      * @param targetDate the date to search for
      * @return a new TaskList containing matching tasks
      */
     public TaskList getTasksOnDate(LocalDate targetDate) {
-        ArrayList<Task> matchingTasks = tasks.stream()
-            .filter(task -> {
-                if (task instanceof Deadline) {
-                    Deadline deadline = (Deadline) task;
-                    return deadline.getBy().toLocalDate().equals(targetDate);
-                } else if (task instanceof Event) {
-                    Event event = (Event) task;
-                    LocalDate eventStartDate = event.getFrom().toLocalDate();
-                    LocalDate eventEndDate = event.getTo().toLocalDate();
-                    // Include event if target date falls within or on the event's date range
-                    return !targetDate.isBefore(eventStartDate) && !targetDate.isAfter(eventEndDate);
-                }
-                return false;
-            })
-            .collect(Collectors.toCollection(ArrayList::new));
-
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        forEachMatchOnDate(targetDate, index -> matchingTasks.add(tasks.get(index)));
         return new TaskList(matchingTasks);
     }
 
     /**
      * Finds all tasks that contain the specified keyword in their description.
      * The search is case-insensitive and matches partial words.
+     * Keywords of three or more characters are looked up in a keyword index,
+     * so only tasks sharing every slice of the keyword are checked.
      *
      * @param keyword the keyword to search for
      * @return a new TaskList containing matching tasks
      */
     public TaskList findTasksByKeyword(String keyword) {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        forEachKeywordMatch(keyword.toLowerCase(), index -> matchingTasks.add(tasks.get(index)));
+        return new TaskList(matchingTasks);
+    }
 
-        String lowerKeyword = keyword.toLowerCase();
-        
-        ArrayList<Task> matchingTasks = tasks.stream()
-            .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
-            .collect(Collectors.toCollection(ArrayList::new));
+    /**
+     * Runs an action on the position of every task on a date, in list order, holding the read lock throughout.
+     *
+     * @param targetDate the date to search for
+     * @param action what to do with each position (0-based)
+     */
+    void forEachMatchOnDate(LocalDate targetDate, IntConsumer action) {
+        if (dateIndex == null) {
+            buildIndexes();
+        }
 
-        return new TaskList(matchingTasks);
+        lock.readLock().lock();
+        try {
+            for (int sequence : dateIndex.findOnDate(targetDate)) {
+                action.accept(sequences.indexOf(sequence));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs an action on the position of every task whose description contains a keyword, in list order,
+     * holding the read lock throughout.
+     *
+     * @param lowerKeyword the keyword to search for, in lower case
+     * @param action what to do with each position (0-based)
+     */
+    void forEachKeywordMatch(String lowerKeyword, IntConsumer action) {
+        boolean isShortKeyword = lowerKeyword.length() < KeywordIndex.GRAM_LENGTH;
+        if (!isShortKeyword && keywordIndex == null) {
+            buildIndexes();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (isShortKeyword) {
+                // Short keywords match a large share of any list, so a plain scan is just as fast
+                for (int i = 0; i < tasks.size(); i++) {
+                    if (tasks.getDescription(i).toLowerCase().contains(lowerKeyword)) {
+                        action.accept(i);
+                    }
+                }
+            } else {
+                SequenceList candidates = keywordIndex.findCandidates(lowerKeyword);
+                for (int i = 0; i < candidates.size(); i++) {
+                    int index = sequences.indexOf(candidates.get(i));
+                    if (tasks.getDescription(index).toLowerCase().contains(lowerKeyword)) {
+                        action.accept(index);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the lock guarding the list, for a {@link TransactionView} reading it.
+     *
+     * @return the lock
+     */
+    ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Gets the tasks themselves, for a {@link TransactionView} reading them under the read lock.
+     *
+     * @return the task store
+     */
+    TaskStore getStore() {
+        return tasks;
+    }
+
+    /**
+     * Gets the sequence numbers of the tasks, for a {@link TransactionView} reading them under the read lock.
+     *
+     * @return the sequence numbers, in list order
+     */
+    SequenceList getSequences() {
+        return sequences;
+    }
+
+    /**
+     * Gets how many times the tasks were given fresh sequence numbers. Called under the read lock.
+     *
+     * @return the number of times the list was renumbered
+     */
+    int getRenumberCount() {
+        return renumberCount;
+    }
+
+    /**
+     * Removes the task at a position, keeping the indexes up to date. Called under the write lock.
+     *
+     * @param index the position of the task (0-based)
+     * @return the removed task
+     */
+    private Task removeAt(int index) {
+        int sequence = sequences.removeAt(index);
+        Task removed = tasks.remove(index);
+        size = tasks.size();
+        IndexUpdateEvent event = new IndexUpdateEvent();
+        event.begin();
+        if (keywordIndex != null) {
+            keywordIndex.remove(sequence, removed);
+        }
+        if (dateIndex != null) {
+            dateIndex.remove(sequence, removed);
+        }
+        recordIndexUpdate(event, "remove", 1);
+        return removed;
+    }
+
+    /**
+     * Puts a deleted task back where it was, with its old sequence number. Called under the write lock.
+     * Undo steps run newest first, so the neighbours it had are back in place and the numbers stay in order,
+     * unless the list was renumbered in the meantime.
+     *
+     * @param index the position the task had (0-based)
+     * @param sequence the sequence number the task had
+     * @param task the task
+     */
+    private void insertAt(int index, int sequence, Task task) {
+        tasks.add(index, task);
+        size = tasks.size();
+        boolean isInOrder = (index == 0 || sequences.get(index - 1) < sequence)
+                && (index == sequences.size() || sequence < sequences.get(index));
+        if (!isInOrder) {
+            renumber();
+            return;
+        }
+        sequences.insertAt(index, sequence);
+        IndexUpdateEvent event = new IndexUpdateEvent();
+        event.begin();
+        if (keywordIndex != null) {
+            keywordIndex.add(sequence, task);
+        }
+        if (dateIndex != null) {
+            dateIndex.add(sequence, task);
+        }
+        recordIndexUpdate(event, "add", 1);
+    }
+
+    /**
+     * Puts several deleted tasks back where they were, with their old sequence numbers. Called under the write lock.
+     * Each task already in the list is moved at most once.
+     *
+     * @param positions the positions the tasks had (0-based)
+     * @param restoredSequences the sequence numbers the tasks had, in list order
+     * @param restored the tasks, in list order
+     */
+    private void insertAll(BitSet positions, int[] restoredSequences, ArrayList<Task> restored) {
+        tasks.insertAll(positions, restored);
+        size = tasks.size();
+        sequences.insertAll(positions, restoredSequences);
+
+        for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+            boolean isInOrder = (i == 0 || sequences.get(i - 1) < sequences.get(i))
+                    && (i == sequences.size() - 1 || sequences.get(i) < sequences.get(i + 1));
+            if (!isInOrder) {
+                renumber();
+                return;
+            }
+        }
+        IndexUpdateEvent event = new IndexUpdateEvent();
+        event.begin();
+        for (int i = 0; i < restored.size(); i++) {
+            if (keywordIndex != null) {
+                keywordIndex.add(restoredSequences[i], restored.get(i));
+            }
+            if (dateIndex != null) {
+                dateIndex.add(restoredSequences[i], restored.get(i));
+            }
+        }
+        recordIndexUpdate(event, "add", restored.size());
+    }
+
+    /**
+     * Marks several tasks as done or not done, recording one undo step for all of them.
+     *
+     * @param indexes the positions of the tasks (0-based)
+     * @param isDone whether the tasks become done
+     * @return the changed tasks, in list order
+     */
+    private ArrayList<Task> setDone(BitSet indexes, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            checkIndexes(indexes);
+            ArrayList<Task> changed = new ArrayList<>(indexes.cardinality());
+            BitSet wasDone = new BitSet();
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                if (tasks.isDone(i)) {
+                    wasDone.set(i);
+                }
+                tasks.setDone(i, isDone);
+                changed.add(tasks.get(i));
+            }
+            if (undoLog != null && !changed.isEmpty()) {
+                BitSet positions = (BitSet) indexes.clone();
+                undoLog.add(() -> {
+                    for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+                        tasks.setDone(i, wasDone.get(i));
+                    }
+                });
+            }
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks that every position in a set refers to a task in the list. Called under the write lock.
+     *
+     * @param indexes the positions to check (0-based)
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    private void checkIndexes(BitSet indexes) {
+        if (indexes.length() > tasks.size()) {
+            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        }
+    }
+
+    /**
+     * Records how to put a task's status back, if a transaction is open. Called under the write lock.
+     * Undo steps run newest first, so the task is back at the same position by the time this one runs.
+     *
+     * @param index the position of the task about to be marked or unmarked (0-based)
+     */
+    private void recordStatus(int index) {
+        if (undoLog == null) {
+            return;
+        }
+        boolean wasDone = tasks.isDone(index);
+        undoLog.add(() -> tasks.setDone(index, wasDone));
+    }
+
+    /**
+     * Builds whichever search indexes don't exist yet.
+     * Searches call this before taking the read lock, since the indexes can only be built under the write lock.
+     */
+    private void buildIndexes() {
+        lock.writeLock().lock();
+        try {
+            if (keywordIndex == null) {
+                buildKeywordIndex();
+            }
+            if (dateIndex == null) {
+                buildDateIndex();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes every task in the list for keyword searches.
+     */
+    private void buildKeywordIndex() {
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        keywordIndex = new KeywordIndex();
+        for (int i = 0; i < tasks.size(); i++) {
+            keywordIndex.add(sequences.get(i), tasks.get(i));
+        }
+        event.record("keyword", tasks.size());
+    }
+
+    /**
+     * Indexes every deadline and event in the list for date searches.
+     */
+    private void buildDateIndex() {
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        dateIndex = new DateIndex();
+        for (int i = 0; i < tasks.size(); i++) {
+            dateIndex.add(sequences.get(i), tasks.get(i));
+        }
+        event.record("date", tasks.size());
+    }
+
+    /**
+     * Ends an incremental index update, recording it only if there was an index to update.
+     *
+     * @param event the event started before the update
+     * @param change what happened to the tasks, like "add"
+     * @param taskCount the number of tasks added or removed
+     */
+    private void recordIndexUpdate(IndexUpdateEvent event, String change, int taskCount) {
+        if (keywordIndex != null || dateIndex != null) {
+            event.record(change, taskCount);
+        }
+    }
+
+    /**
+     * Gives every task a fresh sequence number, starting from zero.
+     * Only needed once the numbers run out, and rebuilds the existing indexes with the new numbers.
+     * Indexes are never dropped, as searches check for them before taking the lock.
+     */
+    private void renumber() {
+        renumberCount++;
+        sequences.clear();
+        for (nextSequence = 0; nextSequence < tasks.size(); nextSequence++) {
+            sequences.add(nextSequence);
+        }
+        if (keywordIndex != null) {
+            buildKeywordIndex();
+        }
+        if (dateIndex != null) {
+            buildDateIndex();
+        }
     }
 }
@@ -0,0 +1,83 @@
+package lebron.task;
+
+import java.util.BitSet;
+
+/**
+ * The tasks a mark, unmark or delete command applies to: one task, ranges and lists of tasks, or all of them.
+ * Kept as task number ranges rather than single numbers, so "delete 1-100000" stays small
+ * until it is checked against the list.
+ */
+public class TaskSelection {
+    private static final TaskSelection ALL = new TaskSelection(null);
+
+    // First and last task number (1-based, inclusive) of each range, or null for every task
+    private final int[] ranges;
+
+    /**
+     * Creates a selection from task number ranges.
+     *
+     * @param ranges the first and last task number (1-based, inclusive) of each range, one pair after another
+     */
+    public TaskSelection(int[] ranges) {
+        assert ranges == null || ranges.length % 2 == 0 : "Ranges must come in pairs";
+        this.ranges = ranges;
+    }
+
+    /**
+     * Creates a selection of a single task.
+     *
+     * @param taskNumber the task number (1-based)
+     * @return the selection
+     */
+    public static TaskSelection of(int taskNumber) {
+        return new TaskSelection(new int[] {taskNumber, taskNumber});
+    }
+
+    /**
+     * Gets the selection of every task in the list.
+     *
+     * @return the selection
+     */
+    public static TaskSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Checks whether every selected task exists in a list of the given size.
+     * Selecting all tasks of an empty list selects nothing, which counts as not fitting.
+     *
+     * @param size the number of tasks in the list
+     * @return true if every task number is between 1 and the size
+     */
+    public boolean isWithin(int size) {
+        if (ranges == null) {
+            return size > 0;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] < 1 || ranges[i + 1] > size) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Turns the selection into the positions of the selected tasks.
+     * Tasks named more than once are only included once.
+     *
+     * @param size the number of tasks in the list
+     * @return the set of selected positions (0-based)
+     */
+    public BitSet toIndexes(int size) {
+        assert isWithin(size) : "Selection must fit the list";
+        BitSet indexes = new BitSet(size);
+        if (ranges == null) {
+            indexes.set(0, size);
+            return indexes;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            indexes.set(ranges[i] - 1, ranges[i + 1]);
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,99 @@
+package lebron.task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Holds the tasks of a {@link TaskList} in list order.
+ * The task list does all the locking, numbering and indexing; a store only keeps the tasks.
+ * Stores may hand out copies rather than the tasks they were given, so tasks are always
+ * changed through the store.
+ */
+interface TaskStore {
+    /**
+     * Gets the number of tasks in the store.
+     *
+     * @return the number of tasks
+     */
+    int size();
+
+    /**
+     * Gets the task at a position.
+     *
+     * @param index the position (0-based)
+     * @return the task, or a copy of it
+     */
+    Task get(int index);
+
+    /**
+     * Gets the description of the task at a position, without anything else about the task.
+     *
+     * @param index the position (0-based)
+     * @return the description
+     */
+    String getDescription(int index);
+
+    /**
+     * Checks whether the task at a position is done.
+     *
+     * @param index the position (0-based)
+     * @return true if the task is done
+     */
+    boolean isDone(int index);
+
+    /**
+     * Marks the task at a position as done or not done.
+     *
+     * @param index the position (0-based)
+     * @param isDone whether the task is done
+     */
+    void setDone(int index, boolean isDone);
+
+    /**
+     * Inserts a task, shifting later tasks up.
+     *
+     * @param index where to insert the task, which may be the size to add it at the end
+     * @param task the task
+     */
+    void add(int index, Task task);
+
+    /**
+     * Adds a task at the end.
+     *
+     * @param task the task
+     */
+    default void add(Task task) {
+        add(size(), task);
+    }
+
+    /**
+     * Removes the task at a position, shifting later tasks down.
+     *
+     * @param index the position (0-based)
+     * @return the removed task, or a copy of it
+     */
+    Task remove(int index);
+
+    /**
+     * Removes the tasks at the given positions, moving each remaining task at most once.
+     *
+     * @param indexes the positions to remove (0-based)
+     */
+    void removeAll(BitSet indexes);
+
+    /**
+     * Inserts tasks so that they end up at the given positions, moving each existing task at most once.
+     *
+     * @param positions where the tasks end up once all of them are inserted
+     * @param inserted the tasks, in position order
+     */
+    void insertAll(BitSet positions, List<Task> inserted);
+
+    /**
+     * Copies every task into a new list.
+     *
+     * @return the tasks, in order
+     */
+    ArrayList<Task> toList();
+}
@@ -0,0 +1,506 @@
+package lebron.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A task list as the session with an open transaction sees it: the shared list with the session's own changes
+ * laid over it. Nothing is copied when the transaction begins. Deleted tasks are hidden, tasks the session marks
+ * are only copied when they are read, and added tasks are kept to one side, so other sessions never see any
+ * of it until {@link #apply()} makes the changes to the shared list.
+ *
+ * The session's changes refer to tasks by sequence number rather than position, so other sessions can keep
+ * changing the shared list meanwhile. Only the session that opened the view may use it.
+ */
+public class TransactionView extends TaskList {
+    private final TaskList base;
+    private final int baseRenumberCount;
+    // Sequence numbers of the shared tasks the session deleted, which stay sorted
+    private final SequenceList deleted = new SequenceList();
+    // Status the session gave shared tasks, by sequence number
+    private final HashMap<Integer, Boolean> statuses = new HashMap<>();
+    // Tasks the session added, which come after the shared ones
+    private final ArrayList<Task> added = new ArrayList<>();
+    private int changeCount;
+
+    /**
+     * Opens a view of the shared list with no changes of its own yet.
+     *
+     * @param base the shared list
+     */
+    public TransactionView(TaskList base) {
+        assert base != null && !(base instanceof TransactionView) : "Base must be a shared task list";
+        this.base = base;
+        base.getLock().readLock().lock();
+        try {
+            this.baseRenumberCount = base.getRenumberCount();
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of changes the session has made in the view.
+     *
+     * @return the number of changes
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Makes the session's changes to the shared list, as a transaction on it, so either all of them are made
+     * or none are. Shared tasks the session deleted that are already gone are skipped.
+     * The caller must keep other sessions from changing the shared list while this runs.
+     *
+     * @return the changes as made, by the positions the shared list had at the time
+     * @throws IllegalStateException if a task the session marked or unmarked is no longer in the shared list,
+     *     in which case the shared list is left as it was
+     */
+    public Changes apply() {
+        base.getLock().writeLock().lock();
+        try {
+            if (base.getRenumberCount() != baseRenumberCount) {
+                throw new IllegalStateException("The shared list was renumbered");
+            }
+            SequenceList sequences = base.getSequences();
+            BitSet marked = new BitSet();
+            BitSet unmarked = new BitSet();
+            for (Map.Entry<Integer, Boolean> status : statuses.entrySet()) {
+                int position = sequences.indexOf(status.getKey());
+                if (position < 0) {
+                    throw new IllegalStateException("A changed task was deleted from the shared list");
+                }
+                (status.getValue() ? marked : unmarked).set(position);
+            }
+            BitSet removed = new BitSet();
+            for (int i = 0; i < deleted.size(); i++) {
+                int position = sequences.indexOf(deleted.get(i));
+                if (position >= 0) {
+                    removed.set(position);
+                }
+            }
+
+            base.beginTransaction();
+            try {
+                base.markTasks(marked);
+                base.unmarkTasks(unmarked);
+                base.deleteTasks(removed);
+                for (Task task : added) {
+                    base.addTask(task);
+                }
+                base.commit();
+            } catch (RuntimeException e) {
+                base.rollback();
+                throw e;
+            }
+            return new Changes(marked, unmarked, removed, added);
+        } finally {
+            base.getLock().writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addTask(Task task) {
+        assert task != null : "Task cannot be null";
+        added.add(task);
+        changeCount++;
+    }
+
+    @Override
+    public Task deleteTask(int index) {
+        return deleteTasks(single(index)).get(0);
+    }
+
+    @Override
+    public Task getTask(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        }
+        return getTasks(index, index + 1).get(0);
+    }
+
+    @Override
+    public void markTask(int index) {
+        setDone(single(index), true);
+    }
+
+    @Override
+    public void unmarkTask(int index) {
+        setDone(single(index), false);
+    }
+
+    @Override
+    public ArrayList<Task> deleteTasks(BitSet indexes) {
+        base.getLock().readLock().lock();
+        try {
+            int baseCount = countBaseTasks();
+            checkIndexes(indexes, baseCount);
+            ArrayList<Task> removed = new ArrayList<>(indexes.cardinality());
+            SequenceList removedSequences = new SequenceList();
+            BitSet removedAdded = new BitSet();
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                if (i < baseCount) {
+                    int position = basePosition(i);
+                    removed.add(viewOf(position));
+                    removedSequences.add(base.getSequences().get(position));
+                } else {
+                    removed.add(added.get(i - baseCount));
+                    removedAdded.set(i - baseCount);
+                }
+            }
+            for (int i = 0; i < removedSequences.size(); i++) {
+                deleted.add(removedSequences.get(i));
+                statuses.remove(removedSequences.get(i));
+            }
+            for (int i = removedAdded.length() - 1; i >= 0; i = removedAdded.previousSetBit(i - 1)) {
+                added.remove(i);
+            }
+            if (!removed.isEmpty()) {
+                changeCount++;
+            }
+            return removed;
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    @Override
+    public ArrayList<Task> markTasks(BitSet indexes) {
+        return setDone(indexes, true);
+    }
+
+    @Override
+    public ArrayList<Task> unmarkTasks(BitSet indexes) {
+        return setDone(indexes, false);
+    }
+
+    /**
+     * Not supported, as the view is itself the session's transaction.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void beginTransaction() {
+        throw new UnsupportedOperationException("A transaction view cannot open a transaction of its own");
+    }
+
+    /**
+     * Not supported, as the view's changes are kept with {@link #apply()} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public int commit() {
+        throw new UnsupportedOperationException("A transaction view is applied, not committed");
+    }
+
+    /**
+     * Not supported, as the view's changes are thrown away by dropping the view.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public int rollback() {
+        throw new UnsupportedOperationException("A transaction view is dropped, not rolled back");
+    }
+
+    @Override
+    public int size() {
+        base.getLock().readLock().lock();
+        try {
+            return countBaseTasks() + added.size();
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    @Override
+    public ArrayList<Task> getTasks() {
+        base.getLock().readLock().lock();
+        try {
+            return getRows(0, countBaseTasks() + added.size());
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    @Override
+    public ArrayList<Task> getTasks(int fromIndex, int toIndex) {
+        base.getLock().readLock().lock();
+        try {
+            return getRows(fromIndex, toIndex);
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    @Override
+    public TaskList getTasksOnDate(LocalDate targetDate) {
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        base.forEachMatchOnDate(targetDate, position -> addIfVisible(position, matchingTasks));
+        for (Task task : added) {
+            if (DateIndex.isOnDate(task, targetDate)) {
+                matchingTasks.add(task);
+            }
+        }
+        return new TaskList(matchingTasks);
+    }
+
+    @Override
+    public TaskList findTasksByKeyword(String keyword) {
+        String lowerKeyword = keyword.toLowerCase();
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        base.forEachKeywordMatch(lowerKeyword, position -> addIfVisible(position, matchingTasks));
+        for (Task task : added) {
+            if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                matchingTasks.add(task);
+            }
+        }
+        return new TaskList(matchingTasks);
+    }
+
+    /**
+     * The session's changes as they were made to the shared list, for recording them in storage.
+     * Marks and unmarks come first, then deletions, all by the positions the shared list had before any
+     * of them, then the added tasks in order at the end of the list.
+     */
+    public static class Changes {
+        private final BitSet marked;
+        private final BitSet unmarked;
+        private final BitSet deleted;
+        private final List<Task> added;
+
+        /**
+         * Creates a record of applied changes.
+         *
+         * @param marked the positions of the tasks marked as done
+         * @param unmarked the positions of the tasks marked as not done
+         * @param deleted the positions of the tasks deleted
+         * @param added the tasks added
+         */
+        Changes(BitSet marked, BitSet unmarked, BitSet deleted, List<Task> added) {
+            this.marked = marked;
+            this.unmarked = unmarked;
+            this.deleted = deleted;
+            this.added = added;
+        }
+
+        /**
+         * Gets the positions of the tasks marked as done.
+         *
+         * @return the positions (0-based)
+         */
+        public BitSet getMarked() {
+            return marked;
+        }
+
+        /**
+         * Gets the positions of the tasks marked as not done.
+         *
+         * @return the positions (0-based)
+         */
+        public BitSet getUnmarked() {
+            return unmarked;
+        }
+
+        /**
+         * Gets the positions of the tasks deleted, as they were before the deletion.
+         *
+         * @return the positions (0-based)
+         */
+        public BitSet getDeleted() {
+            return deleted;
+        }
+
+        /**
+         * Gets the tasks added to the end of the list.
+         *
+         * @return the tasks, in the order they were added
+         */
+        public List<Task> getAdded() {
+            return added;
+        }
+    }
+
+    /**
+     * Marks tasks in the view as done or not done.
+     * Shared tasks only have their new status noted; the session's own tasks are changed directly.
+     *
+     * @param indexes the positions of the tasks in the view (0-based)
+     * @param isDone whether the tasks become done
+     * @return the changed tasks as the view now shows them, in list order
+     */
+    private ArrayList<Task> setDone(BitSet indexes, boolean isDone) {
+        base.getLock().readLock().lock();
+        try {
+            int baseCount = countBaseTasks();
+            checkIndexes(indexes, baseCount);
+            ArrayList<Task> changed = new ArrayList<>(indexes.cardinality());
+            for (int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1)) {
+                if (i < baseCount) {
+                    int position = basePosition(i);
+                    statuses.put(base.getSequences().get(position), isDone);
+                    changed.add(viewOf(position));
+                } else {
+                    Task task = added.get(i - baseCount);
+                    if (isDone) {
+                        task.markAsDone();
+                    } else {
+                        task.markAsNotDone();
+                    }
+                    changed.add(task);
+                }
+            }
+            if (!changed.isEmpty()) {
+                changeCount++;
+            }
+            return changed;
+        } finally {
+            base.getLock().readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the tasks in a range of positions in the view. Called under the shared list's read lock.
+     *
+     * @param fromIndex the first position (0-based)
+     * @param toIndex the position just past the last one
+     * @return the tasks as the view shows them, in list order
+     * @throws IndexOutOfBoundsException if the range is not within the view
+     */
+    private ArrayList<Task> getRows(int fromIndex, int toIndex) {
+        int baseCount = countBaseTasks();
+        if (fromIndex < 0 || toIndex > baseCount + added.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Task range must be within valid range");
+        }
+        ArrayList<Task> rows = new ArrayList<>(toIndex - fromIndex);
+        int index = fromIndex;
+        if (index < baseCount) {
+            SequenceList sequences = base.getSequences();
+            int baseEnd = Math.min(toIndex, baseCount);
+            for (int position = basePosition(index); index < baseEnd; position++) {
+                if (!deleted.contains(sequences.get(position))) {
+                    rows.add(viewOf(position));
+                    index++;
+                }
+            }
+        }
+        for (; index < toIndex; index++) {
+            rows.add(added.get(index - baseCount));
+        }
+        return rows;
+    }
+
+    /**
+     * Counts the shared tasks the view still shows. Called under the shared list's read lock.
+     *
+     * @return the number of shared tasks not deleted by the session
+     */
+    private int countBaseTasks() {
+        int hidden = 0;
+        for (int i = 0; i < deleted.size(); i++) {
+            if (base.getSequences().contains(deleted.get(i))) {
+                hidden++;
+            }
+        }
+        return base.getStore().size() - hidden;
+    }
+
+    /**
+     * Finds where a shared task shown in the view is in the shared list. Called under the shared list's read lock.
+     * Costs as much as the number of tasks the session deleted, not the size of the list.
+     *
+     * @param index the position in the view, which must be one of the shared tasks (0-based)
+     * @return the position in the shared list (0-based)
+     */
+    private int basePosition(int index) {
+        int position = index;
+        for (int i = 0; i < deleted.size(); i++) {
+            // Deleted numbers are sorted, and so are the shared list's, so their positions come in order
+            int deletedPosition = base.getSequences().indexOf(deleted.get(i));
+            if (deletedPosition < 0) {
+                continue;
+            }
+            if (deletedPosition > position) {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Gets a shared task as the view shows it. Called under the shared list's read lock.
+     * A task whose status the session changed is copied with the new status, leaving the shared one alone.
+     *
+     * @param position the position in the shared list (0-based)
+     * @return the task
+     */
+    private Task viewOf(int position) {
+        Task task = base.getStore().get(position);
+        Boolean isDone = statuses.get(base.getSequences().get(position));
+        if (isDone == null || isDone == task.isDone()) {
+            return task;
+        }
+        Task copy;
+        if (task instanceof Deadline) {
+            copy = new Deadline(task.getDescription(), ((Deadline) task).getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            copy = new Event(task.getDescription(), event.getFrom(), event.getTo());
+        } else {
+            copy = new ToDo(task.getDescription());
+        }
+        if (isDone) {
+            copy.markAsDone();
+        }
+        return copy;
+    }
+
+    /**
+     * Adds a shared task found by a search to the results, unless the session deleted it.
+     * Called under the shared list's read lock.
+     *
+     * @param position the position in the shared list (0-based)
+     * @param results the search results
+     */
+    private void addIfVisible(int position, ArrayList<Task> results) {
+        if (!deleted.contains(base.getSequences().get(position))) {
+            results.add(viewOf(position));
+        }
+    }
+
+    /**
+     * Checks that every position in a set refers to a task in the view.
+     *
+     * @param indexes the positions to check (0-based)
+     * @param baseCount the number of shared tasks the view shows
+     * @throws IndexOutOfBoundsException if any position is invalid
+     */
+    private void checkIndexes(BitSet indexes, int baseCount) {
+        if (indexes.length() > baseCount + added.size()) {
+            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        }
+    }
+
+    /**
+     * Makes a set holding a single position.
+     *
+     * @param index the position (0-based)
+     * @return the set
+     * @throws IndexOutOfBoundsException if the position is negative
+     */
+    private static BitSet single(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Task index must be within valid range");
+        }
+        BitSet indexes = new BitSet();
+        indexes.set(index);
+        return indexes;
+    }
+}
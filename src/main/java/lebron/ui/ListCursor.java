@@ -0,0 +1,43 @@
+package lebron.ui;
+
+/**
+ * Remembers where one session is paging through its task list, so "list next" carries on from the
+ * last page shown. Each console, window or network client keeps a cursor of its own.
+ */
+public class ListCursor {
+    /** The number of tasks on a page until a session asks for another size */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private int nextPage = 1;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /**
+     * Gets the page "list next" will show.
+     *
+     * @return the page number (1-based)
+     */
+    public synchronized int getNextPage() {
+        return nextPage;
+    }
+
+    /**
+     * Gets the number of tasks on each page.
+     *
+     * @return the page size
+     */
+    public synchronized int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Records that a page was shown, so the one after it comes next.
+     *
+     * @param page the page shown (1-based)
+     * @param pageSize the number of tasks on each page, kept for later pages
+     */
+    public synchronized void moveTo(int page, int pageSize) {
+        assert page > 0 && pageSize > 0 : "Page and page size must be positive";
+        this.nextPage = page + 1;
+        this.pageSize = pageSize;
+    }
+}
@@ -1,13 +1,25 @@
 package lebron.ui;
 
+import java.util.Arrays;
+
 import lebron.common.CommandType;
 import lebron.common.ErrorType;
 import lebron.common.LeBronException;
+import lebron.task.TaskSelection;
+import lebron.util.DateTimeParser;
 /**
  * Handles parsing of user input commands and extracting relevant information.
  * Converts raw user input into structured data for command execution.
  */
 public class Parser {
+    // Selects every task in a mark/unmark/delete command
+    private static final String ALL_TASKS = "all";
+    private static final String PROFILE_START = "start";
+    private static final String PROFILE_STOP = "stop";
+    // Words that turn "list" into a paged listing: "list page N [size M]" and "list next"
+    private static final String LIST_PAGE = "page";
+    private static final String LIST_SIZE = "size";
+    private static final String LIST_NEXT = "next";
 
     /**
      * Parses user input to determine the command type.
@@ -30,16 +42,56 @@ public class Parser {
     public static int parseTaskNumber(String input, int commandLength) throws LeBronException {
         assert input != null : "Input string cannot be null";
         assert commandLength >= 0 : "Command length must be non-negative";
-        try {
-            String numberStr = input.substring(commandLength).trim();
-            int taskNumber = Integer.parseInt(numberStr);
-            if (taskNumber <= 0) {
+        if (commandLength > input.length()) {
+            throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
+        }
+        // Parse the number in place rather than from a trimmed copy
+        return parsePositiveNumber(input, commandLength, input.length());
+    }
+
+    /**
+     * Extracts the tasks a mark/unmark/delete command applies to.
+     * Accepts a task number, a range such as "3-500", a comma-separated list of both such as "1,4,9-12",
+     * or "all".
+     *
+     * @param input the user input (e.g., "mark 1,4,9", "delete 3-500", "unmark all")
+     * @param argStart the index just after the space that follows the command word
+     * @return the selected tasks
+     * @throws LeBronException if any task number is invalid or a range runs backwards
+     */
+    public static TaskSelection parseTaskSelection(String input, int argStart) throws LeBronException {
+        assert input != null : "Input string cannot be null";
+        assert argStart >= 0 : "Argument start must be non-negative";
+        if (argStart > input.length()) {
+            throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
+        }
+        if (argumentsOf(input, argStart).equals(ALL_TASKS)) {
+            return TaskSelection.all();
+        }
+
+        int[] ranges = new int[2];
+        int count = 0;
+        int start = argStart;
+        while (start <= input.length()) {
+            int end = input.indexOf(',', start);
+            if (end == -1) {
+                end = input.length();
+            }
+            int dash = input.indexOf('-', start);
+            boolean isRange = dash != -1 && dash < end;
+            int first = parsePositiveNumber(input, start, isRange ? dash : end);
+            int last = isRange ? parsePositiveNumber(input, dash + 1, end) : first;
+            if (last < first) {
                 throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
             }
-            return taskNumber;
-        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
-            throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
+            if (count == ranges.length) {
+                ranges = Arrays.copyOf(ranges, count * 2);
+            }
+            ranges[count++] = first;
+            ranges[count++] = last;
+            start = end + 1;
         }
+        return new TaskSelection(Arrays.copyOf(ranges, count));
     }
 
     /**
@@ -50,8 +102,20 @@ public class Parser {
      * @throws LeBronException if the description is empty
      */
     public static String parseTodoDescription(String input) throws LeBronException {
+        return parseTodoDescription(input, "todo ".length());
+    }
+
+    /**
+     * Extracts the description from a todo command whose arguments start at the given index.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return the task description
+     * @throws LeBronException if the description is empty
+     */
+    public static String parseTodoDescription(String input, int argStart) throws LeBronException {
         assert input != null : "Input string cannot be null";
-        String description = input.length() > 4 ? input.substring(5).trim() : "";
+        String description = argumentsOf(input, argStart);
         if (description.isEmpty()) {
             throw new LeBronException(ErrorType.EMPTY_TODO.getMessage());
         }
@@ -79,26 +143,40 @@ public class Parser {
      * @throws LeBronException if format is invalid or components are missing
      */
     public static String[] parseDeadlineCommand(String input, String... errorMessages) throws LeBronException {
+        return parseDeadlineCommand(input, "deadline ".length(), errorMessages);
+    }
+
+    /**
+     * Extracts description and deadline from a deadline command whose arguments start at the given index.
+     * Works on indexes into the input, so only the returned parts are copied out.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @param errorMessages custom error messages for empty deadline and missing format
+     * @return array containing [description, deadline]
+     * @throws LeBronException if format is invalid or components are missing
+     */
+    public static String[] parseDeadlineCommand(String input, int argStart, String... errorMessages)
+            throws LeBronException {
         assert input != null : "Input string cannot be null";
         String emptyDeadlineMsg = errorMessages.length > 0 ? errorMessages[0] : ErrorType.EMPTY_DEADLINE.getMessage();
         String missingFormatMsg = errorMessages.length > 1 ? errorMessages[1] 
                 : ErrorType.MISSING_DEADLINE_FORMAT.getMessage();
-        String remaining = input.length() > 8 ? input.substring(9) : "";
-        if (remaining.trim().isEmpty()) {
+        if (isBlank(input, argStart)) {
             throw new LeBronException(emptyDeadlineMsg);
         }
 
-        int byIndex = remaining.indexOf(" /by ");
+        int byIndex = input.indexOf(" /by ", argStart);
         if (byIndex == -1) {
             throw new LeBronException(missingFormatMsg);
         }
 
-        String description = remaining.substring(0, byIndex).trim();
+        String description = input.substring(argStart, byIndex).trim();
         if (description.isEmpty()) {
             throw new LeBronException(emptyDeadlineMsg);
         }
 
-        String by = remaining.substring(byIndex + 5);
+        String by = input.substring(byIndex + 5);
         return new String[]{description, by};
     }
 
@@ -123,29 +201,43 @@ public class Parser {
      * @throws LeBronException if format is invalid or components are missing
      */
     public static String[] parseEventCommand(String input, String... errorMessages) throws LeBronException {
+        return parseEventCommand(input, "event ".length(), errorMessages);
+    }
+
+    /**
+     * Extracts description, start time, and end time from an event command whose arguments start at the given index.
+     * Works on indexes into the input, so only the returned parts are copied out.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @param errorMessages custom error messages for empty event and missing format
+     * @return array containing [description, from, to]
+     * @throws LeBronException if format is invalid or components are missing
+     */
+    public static String[] parseEventCommand(String input, int argStart, String... errorMessages)
+            throws LeBronException {
         assert input != null : "Input string cannot be null";
         String emptyEventMsg = errorMessages.length > 0 ? errorMessages[0] : ErrorType.EMPTY_EVENT.getMessage();
         String missingFormatMsg = errorMessages.length > 1 ? errorMessages[1] 
                 : ErrorType.MISSING_EVENT_FORMAT.getMessage();
-        String remaining = input.length() > 5 ? input.substring(6) : "";
-        if (remaining.trim().isEmpty()) {
+        if (isBlank(input, argStart)) {
             throw new LeBronException(emptyEventMsg);
         }
 
-        int fromIndex = remaining.indexOf(" /from ");
-        int toIndex = remaining.indexOf(" /to ");
+        int fromIndex = input.indexOf(" /from ", argStart);
+        int toIndex = input.indexOf(" /to ", argStart);
 
         if (fromIndex == -1 || toIndex == -1) {
             throw new LeBronException(missingFormatMsg);
         }
 
-        String description = remaining.substring(0, fromIndex).trim();
+        String description = input.substring(argStart, fromIndex).trim();
         if (description.isEmpty()) {
             throw new LeBronException(emptyEventMsg);
         }
 
-        String from = remaining.substring(fromIndex + 7, toIndex);
-        String to = remaining.substring(toIndex + 5);
+        String from = input.substring(fromIndex + 7, toIndex);
+        String to = input.substring(toIndex + 5);
 
         return new String[]{description, from, to};
     }
@@ -158,8 +250,20 @@ public class Parser {
      * @throws LeBronException if the date is missing
      */
     public static String parseOnCommand(String input) throws LeBronException {
+        return parseOnCommand(input, "on ".length());
+    }
+
+    /**
+     * Extracts date from an "on" command whose arguments start at the given index.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return the date string
+     * @throws LeBronException if the date is missing
+     */
+    public static String parseOnCommand(String input, int argStart) throws LeBronException {
         assert input != null : "Input string cannot be null";
-        String dateString = input.length() > 2 ? input.substring(3).trim() : "";
+        String dateString = argumentsOf(input, argStart);
         if (dateString.isEmpty()) {
             throw new LeBronException("Please specify a date. Use: on yyyy-mm-dd (e.g., on 2019-12-02)");
         }
@@ -174,8 +278,20 @@ public class Parser {
      * @throws LeBronException if the keyword is missing
      */
     public static String parseFindCommand(String input) throws LeBronException {
+        return parseFindCommand(input, "find ".length());
+    }
+
+    /**
+     * Extracts keyword from a "find" command whose arguments start at the given index.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return the keyword to search for
+     * @throws LeBronException if the keyword is missing
+     */
+    public static String parseFindCommand(String input, int argStart) throws LeBronException {
         assert input != null : "Input string cannot be null";
-        String keyword = input.length() > 4 ? input.substring(5).trim() : "";
+        String keyword = argumentsOf(input, argStart);
         if (keyword.isEmpty()) {
             throw new LeBronException("Please specify a keyword to search for. Use: find <keyword> (e.g., find book)");
         }
@@ -190,12 +306,35 @@ public class Parser {
      * @throws LeBronException if the date format is invalid
      */
     public static String parseListDateCommand(String input) throws LeBronException {
+        return parseListDateCommand(input, "list ".length());
+    }
+
+    /**
+     * Extracts date from a "list DD MM YYYY" command whose arguments start at the given index.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return the date string in DD MM YYYY format
+     * @throws LeBronException if the date format is invalid
+     */
+    public static String parseListDateCommand(String input, int argStart) throws LeBronException {
         assert input != null : "Input string cannot be null";
-        String dateString = input.length() > 4 ? input.substring(5).trim() : "";
+        String dateString = argumentsOf(input, argStart);
         if (dateString.isEmpty()) {
             throw new LeBronException("Please specify a date. Use: list DD MM YYYY (e.g., list 12 02 2022)");
         }
-        
+
+        // The usual "dd mm yyyy" is checked in place; anything else is split up to find what is wrong
+        if (dateString.length() == "dd mm yyyy".length() && dateString.charAt(2) == ' '
+                && dateString.charAt(5) == ' ') {
+            int day = DateTimeParser.parseDigits(dateString, 0, 2);
+            int month = DateTimeParser.parseDigits(dateString, 3, 2);
+            int year = DateTimeParser.parseDigits(dateString, 6, 4);
+            if (day >= 1 && day <= 31 && month >= 1 && month <= 12 && year >= 1000) {
+                return dateString;
+            }
+        }
+
         // Validate the date format (DD MM YYYY)
         String[] parts = dateString.split("\\s+");
         if (parts.length != 3) {
@@ -222,4 +361,150 @@ public class Parser {
         
         return dateString;
     }
+
+    /**
+     * Checks if a "list" command asks for the next page ("list next").
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return true if the only argument is "next"
+     */
+    public static boolean isListNextCommand(String input, int argStart) {
+        assert input != null : "Input string cannot be null";
+        return argumentsOf(input, argStart).equals(LIST_NEXT);
+    }
+
+    /**
+     * Checks if a "list" command asks for a page ("list page N [size M]").
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word
+     * @return true if the arguments start with the word "page"
+     */
+    public static boolean isListPageCommand(String input, int argStart) {
+        assert input != null : "Input string cannot be null";
+        String arguments = argumentsOf(input, argStart);
+        return arguments.startsWith(LIST_PAGE)
+                && (arguments.length() == LIST_PAGE.length() || arguments.charAt(LIST_PAGE.length()) <= ' ');
+    }
+
+    /**
+     * Reads the page number and optional page size from a "list page N [size M]" command.
+     *
+     * @param input the user input (e.g., "list page 2 size 50")
+     * @param argStart the index just after the space that follows the command word
+     * @return the page number (1-based) and the page size, which is 0 if none was given
+     * @throws LeBronException if the numbers are missing, not numbers or not positive
+     */
+    public static int[] parseListPageCommand(String input, int argStart) throws LeBronException {
+        assert isListPageCommand(input, argStart) : "Input must be a list page command";
+        String[] parts = argumentsOf(input, argStart).split("\\s+");
+        if (parts.length != 2 && (parts.length != 4 || !parts[2].equals(LIST_SIZE))) {
+            throw new LeBronException(ErrorType.INVALID_LIST_PAGE.getMessage());
+        }
+        int page = parsePageNumber(parts[1]);
+        int pageSize = parts.length == 4 ? parsePageNumber(parts[3]) : 0;
+        return new int[] {page, pageSize};
+    }
+
+    /**
+     * Reads whether a "profile" command starts or stops a recording.
+     *
+     * @param input the user input (e.g., "profile start")
+     * @param argStart the index just after the space that follows the command word
+     * @return true for "start", false for "stop"
+     * @throws LeBronException if the argument is neither
+     */
+    public static boolean parseProfileCommand(String input, int argStart) throws LeBronException {
+        assert input != null : "Input string cannot be null";
+        String action = argumentsOf(input, argStart);
+        if (action.equals(PROFILE_START)) {
+            return true;
+        } else if (action.equals(PROFILE_STOP)) {
+            return false;
+        }
+        throw new LeBronException(ErrorType.INVALID_PROFILE_ACTION.getMessage());
+    }
+
+    /**
+     * Gets the arguments of a command without surrounding whitespace.
+     *
+     * @param input the user input
+     * @param argStart the index just after the space that follows the command word,
+     *     which is past the end of the input when the command word was typed on its own
+     * @return the arguments, or an empty string if there are none
+     */
+    private static String argumentsOf(String input, int argStart) {
+        return argStart <= input.length() ? input.substring(argStart).trim() : "";
+    }
+
+    /**
+     * Reads a task number in place, ignoring whitespace around it.
+     *
+     * @param input the user input
+     * @param start the index the number starts at, possibly after some whitespace
+     * @param end the index just past the number and any whitespace after it
+     * @return the task number (1-based)
+     * @throws LeBronException if there is no number there, or it is not positive
+     */
+    private static int parsePositiveNumber(String input, int start, int end) throws LeBronException {
+        start = skipSpaces(input, start);
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        try {
+            int taskNumber = Integer.parseInt(input, Math.min(start, end), end, 10);
+            if (taskNumber <= 0) {
+                throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
+            }
+            return taskNumber;
+        } catch (NumberFormatException e) {
+            throw new LeBronException(ErrorType.INVALID_TASK_NUMBER.getMessage());
+        }
+    }
+
+    /**
+     * Reads a page number or page size.
+     *
+     * @param text the number as typed
+     * @return the number
+     * @throws LeBronException if it is not a number above 0
+     */
+    private static int parsePageNumber(String text) throws LeBronException {
+        try {
+            int number = Integer.parseInt(text);
+            if (number <= 0) {
+                throw new LeBronException(ErrorType.INVALID_LIST_PAGE.getMessage());
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new LeBronException(ErrorType.INVALID_LIST_PAGE.getMessage());
+        }
+    }
+
+    /**
+     * Checks if there is nothing but whitespace from the given index on.
+     *
+     * @param input the user input
+     * @param from the index to start looking at, which may be past the end
+     * @return true if there is no other character from that index on
+     */
+    private static boolean isBlank(String input, int from) {
+        return skipSpaces(input, from) >= input.length();
+    }
+
+    /**
+     * Skips past any whitespace.
+     *
+     * @param input the user input
+     * @param from the index to start at
+     * @return the index of the first other character at or after the start, or at least the input length
+     */
+    private static int skipSpaces(String input, int from) {
+        int i = from;
+        while (i < input.length() && input.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
 }
@@ -0,0 +1,111 @@
+package lebron.ui;
+
+import java.util.Collections;
+import java.util.List;
+
+import lebron.task.Task;
+
+/**
+ * The result of a command, split into its message and the tasks it lists.
+ * Lets a graphical front end show the tasks in a scrolling list that only draws the visible rows,
+ * instead of one block of text with a line per task.
+ */
+public class Response {
+    private final StringBuilder text = new StringBuilder();
+    private List<Task> tasks = Collections.emptyList();
+    private int firstNumber = 1;
+    private boolean isNumbered = true;
+
+    /**
+     * Gets the message part of the response, such as a confirmation or the heading of a list.
+     *
+     * @return the message, without leading or trailing blank lines
+     */
+    public String getText() {
+        return text.toString().trim();
+    }
+
+    /**
+     * Gets the tasks the command listed, in the order they were numbered.
+     * Task number n is at index n - {@link #getFirstNumber()}, which is n - 1 unless one page was listed.
+     * The tasks are as they were when the command ran, so the task list is never read to show them.
+     *
+     * @return the listed tasks, or an empty list if the command did not list any
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Gets the number of the first listed task.
+     *
+     * @return the task number (1-based), which is above 1 when a later page of the list was shown
+     */
+    public int getFirstNumber() {
+        return firstNumber;
+    }
+
+    /**
+     * Checks if the listed tasks are numbered by their places in the list.
+     * Tasks a command changed, such as those marked by "mark 5,9,12", are shown without numbers,
+     * since their places in the list are not consecutive.
+     *
+     * @return true if the tasks should be shown with numbers
+     */
+    public boolean isNumbered() {
+        return isNumbered;
+    }
+
+    /**
+     * Checks if the command listed any tasks.
+     *
+     * @return true if there are tasks to show below the message
+     */
+    public boolean hasTasks() {
+        return !tasks.isEmpty();
+    }
+
+    /**
+     * Gets the buffer the message is written into.
+     *
+     * @return the message buffer
+     */
+    StringBuilder getTextBuffer() {
+        return text;
+    }
+
+    /**
+     * Attaches the tasks the command listed.
+     *
+     * @param tasks the listed tasks, taken while the command runs and kept without copying
+     */
+    void setTasks(List<Task> tasks) {
+        setTasks(tasks, 1);
+    }
+
+    /**
+     * Attaches the tasks the command listed, numbered from the given number on.
+     *
+     * @param tasks the listed tasks, taken while the command runs and kept without copying
+     * @param firstNumber the number of the first task (1-based)
+     */
+    void setTasks(List<Task> tasks, int firstNumber) {
+        assert tasks != null : "Tasks cannot be null";
+        assert firstNumber > 0 : "Task numbers start at 1";
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.firstNumber = firstNumber;
+        this.isNumbered = true;
+    }
+
+    /**
+     * Attaches the tasks a command changed, to be shown without numbers.
+     *
+     * @param tasks the changed tasks, kept without copying
+     */
+    void setUnnumberedTasks(List<Task> tasks) {
+        assert tasks != null : "Tasks cannot be null";
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.firstNumber = 1;
+        this.isNumbered = false;
+    }
+}
@@ -1,6 +1,10 @@
 package lebron.ui;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.List;
 
 import lebron.task.Task;
 import lebron.task.TaskList;
@@ -9,23 +13,141 @@ import lebron.util.DateTimeParser;
 /**
  * Handles all user interface interactions including input/output formatting.
  * Centralizes all user-facing messages and display logic.
+ *
+ * Messages go to the console by default, or to any Appendable given to the constructor,
+ * so each caller can collect its own response without touching System.out.
+ * A Ui writing to a {@link Response} leaves the task rows out of the text and attaches the tasks instead.
+ * Each Ui carries the {@link ListCursor} of the session it talks to, unless it is given a shared one.
  */
 public class Ui {
     private static final String NAME = "LeBron";
+    /** The line separator of the network protocol, the same whatever platform the server runs on */
+    public static final String PROTOCOL_LINE_SEPARATOR = "\n";
+
+    // Where messages are written, or null for whatever System.out is at the time
+    private final Appendable out;
+    // Collects listed tasks separately from the text, or null to print them as rows
+    private final Response response;
+    // Where "list next" carries on from in this session
+    private final ListCursor listCursor;
+    // What ends each line written to out
+    private final String lineSeparator;
+
+    /**
+     * Creates a Ui that writes to the console.
+     */
+    public Ui() {
+        this.out = null;
+        this.response = null;
+        this.listCursor = new ListCursor();
+        this.lineSeparator = System.lineSeparator();
+    }
+
+    /**
+     * Creates a Ui that writes every message to the given sink instead of the console.
+     *
+     * @param out where to write messages, such as a StringBuilder collecting a response
+     */
+    public Ui(Appendable out) {
+        this(out, new ListCursor());
+    }
+
+    /**
+     * Creates a Ui that writes every message to the given sink and pages through the list with the given cursor.
+     * Lets a session that makes a new Ui for each command keep its place in the list between commands.
+     *
+     * @param out where to write messages, such as a StringBuilder collecting a response
+     * @param listCursor the session's place in the list
+     */
+    public Ui(Appendable out, ListCursor listCursor) {
+        this(out, listCursor, System.lineSeparator());
+    }
+
+    /**
+     * Creates a Ui that writes every message to the given sink, ending lines with the given separator.
+     * Lets a network session write the protocol's line separator rather than the platform's.
+     *
+     * @param out where to write messages, such as a StringBuilder collecting a response
+     * @param listCursor the session's place in the list
+     * @param lineSeparator what to end each line with
+     */
+    public Ui(Appendable out, ListCursor listCursor, String lineSeparator) {
+        assert out != null : "Output cannot be null";
+        assert listCursor != null : "List cursor cannot be null";
+        this.out = out;
+        this.response = null;
+        this.listCursor = listCursor;
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * Creates a Ui that fills in a structured response.
+     * Messages go into the response text, and listed tasks are attached to it rather than written as rows.
+     *
+     * @param response the response to fill in
+     */
+    public Ui(Response response) {
+        this(response, new ListCursor());
+    }
+
+    /**
+     * Creates a Ui that fills in a structured response and pages through the list with the given cursor.
+     *
+     * @param response the response to fill in
+     * @param listCursor the session's place in the list
+     */
+    public Ui(Response response, ListCursor listCursor) {
+        assert response != null : "Response cannot be null";
+        assert listCursor != null : "List cursor cannot be null";
+        this.out = response.getTextBuffer();
+        this.response = response;
+        this.listCursor = listCursor;
+        this.lineSeparator = System.lineSeparator();
+    }
+
+    /**
+     * Gets where this session is paging through the list.
+     *
+     * @return the list cursor
+     */
+    public ListCursor getListCursor() {
+        return listCursor;
+    }
+
+    /**
+     * Formats one row of a task listing.
+     *
+     * @param number the task's number in the listing (1-based)
+     * @param task the task to show
+     * @return the row, such as "1.[T][ ] read book"
+     */
+    public static String formatTaskRow(int number, Task task) {
+        return number + "." + formatTask(task);
+    }
+
+    /**
+     * Formats one task without a number, as shown for the tasks a command changed.
+     *
+     * @param task the task to show
+     * @return the row, such as "[T][X] read book"
+     */
+    public static String formatTask(Task task) {
+        return task.getTypeIcon() + task.getStatusIcon() + " " + task.getFullDescription();
+    }
 
     /**
      * Shows the welcome message when the program starts.
      */
     public void showWelcome() {
-        System.out.println("Hello! I'm " + NAME);
-        System.out.println("What can I do for you?");
+        println("Hello! I'm " + NAME);
+        println("What can I do for you?");
     }
 
     /**
      * Shows the goodbye message when the program exits.
      */
     public void showGoodbye() {
-        System.out.println("Bye. Hope to see you again soon!");
+        println("Bye. Hope to see you again soon!");
     }
 
     /**
@@ -35,7 +157,7 @@ public class Ui {
      */
     public void showError(String message) {
         if (!message.isEmpty()) {
-            System.out.println(message);
+            println(message);
         }
     }
 
@@ -46,14 +168,54 @@ public class Ui {
      */
     public void showTaskList(TaskList taskList) {
         if (taskList.isEmpty()) {
-            System.out.println("No tasks found.");
+            println("No tasks found.");
         } else {
-            System.out.println("Here are the tasks in your list:");
-            for (int i = 0; i < taskList.size(); i++) {
-                Task task = taskList.getTask(i);
-                System.out.println((i + 1) + "." + task.getTypeIcon() + task.getStatusIcon() + " " + task.getFullDescription());
+            println("Here are the tasks in your list:");
+            showTaskRows(taskList);
+        }
+    }
+
+    /**
+     * Shows one page of the task list, numbered by the tasks' places in the whole list.
+     * Costs as much as the page shown, however long the list is.
+     *
+     * @param tasks the tasks on the page
+     * @param firstNumber the number of the first task on the page (1-based)
+     * @param page the page number (1-based)
+     * @param pageCount the number of pages in the list
+     * @param taskCount the number of tasks in the list
+     */
+    public void showTaskPage(List<Task> tasks, int firstNumber, int page, int pageCount, int taskCount) {
+        assert !tasks.isEmpty() : "A page must hold at least one task";
+        showFormattedMessage("Here are tasks %d-%d of %d in your list (page %d of %d):",
+                firstNumber, firstNumber + tasks.size() - 1, taskCount, page, pageCount);
+        if (response != null) {
+            response.setTasks(tasks, firstNumber);
+        } else {
+            for (int i = 0; i < tasks.size(); i++) {
+                println(formatTaskRow(firstNumber + i, tasks.get(i)));
             }
         }
+        if (page < pageCount) {
+            println("Use list next to see more.");
+        }
+    }
+
+    /**
+     * Shows a message when a page past the end of the list is asked for.
+     *
+     * @param page the page asked for
+     * @param pageCount the number of pages in the list
+     */
+    public void showPageOutOfRange(int page, int pageCount) {
+        showFormattedMessage("There is no page %d. Your list has %d page(s).", page, pageCount);
+    }
+
+    /**
+     * Shows a message when "list next" is used after the last page.
+     */
+    public void showNoMorePages() {
+        println("No more tasks to show. Use list page 1 to start over.");
     }
 
     /**
@@ -74,8 +236,8 @@ public class Ui {
      * @param task the task that was marked
      */
     public void showTaskMarked(Task task) {
-        System.out.println("Nice! I've marked this task as done:");
-        System.out.println(task.getStatusIcon() + " " + task.getDescription());
+        println("Nice! I've marked this task as done:");
+        println(task.getStatusIcon() + " " + task.getDescription());
     }
 
     /**
@@ -84,8 +246,8 @@ public class Ui {
      * @param task the task that was unmarked
      */
     public void showTaskUnmarked(Task task) {
-        System.out.println("OK, I've marked this task as not done yet:");
-        System.out.println(task.getStatusIcon() + " " + task.getDescription());
+        println("OK, I've marked this task as not done yet:");
+        println(task.getStatusIcon() + " " + task.getDescription());
     }
 
     /**
@@ -100,6 +262,53 @@ public class Ui {
                            "Now you have %d tasks in the list.", remainingCount);
     }
 
+    /**
+     * Shows confirmation message when one or more tasks are marked as done.
+     * A single task is shown the same way as {@link #showTaskMarked(Task)}.
+     *
+     * @param tasks the tasks that were marked
+     */
+    public void showTasksMarked(List<Task> tasks) {
+        if (tasks.size() == 1) {
+            showTaskMarked(tasks.get(0));
+            return;
+        }
+        showFormattedMessage("Nice! I've marked these %d tasks as done:", tasks.size());
+        showChangedTasks(tasks);
+    }
+
+    /**
+     * Shows confirmation message when one or more tasks are unmarked.
+     * A single task is shown the same way as {@link #showTaskUnmarked(Task)}.
+     *
+     * @param tasks the tasks that were unmarked
+     */
+    public void showTasksUnmarked(List<Task> tasks) {
+        if (tasks.size() == 1) {
+            showTaskUnmarked(tasks.get(0));
+            return;
+        }
+        showFormattedMessage("OK, I've marked these %d tasks as not done yet:", tasks.size());
+        showChangedTasks(tasks);
+    }
+
+    /**
+     * Shows confirmation message when one or more tasks are deleted.
+     * A single task is shown the same way as {@link #showTaskDeleted(Task, int)}.
+     *
+     * @param tasks the tasks that were deleted
+     * @param remainingCount the number of tasks remaining after deletion
+     */
+    public void showTasksDeleted(List<Task> tasks, int remainingCount) {
+        if (tasks.size() == 1) {
+            showTaskDeleted(tasks.get(0), remainingCount);
+            return;
+        }
+        showFormattedMessage("Noted. I've removed these %d tasks:", tasks.size());
+        showChangedTasks(tasks);
+        showFormattedMessage("Now you have %d tasks in the list.", remainingCount);
+    }
+
     /**
      * Shows tasks that occur on a specific date.
      *
@@ -113,25 +322,91 @@ public class Ui {
             showFormattedMessage("No tasks found on %s.", dateStr);
         } else {
             showFormattedMessage("Tasks on %s:", dateStr);
-            for (int i = 0; i < taskList.size(); i++) {
-                Task task = taskList.getTask(i);
-                System.out.println((i + 1) + "." + task.getTypeIcon() + task.getStatusIcon() + " " + task.getFullDescription());
-            }
+            showTaskRows(taskList);
         }
     }
 
+    /**
+     * Shows confirmation that a transaction has started.
+     */
+    public void showTransactionBegun() {
+        println("OK, I'll hold on to your changes until you commit or roll back.");
+    }
+
+    /**
+     * Shows confirmation that a transaction's changes were kept and saved.
+     *
+     * @param changeCount the number of changes in the transaction
+     */
+    public void showTransactionCommitted(int changeCount) {
+        showFormattedMessage("Committed %d change(s).", changeCount);
+    }
+
+    /**
+     * Shows confirmation that a transaction's changes were undone.
+     *
+     * @param changeCount the number of changes undone
+     */
+    public void showTransactionRolledBack(int changeCount) {
+        showFormattedMessage("Rolled back %d change(s).", changeCount);
+    }
+
     /**
      * Shows a message when tasks cannot be loaded from file.
      */
     public void showLoadError() {
-        System.out.println("Could not load saved tasks.");
+        println("Could not load saved tasks.");
+    }
+
+    /**
+     * Shows how far loading the saved tasks has got, for commands typed while it is still going.
+     *
+     * @param percent how much has been loaded, from 0 to 100
+     */
+    public void showLoadingStatus(int percent) {
+        showFormattedMessage("Still loading your saved tasks... %d%%", percent);
+    }
+
+    /**
+     * Shows that the saved tasks have finished loading.
+     *
+     * @param taskCount the number of tasks in the list
+     */
+    public void showLoadedStatus(int taskCount) {
+        showFormattedMessage("All your saved tasks are loaded. You have %d tasks in the list.", taskCount);
+    }
+
+    /**
+     * Shows how long commands have been taking.
+     *
+     * @param stats the statistics table, one row per line
+     */
+    public void showStats(String stats) {
+        println("Here is how long commands have been taking:");
+        println(stats);
+    }
+
+    /**
+     * Shows confirmation that a profile is being recorded.
+     */
+    public void showProfileStarted() {
+        println("Recording a profile. Use profile stop to save it.");
+    }
+
+    /**
+     * Shows where a recorded profile was saved.
+     *
+     * @param file the saved recording
+     */
+    public void showProfileSaved(Path file) {
+        showFormattedMessage("Saved the profile to %s. Open it in JDK Mission Control or with: jfr print", file);
     }
 
     /**
      * Shows a message when tasks cannot be saved to file.
      */
     public void showSaveError() {
-        System.out.println("Could not save tasks to file.");
+        println("Could not save tasks to file.");
     }
 
     /**
@@ -144,11 +419,8 @@ public class Ui {
         if (taskList.isEmpty()) {
             showFormattedMessage("No matching tasks found for keyword: %s", keyword);
         } else {
-            System.out.println("Here are the matching tasks in your list:");
-            for (int i = 0; i < taskList.size(); i++) {
-                Task task = taskList.getTask(i);
-                System.out.println((i + 1) + "." + task.getTypeIcon() + task.getStatusIcon() + " " + task.getFullDescription());
-            }
+            println("Here are the matching tasks in your list:");
+            showTaskRows(taskList);
         }
     }
     
@@ -159,6 +431,55 @@ public class Ui {
      * @param args the arguments to format
      */
     public void showFormattedMessage(String format, Object... args) {
-        System.out.printf(format + "%n", args);
+        println(String.format(format, args));
+    }
+
+    /**
+     * Shows the tasks a command changed, one per line without numbers, or attaches them to the response.
+     *
+     * @param tasks the changed tasks
+     */
+    private void showChangedTasks(List<Task> tasks) {
+        if (response != null) {
+            response.setUnnumberedTasks(tasks);
+            return;
+        }
+        for (Task task : tasks) {
+            println(formatTask(task));
+        }
+    }
+
+    /**
+     * Shows every task in the list as a numbered row, or attaches them to the response.
+     * The response gets the tasks as they are while the command runs, so showing it later never reads
+     * the list, which may have changed or been replaced by then.
+     *
+     * @param taskList the tasks to show
+     */
+    private void showTaskRows(TaskList taskList) {
+        if (response != null) {
+            response.setTasks(taskList.getTasks());
+            return;
+        }
+        for (int i = 0; i < taskList.size(); i++) {
+            println(formatTaskRow(i + 1, taskList.getTask(i)));
+        }
+    }
+
+    /**
+     * Writes one line of output.
+     *
+     * @param line the line to write, without line separator
+     */
+    private void println(String line) {
+        if (out == null) {
+            System.out.println(line);
+            return;
+        }
+        try {
+            out.append(line).append(lineSeparator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
@@ -2,6 +2,8 @@ package lebron.util;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
@@ -10,6 +12,9 @@ import lebron.common.LeBronException;
 /**
  * Handles parsing and formatting of dates and times for LeBron.
  * Understands various input formats and converts them to a standard display format.
+ * The fixed formats people actually type, and the format tasks are stored in, are read digit by digit
+ * without copying or exceptions. Anything unusual goes through the formatters, which decide what it means
+ * and word the errors.
  */
 public class DateTimeParser {
 
@@ -25,6 +30,12 @@ public class DateTimeParser {
     // Date only format: yyyy-mm-dd (for ON command)
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final int DATE_LENGTH = "yyyy-mm-dd".length();
+    private static final int DATE_TIME_LENGTH = "yyyy-mm-dd HHmm".length();
+    private static final int STORED_MINUTES_LENGTH = "yyyy-mm-ddTHH:mm".length();
+    private static final int STORED_SECONDS_LENGTH = "yyyy-mm-ddTHH:mm:ss".length();
+    private static final int DAY_MONTH_YEAR_LENGTH = "dd mm yyyy".length();
+
     /**
      * Parses a date/time string into a LocalDateTime object.
      * Accepts format: yyyy-mm-dd HHmm (e.g., "2019-12-02 1800")
@@ -34,12 +45,43 @@ public class DateTimeParser {
      * @throws LeBronException if the format is invalid
      */
     public static LocalDateTime parseDateTime(String dateTimeString) throws LeBronException {
-        if (dateTimeString == null || dateTimeString.trim().isEmpty()) {
+        if (dateTimeString == null) {
+            throw new LeBronException("Date and time cannot be empty");
+        }
+        return parseDateTime(dateTimeString, 0, dateTimeString.length());
+    }
+
+    /**
+     * Parses the date/time in part of a piece of text, ignoring whitespace around it.
+     * Accepts format: yyyy-mm-dd HHmm (e.g., "2019-12-02 1800")
+     *
+     * @param text the text holding the date/time
+     * @param start the index the date/time starts at
+     * @param end the index just after the date/time
+     * @return the parsed LocalDateTime
+     * @throws LeBronException if the format is invalid
+     */
+    public static LocalDateTime parseDateTime(CharSequence text, int start, int end) throws LeBronException {
+        int from = start;
+        int to = end;
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        if (from == to) {
             throw new LeBronException("Date and time cannot be empty");
         }
 
+        if (to - from == DATE_TIME_LENGTH && text.charAt(from + 10) == ' ') {
+            LocalDateTime dateTime = scanDateTime(text, from, 11, 13);
+            if (dateTime != null) {
+                return dateTime;
+            }
+        }
         try {
-            return LocalDateTime.parse(dateTimeString.trim(), INPUT_FORMAT);
+            return LocalDateTime.parse(text.subSequence(from, to), INPUT_FORMAT);
         } catch (DateTimeParseException e) {
             throw new LeBronException("Invalid date format. Use yyyy-mm-dd HHmm (e.g., 2019-12-02 1800)");
         }
@@ -76,6 +118,21 @@ public class DateTimeParser {
      * @throws LeBronException if parsing fails
      */
     public static LocalDateTime parseFromStorage(String storedDateTime) throws LeBronException {
+        // Stored times are always whole minutes unless the file was edited by hand
+        int length = storedDateTime.length();
+        if ((length == STORED_MINUTES_LENGTH || length == STORED_SECONDS_LENGTH)
+                && storedDateTime.charAt(10) == 'T' && storedDateTime.charAt(13) == ':') {
+            LocalDateTime dateTime = scanDateTime(storedDateTime, 0, 11, 14);
+            if (dateTime != null && length == STORED_MINUTES_LENGTH) {
+                return dateTime;
+            }
+            if (dateTime != null && storedDateTime.charAt(16) == ':') {
+                int second = parseDigits(storedDateTime, 17, 2);
+                if (second >= 0 && second <= 59) {
+                    return dateTime.withSecond(second);
+                }
+            }
+        }
         try {
             return LocalDateTime.parse(storedDateTime, STORAGE_FORMAT);
         } catch (DateTimeParseException e) {
@@ -96,8 +153,18 @@ public class DateTimeParser {
             throw new LeBronException("Date cannot be empty");
         }
 
+        String trimmed = dateString.trim();
+        if (trimmed.length() == DATE_LENGTH && trimmed.charAt(4) == '-' && trimmed.charAt(7) == '-') {
+            int year = parseDigits(trimmed, 0, 4);
+            int month = parseDigits(trimmed, 5, 2);
+            int day = parseDigits(trimmed, 8, 2);
+            // Year 0 is not a valid year of era, so leave it to the formatter to reject
+            if (year >= 1 && isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
         try {
-            return LocalDate.parse(dateString.trim(), DATE_FORMAT);
+            return LocalDate.parse(trimmed, DATE_FORMAT);
         } catch (DateTimeParseException e) {
             throw new LeBronException("Invalid date format. Use yyyy-mm-dd (e.g., 2019-12-02)");
         }
@@ -116,7 +183,17 @@ public class DateTimeParser {
             throw new LeBronException("Date cannot be empty");
         }
 
-        String[] parts = dateString.trim().split("\\s+");
+        String trimmed = dateString.trim();
+        if (trimmed.length() == DAY_MONTH_YEAR_LENGTH && trimmed.charAt(2) == ' ' && trimmed.charAt(5) == ' ') {
+            int day = parseDigits(trimmed, 0, 2);
+            int month = parseDigits(trimmed, 3, 2);
+            int year = parseDigits(trimmed, 6, 4);
+            if (year >= 0 && isValidDate(year, month, day)) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+
+        String[] parts = trimmed.split("\\s+");
         if (parts.length != 3) {
             throw new LeBronException("Invalid date format. Use DD MM YYYY (e.g., 12 02 2022)");
         }
@@ -133,4 +210,62 @@ public class DateTimeParser {
             throw new LeBronException("Invalid date. Please check the day, month, and year values.");
         }
     }
+
+    /**
+     * Reads a run of decimal digits as a number.
+     *
+     * @param text the text holding the digits
+     * @param start the index of the first digit
+     * @param count the number of digits, at most 9
+     * @return the number, or -1 if any of the characters is not a digit
+     */
+    public static int parseDigits(CharSequence text, int start, int count) {
+        assert count > 0 && count <= 9 : "Count must be between 1 and 9";
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Reads a date followed by a time written as hours and minutes.
+     * The date must look like yyyy-mm-dd, while the caller checks what separates it from the time.
+     *
+     * @param text the text holding the date and time
+     * @param start the index the date starts at
+     * @param hourOffset where the hours start, counted from the start of the date
+     * @param minuteOffset where the minutes start, counted from the start of the date
+     * @return the date and time, or null if the text is not a valid date and time in this layout
+     */
+    private static LocalDateTime scanDateTime(CharSequence text, int start, int hourOffset, int minuteOffset) {
+        if (text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return null;
+        }
+        int year = parseDigits(text, start, 4);
+        int month = parseDigits(text, start + 5, 2);
+        int day = parseDigits(text, start + 8, 2);
+        int hour = parseDigits(text, start + hourOffset, 2);
+        int minute = parseDigits(text, start + minuteOffset, 2);
+        if (year < 1 || !isValidDate(year, month, day) || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        return LocalDateTime.of(year, month, day, hour, minute);
+    }
+
+    /**
+     * Checks if a day exists in the given month and year.
+     *
+     * @param year the year
+     * @param month the month, from 1 to 12
+     * @param day the day of the month
+     * @return true if the date exists
+     */
+    private static boolean isValidDate(int year, int month, int day) {
+        return month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(year));
+    }
 }
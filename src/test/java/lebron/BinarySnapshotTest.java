@@ -0,0 +1,160 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.storage.SnapshotFormat;
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.ToDo;
+
+public class BinarySnapshotTest {
+    @TempDir
+    Path tempDir;
+
+    private ArrayList<Task> sampleTasks() throws LeBronException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        Deadline deadline = new Deadline("submit report", "2024-12-25 1800");
+        deadline.markAsDone();
+        tasks.add(deadline);
+        tasks.add(new Event("caf\u00e9 meeting", "2024-12-25 1400", "2024-12-26 1600"));
+        return tasks;
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException, LeBronException {
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.BINARY);
+        fileManager.saveTasks(sampleTasks());
+        assertTrue(Files.exists(tempDir.resolve("lebron.bin")));
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString(), SnapshotFormat.BINARY).loadTasks();
+        assertEquals(3, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertFalse(loaded.get(0).isDone());
+        assertTrue(loaded.get(1).isDone());
+        assertEquals(LocalDateTime.of(2024, 12, 25, 18, 0), ((Deadline) loaded.get(1)).getBy());
+        Event event = (Event) loaded.get(2);
+        assertEquals("caf\u00e9 meeting", event.getDescription());
+        assertEquals(LocalDateTime.of(2024, 12, 25, 14, 0), event.getFrom());
+        assertEquals(LocalDateTime.of(2024, 12, 26, 16, 0), event.getTo());
+    }
+
+    @Test
+    public void testMigrationFromText() throws IOException, LeBronException {
+        new FileManager(tempDir.toString(), SnapshotFormat.TEXT).saveTasks(sampleTasks());
+
+        ArrayList<Task> migrated = new FileManager(tempDir.toString(), SnapshotFormat.BINARY).loadTasks();
+        assertEquals(3, migrated.size());
+        assertTrue(Files.exists(tempDir.resolve("lebron.bin")));
+        assertFalse(Files.exists(tempDir.resolve("lebron.txt")));
+        assertTrue(Files.exists(tempDir.resolve("lebron.txt.bak")));
+
+        ArrayList<Task> reloaded = new FileManager(tempDir.toString(), SnapshotFormat.BINARY).loadTasks();
+        assertEquals(3, reloaded.size());
+        assertEquals("submit report", reloaded.get(1).getDescription());
+    }
+
+    @Test
+    public void testJournalReplayedOverBinarySnapshot() throws IOException, LeBronException {
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.BINARY);
+        fileManager.saveTasks(sampleTasks());
+        fileManager.appendTaskAdded(new ToDo("buy groceries"));
+        fileManager.appendTaskDeleted(0);
+        assertTrue(fileManager.compact());
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString(), SnapshotFormat.BINARY).loadTasks();
+        assertEquals(3, loaded.size());
+        assertEquals("buy groceries", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void testCorruptedBinaryFile() throws IOException {
+        Files.write(tempDir.resolve("lebron.bin"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.BINARY);
+        assertThrows(IOException.class, fileManager::loadTasks);
+    }
+
+    @Test
+    public void testInvalidTypeSkipsOnlyThatTask() throws IOException, LeBronException {
+        new FileManager(tempDir.toString(), SnapshotFormat.BINARY).saveTasks(sampleTasks());
+        Path file = tempDir.resolve("lebron.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        // The type column starts after the magic number, version and count; the deadline is the second task
+        bytes[3 * Integer.BYTES + 1] = 'X';
+        Files.write(file, bytes);
+
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.BINARY);
+        ArrayList<Task> loaded = fileManager.loadTasks();
+        assertEquals(1, fileManager.getCorruptedLines());
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        Event event = (Event) loaded.get(1);
+        assertEquals(LocalDateTime.of(2024, 12, 25, 14, 0), event.getFrom());
+        assertEquals(LocalDateTime.of(2024, 12, 26, 16, 0), event.getTo());
+    }
+
+    @Test
+    public void testInvalidTypesOfDifferentWidthsSkipOnlyThoseTasks() throws IOException, LeBronException {
+        ArrayList<Task> tasks = sampleTasks();
+        tasks.add(new Deadline("pay rent", "2025-01-01 0900"));
+        new FileManager(tempDir.toString(), SnapshotFormat.BINARY).saveTasks(tasks);
+        Path file = tempDir.resolve("lebron.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        // Corrupt the deadline's and the event's types, which had one and two dates
+        bytes[3 * Integer.BYTES + 1] = 'X';
+        bytes[3 * Integer.BYTES + 2] = 'Y';
+        Files.write(file, bytes);
+
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.BINARY);
+        ArrayList<Task> loaded = fileManager.loadTasks();
+        assertEquals(2, fileManager.getCorruptedLines());
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 9, 0), ((Deadline) loaded.get(1)).getBy());
+    }
+
+    @Test
+    public void testReadsVersionOneFile() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0x4C42524E);
+            out.writeInt(1);
+            out.writeInt(2);
+            out.writeByte('T');
+            out.writeByte('D');
+            out.writeByte(0);
+            out.writeByte(1);
+            out.writeInt(1);
+            out.writeLong(LocalDateTime.of(2024, 12, 25, 18, 0).toEpochSecond(ZoneOffset.UTC));
+            for (String description : new String[] {"read book", "submit report"}) {
+                out.writeInt(description.length());
+                out.writeBytes(description);
+            }
+        }
+        Files.write(tempDir.resolve("lebron.bin"), bytes.toByteArray());
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString(), SnapshotFormat.BINARY).loadTasks();
+        assertEquals(2, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(1).isDone());
+        assertEquals(LocalDateTime.of(2024, 12, 25, 18, 0), ((Deadline) loaded.get(1)).getBy());
+    }
+}
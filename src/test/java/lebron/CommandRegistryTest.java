@@ -0,0 +1,80 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import lebron.command.AddTodoCommand;
+import lebron.command.Command;
+import lebron.command.CommandRegistry;
+import lebron.command.DeleteCommand;
+import lebron.command.ExitCommand;
+import lebron.command.ListCommand;
+import lebron.common.CommandType;
+import lebron.common.KeywordTrie;
+import lebron.common.LeBronException;
+
+public class CommandRegistryTest {
+
+    @Test
+    public void testBuiltInCommands() throws LeBronException {
+        CommandRegistry registry = new CommandRegistry();
+        assertTrue(registry.parse("bye") instanceof ExitCommand);
+        assertTrue(registry.parse("list") instanceof ListCommand);
+        assertTrue(registry.parse("delete 2") instanceof DeleteCommand);
+        assertTrue(registry.parse("todo read book") instanceof AddTodoCommand);
+    }
+
+    @Test
+    public void testInvalidCommands() {
+        CommandRegistry registry = new CommandRegistry();
+        LeBronException unknown = assertThrows(LeBronException.class, () -> registry.parse("dance"));
+        assertEquals("Sorry! I don't know what that means :(", unknown.getMessage());
+        assertThrows(LeBronException.class, () -> registry.parse("bye bye"));
+        assertThrows(LeBronException.class, () -> registry.parse("todo"));
+        assertThrows(LeBronException.class, () -> registry.parse("list "));
+        LeBronException badNumber = assertThrows(LeBronException.class, () -> registry.parse("mark "));
+        assertEquals("Invalid task number.", badNumber.getMessage());
+    }
+
+    @Test
+    public void testAlias() throws LeBronException {
+        CommandType.registerAlias("rm", CommandType.DELETE);
+        CommandRegistry registry = new CommandRegistry();
+        assertEquals(CommandType.DELETE, CommandType.parseCommand("rm 3"));
+        assertEquals(CommandType.UNKNOWN, CommandType.parseCommand("rm"));
+        assertTrue(registry.parse("rm 3") instanceof DeleteCommand);
+        assertThrows(IllegalArgumentException.class, () -> CommandType.registerAlias("r m", CommandType.DELETE));
+        assertThrows(IllegalArgumentException.class, () -> CommandType.registerAlias("zz", CommandType.UNKNOWN));
+    }
+
+    @Test
+    public void testCustomCommand() throws LeBronException {
+        CommandRegistry registry = new CommandRegistry();
+        Command quit = new ExitCommand();
+        registry.register("quit", (input, argStart) -> quit);
+        assertEquals(quit, registry.parse("quit"));
+        assertEquals(quit, registry.parse("quit now"));
+        assertThrows(LeBronException.class, () -> new CommandRegistry().parse("quit"));
+    }
+
+    @Test
+    public void testKeywordTrie() {
+        KeywordTrie<String> trie = new KeywordTrie<>();
+        trie.put("on", "a");
+        trie.put("one", "b");
+        trie.put("only", "c");
+        assertEquals("a", trie.get("on"));
+        assertEquals("b", trie.get("xx one xx", 3, 6));
+        assertEquals("c", trie.get("only"));
+        assertNull(trie.get("o"));
+        assertNull(trie.get("onl"));
+        assertNull(trie.get("ones"));
+        trie.put("on", "d");
+        assertEquals("d", trie.get("on"));
+        assertEquals("b", trie.get("one"));
+    }
+}
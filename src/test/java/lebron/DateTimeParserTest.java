@@ -6,6 +6,8 @@ import lebron.util.DateTimeParser;
 import lebron.common.LeBronException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 public class DateTimeParserTest {
 
@@ -132,4 +134,59 @@ public class DateTimeParserTest {
             DateTimeParser.parseDate(null);
         });
     }
+
+    @Test
+    public void testParseDateTimeMatchesFormatter() {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+        String[] inputs = {
+            "2024-02-29 0000", "2023-02-29 1200", "2024-02-30 1200", "2024-04-31 2359",
+            "2024-12-25 2400", "2024-12-25 2360", "2024-13-01 1200", "2024-00-10 1200",
+            "0000-01-01 0000", "0001-01-01 0000", "2024-1-25 1830x", "2024-12-25T1830",
+        };
+        for (String input : inputs) {
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(input, format);
+            } catch (DateTimeParseException e) {
+                expected = null;
+            }
+            LocalDateTime actual;
+            try {
+                actual = DateTimeParser.parseDateTime(input);
+            } catch (LeBronException e) {
+                assertEquals("Invalid date format. Use yyyy-mm-dd HHmm (e.g., 2019-12-02 1800)", e.getMessage());
+                actual = null;
+            }
+            assertEquals(expected, actual, input);
+        }
+    }
+
+    @Test
+    public void testParseDateTimeRange() throws LeBronException {
+        String text = "deadline x /by 2024-12-25 1830 ";
+        assertEquals(LocalDateTime.of(2024, 12, 25, 18, 30), DateTimeParser.parseDateTime(text, 14, text.length()));
+    }
+
+    @Test
+    public void testParseFromStorageWithSeconds() throws LeBronException {
+        assertEquals(LocalDateTime.of(2024, 12, 25, 18, 30, 15),
+                DateTimeParser.parseFromStorage("2024-12-25T18:30:15"));
+        assertEquals(LocalDateTime.of(2024, 12, 25, 18, 30, 15, 500_000_000),
+                DateTimeParser.parseFromStorage("2024-12-25T18:30:15.5"));
+        assertThrows(LeBronException.class, () -> DateTimeParser.parseFromStorage("2024-02-30T18:30"));
+    }
+
+    @Test
+    public void testParseDateFromDdMmYyyy() throws LeBronException {
+        assertEquals(LocalDate.of(2022, 2, 12), DateTimeParser.parseDateFromDDMMYYYY("12 02 2022"));
+        assertEquals(LocalDate.of(2022, 2, 1), DateTimeParser.parseDateFromDDMMYYYY(" 1  2 2022 "));
+        LeBronException invalid = assertThrows(LeBronException.class, () -> {
+            DateTimeParser.parseDateFromDDMMYYYY("30 02 2022");
+        });
+        assertEquals("Invalid date. Please check the day, month, and year values.", invalid.getMessage());
+        LeBronException format = assertThrows(LeBronException.class, () -> {
+            DateTimeParser.parseDateFromDDMMYYYY("12 02");
+        });
+        assertEquals("Invalid date format. Use DD MM YYYY (e.g., 12 02 2022)", format.getMessage());
+    }
 }
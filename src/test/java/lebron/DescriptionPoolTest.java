@@ -0,0 +1,54 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import lebron.task.DescriptionPool;
+
+public class DescriptionPoolTest {
+    @Test
+    public void testEqualDescriptionsAreShared() {
+        DescriptionPool pool = new DescriptionPool(64);
+        String first = pool.canonicalize(new String("read book"));
+        String second = pool.canonicalize(new String("read book"));
+        assertSame(first, second);
+        assertEquals("read book", second);
+        assertEquals(2, pool.getLookupCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0.5, pool.getHitRate(), 1e-9);
+        // A 9-character Latin-1 string: 40 bytes of headers plus 9 bytes of text padded to 16
+        assertEquals(56, pool.getBytesSaved());
+    }
+
+    @Test
+    public void testSameInstanceSavesNothing() {
+        DescriptionPool pool = new DescriptionPool(64);
+        String description = "standup";
+        pool.canonicalize(description);
+        pool.canonicalize(description);
+        assertEquals(1, pool.getHitCount());
+        assertEquals(0, pool.getBytesSaved());
+    }
+
+    @Test
+    public void testPoolStaysBounded() {
+        DescriptionPool pool = new DescriptionPool(4);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("task " + i, pool.canonicalize("task " + i));
+        }
+        assertEquals(1000, pool.getLookupCount());
+        assertEquals(0, pool.getHitCount());
+
+        // The newest description holds its slot until something else lands there
+        String pooled = pool.canonicalize("task 999");
+        assertSame(pooled, pool.canonicalize(new String("task 999")));
+    }
+
+    @Test
+    public void testStatsLine() {
+        DescriptionPool pool = new DescriptionPool(16);
+        assertEquals("Description pool: 0 lookups, 0.0% hits, 0 KB saved", pool.formatStats());
+    }
+}
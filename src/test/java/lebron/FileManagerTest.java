@@ -0,0 +1,225 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.storage.SnapshotFormat;
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.ToDo;
+
+public class FileManagerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testLoadWithoutFiles() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        assertTrue(fileManager.loadTasks().isEmpty());
+    }
+
+    @Test
+    public void testJournalReplayedOverSnapshot() throws IOException, LeBronException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        ArrayList<Task> snapshot = new ArrayList<>();
+        snapshot.add(new ToDo("read book"));
+        snapshot.add(new ToDo("buy groceries"));
+        fileManager.saveTasks(snapshot);
+
+        fileManager.appendTaskAdded(new Deadline("submit report", "2024-12-25 1800"));
+        fileManager.appendTaskAdded(new Event("meeting", "2024-12-25 1400", "2024-12-25 1600"));
+        fileManager.appendTaskMarked(0);
+        fileManager.appendTaskDeleted(1);
+        fileManager.appendTaskMarked(2);
+        fileManager.appendTaskUnmarked(2);
+        assertEquals(6, fileManager.getJournalSize());
+        fileManager.close();
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(3, loaded.size());
+        assertEquals("read book", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("submit report", loaded.get(1).getDescription());
+        assertEquals("meeting", loaded.get(2).getDescription());
+        assertFalse(loaded.get(2).isDone());
+    }
+
+    @Test
+    public void testSaveClearsJournal() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.appendTaskAdded(new ToDo("read book"));
+        fileManager.appendTaskMarked(0);
+
+        ArrayList<Task> tasks = fileManager.loadTasks();
+        fileManager.saveTasks(tasks);
+        assertEquals(0, fileManager.getJournalSize());
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void testCorruptedJournalRecordSkipped() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.appendTaskAdded(new ToDo("read book"));
+        fileManager.appendTaskDeleted(5);
+        fileManager.appendTaskAdded(new ToDo("buy groceries"));
+        fileManager.close();
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(2, loaded.size());
+    }
+
+    @Test
+    public void testAsyncWritesBecomeDurable() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.startAsyncWrites(60_000);
+        for (int i = 0; i < 100; i++) {
+            fileManager.appendTaskAdded(new ToDo("task " + i));
+        }
+        fileManager.appendTaskMarked(42);
+        fileManager.awaitDurable();
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(100, loaded.size());
+        assertTrue(loaded.get(42).isDone());
+        fileManager.close();
+    }
+
+    @Test
+    public void testCloseWritesQueuedChanges() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.startAsyncWrites(60_000);
+        fileManager.appendTaskAdded(new ToDo("read book"));
+        fileManager.close();
+
+        assertEquals(1, new FileManager(tempDir.toString()).loadTasks().size());
+    }
+
+    @Test
+    public void testCompactionWritesQueuedChangesFirst() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.startAsyncWrites(60_000);
+        fileManager.appendTaskAdded(new ToDo("read book"));
+        fileManager.appendTaskAdded(new ToDo("buy groceries"));
+        assertTrue(fileManager.compact());
+        fileManager.appendTaskDeleted(0);
+        fileManager.close();
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(1, loaded.size());
+        assertEquals("buy groceries", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testBulkChangesReplayed() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        for (int i = 0; i < 8; i++) {
+            fileManager.appendTaskAdded(new ToDo("task " + i));
+        }
+        BitSet marked = new BitSet();
+        marked.set(0, 4);
+        marked.set(6);
+        fileManager.appendTasksMarked(marked);
+        BitSet deleted = new BitSet();
+        deleted.set(1, 3);
+        deleted.set(5);
+        fileManager.appendTasksDeleted(deleted);
+        assertEquals(10, fileManager.getJournalSize());
+        fileManager.close();
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        String[] expected = {"task 0", "task 3", "task 4", "task 6", "task 7"};
+        assertEquals(expected.length, loaded.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], loaded.get(i).getDescription());
+        }
+        assertTrue(loaded.get(0).isDone());
+        assertTrue(loaded.get(1).isDone());
+        assertFalse(loaded.get(2).isDone());
+        assertTrue(loaded.get(3).isDone());
+    }
+
+    @Test
+    public void testLargeTextSnapshotLoadedInParallel() throws Exception {
+        StringBuilder text = new StringBuilder();
+        int lineCount = 100000;
+        for (int i = 1; i <= lineCount; i++) {
+            if (i % 25000 == 0) {
+                text.append("X|0|broken line ").append(i);
+            } else if (i == 50001) {
+                text.append("   ");
+            } else {
+                text.append("T|").append(i % 2).append("|task ").append(i);
+            }
+            text.append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Files.writeString(tempDir.resolve(SnapshotFormat.TEXT.getFileName()), text.toString(),
+                StandardCharsets.UTF_8);
+
+        FileManager fileManager = new FileManager(tempDir.toString(), SnapshotFormat.TEXT);
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console));
+        ArrayList<Task> loaded;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            loaded = pool.submit(fileManager::loadTasks).get();
+        } finally {
+            pool.shutdown();
+            System.setOut(originalOut);
+        }
+
+        assertEquals(lineCount - 5, loaded.size());
+        assertEquals("task 1", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("task 25001", loaded.get(24999).getDescription());
+        assertEquals("task 99999", loaded.get(loaded.size() - 1).getDescription());
+        String[] warnings = console.toString().split("\\R");
+        assertEquals(5, warnings.length);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(warnings[i].startsWith("Warning: Line " + (i + 1) * 25000 + " has invalid task type"));
+        }
+        assertEquals("Warning: 4 corrupted task(s) were skipped while loading.", warnings[4]);
+        assertEquals(4, fileManager.getCorruptedLines());
+    }
+
+    @Test
+    public void testTextSnapshotReadAsUtf8WithAnyLineEnding() throws IOException {
+        String text = "T|0|caf\u00e9 \u2615\rX|0|broken\r\nD|1|submit report|2024-12-25T18:00\n";
+        Files.writeString(tempDir.resolve(SnapshotFormat.TEXT.getFileName()), text, StandardCharsets.UTF_8);
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console));
+        ArrayList<Task> loaded;
+        try {
+            loaded = new FileManager(tempDir.toString(), SnapshotFormat.TEXT).loadTasks();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        assertEquals(2, loaded.size());
+        assertEquals("caf\u00e9 \u2615", loaded.get(0).getDescription());
+        assertEquals("submit report", loaded.get(1).getDescription());
+        assertTrue(console.toString().startsWith("Warning: Line 2 has invalid task type"));
+    }
+}
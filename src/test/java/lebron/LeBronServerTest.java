@@ -0,0 +1,201 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.common.ErrorType;
+import lebron.server.LeBronServer;
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+
+public class LeBronServerTest {
+    private static final String WELCOME = "Hello! I'm LeBron\nWhat can I do for you?";
+    private static final int CLIENTS = 50;
+    private static final int COMMANDS_PER_CLIENT = 40;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testSessionRunsCommands() throws IOException {
+        try (LeBronServer server = startServer(tcpAddress(), 4);
+                Client client = new Client(server.getLocalAddress())) {
+            assertEquals(WELCOME, client.readResponse());
+            assertEquals("Got it. I've added this task:", client.send("todo read book"));
+            assertEquals("Here are the tasks in your list:\n1.[T][ ] read book", client.send("list"));
+            assertEquals("", client.send(""));
+            assertEquals(ErrorType.UNKNOWN_COMMAND.getMessage(), client.send("dance"));
+            assertEquals("Bye. Hope to see you again soon!", client.send("bye"));
+            assertNull(client.readResponse());
+        }
+    }
+
+    @Test
+    public void testConnectionLimit() throws IOException {
+        try (LeBronServer server = startServer(tcpAddress(), 1);
+                Client first = new Client(server.getLocalAddress())) {
+            assertEquals(WELCOME, first.readResponse());
+            try (Client second = new Client(server.getLocalAddress())) {
+                assertEquals(ErrorType.SERVER_BUSY.getMessage(), second.readResponse());
+                assertNull(second.readResponse());
+            }
+
+            first.send("bye");
+            assertNull(first.readResponse());
+            try (Client third = connectWhenFree(server.getLocalAddress())) {
+                assertEquals("Got it. I've added this task:", third.send("todo read book"));
+            }
+        }
+    }
+
+    @Test
+    public void testManyClientsShareTasks() throws Exception {
+        try (LeBronServer server = startServer(tcpAddress(), CLIENTS)) {
+            SocketAddress address = server.getLocalAddress();
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientNumber = c;
+                clients.add(executor.submit(() -> {
+                    try (Client client = new Client(address)) {
+                        assertEquals(WELCOME, client.readResponse());
+                        for (int i = 0; i < COMMANDS_PER_CLIENT; i++) {
+                            String description = "client" + clientNumber + " task" + i;
+                            assertEquals("Got it. I've added this task:", client.send("todo " + description));
+                            assertEquals("Here are the matching tasks in your list:\n1.[T][ ] " + description,
+                                    client.send("find " + description));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> client : clients) {
+                client.get(60, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+
+            try (Client client = new Client(address)) {
+                client.readResponse();
+                String list = client.send("list");
+                assertEquals(CLIENTS * COMMANDS_PER_CLIENT + 1, list.split("\n").length);
+            }
+        }
+    }
+
+    @Test
+    public void testUnixDomainSocket() throws IOException {
+        SocketAddress address = UnixDomainSocketAddress.of(tempDir.resolve("lebron.sock"));
+        try (LeBronServer server = startServer(address, 4);
+                Client client = new Client(address)) {
+            assertEquals(WELCOME, client.readResponse());
+            assertEquals("Got it. I've added this task:", client.send("todo read book"));
+        }
+    }
+
+    @Test
+    public void testLongResponseIsWrittenInFull() throws IOException {
+        try (LeBronServer server = startServer(tcpAddress(), 4);
+                Client client = new Client(server.getLocalAddress())) {
+            client.readResponse();
+            for (int i = 0; i < 2000; i++) {
+                client.send("todo task number " + i + " with a fairly long description");
+            }
+            String list = client.send("list");
+            assertEquals(2001, list.split("\n").length);
+            assertTrue(list.endsWith("2000.[T][ ] task number 1999 with a fairly long description"));
+        }
+    }
+
+    private LeBronServer startServer(SocketAddress address, int maxConnections) throws IOException {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        LeBronServer server = new LeBronServer(taskManager, address, maxConnections);
+        server.start();
+        return server;
+    }
+
+    private static SocketAddress tcpAddress() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private static Client connectWhenFree(SocketAddress address) throws IOException {
+        // The server frees a slot just after the old session ends, so a retry or two may be needed
+        for (int attempt = 0; ; attempt++) {
+            Client client = new Client(address);
+            if (client.readResponse().equals(WELCOME) || attempt == 50) {
+                return client;
+            }
+            client.close();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * A minimal line-based client, reading responses up to the blank line that ends them.
+     */
+    private static class Client implements AutoCloseable {
+        private final SocketChannel channel;
+        private final BufferedReader reader;
+        private final Writer writer;
+
+        Client(SocketAddress address) throws IOException {
+            channel = address instanceof UnixDomainSocketAddress
+                    ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                    : SocketChannel.open();
+            channel.connect(address);
+            reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+                    StandardCharsets.UTF_8));
+            writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        }
+
+        String send(String command) throws IOException {
+            writer.write(command + "\n");
+            writer.flush();
+            return readResponse();
+        }
+
+        String readResponse() throws IOException {
+            StringBuilder response = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                if (response.length() > 0) {
+                    response.append('\n');
+                }
+                response.append(line);
+            }
+            return line == null && response.length() == 0 ? null : response.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
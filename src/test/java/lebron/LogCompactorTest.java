@@ -0,0 +1,78 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.storage.FileManager;
+import lebron.storage.LogCompactor;
+import lebron.task.Task;
+import lebron.task.ToDo;
+
+public class LogCompactorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCompactFoldsJournalIntoSnapshot() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        for (int i = 0; i < 10; i++) {
+            fileManager.appendTaskAdded(new ToDo("task " + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            fileManager.appendTaskMarked(i % 10);
+            fileManager.appendTaskUnmarked(i % 10);
+        }
+        fileManager.appendTaskMarked(3);
+
+        assertTrue(fileManager.compact());
+        assertEquals(0, fileManager.getJournalSize());
+        assertFalse(Files.exists(tempDir.resolve("lebron.journal")));
+        assertEquals(10, Files.readAllLines(tempDir.resolve("lebron.txt")).size());
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(10, loaded.size());
+        assertTrue(loaded.get(3).isDone());
+        assertFalse(loaded.get(4).isDone());
+    }
+
+    @Test
+    public void testChangesDuringCompactionAreKept() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        fileManager.appendTaskAdded(new ToDo("first"));
+        fileManager.compact();
+        fileManager.appendTaskAdded(new ToDo("second"));
+        fileManager.appendTaskDeleted(0);
+
+        ArrayList<Task> loaded = new FileManager(tempDir.toString()).loadTasks();
+        assertEquals(1, loaded.size());
+        assertEquals("second", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testCompactIfNeededRespectsThreshold() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        LogCompactor compactor = new LogCompactor(fileManager, 60_000, 3);
+        fileManager.appendTaskAdded(new ToDo("first"));
+        fileManager.appendTaskAdded(new ToDo("second"));
+        assertFalse(compactor.compactIfNeeded());
+
+        fileManager.appendTaskMarked(1);
+        assertTrue(compactor.compactIfNeeded());
+        assertEquals(0, fileManager.getJournalSize());
+    }
+
+    @Test
+    public void testNothingToCompact() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        assertFalse(fileManager.compact());
+    }
+}
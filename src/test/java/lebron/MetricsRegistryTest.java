@@ -0,0 +1,111 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.command.StatusCommand;
+import lebron.common.CommandType;
+import lebron.metrics.LatencyHistogram;
+import lebron.metrics.MetricsRegistry;
+import lebron.metrics.Phase;
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+
+public class MetricsRegistryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 100L);
+        }
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_050, histogram.getMeanNanos(), 1e-6);
+        assertWithinEighth(500_000, histogram.getPercentileNanos(0.5));
+        assertWithinEighth(990_000, histogram.getPercentileNanos(0.99));
+        assertEquals(1_000_000, histogram.getPercentileNanos(1));
+    }
+
+    @Test
+    public void testSmallAndHugeDurations() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(3, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(0));
+        assertEquals(3, histogram.getPercentileNanos(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(1));
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(0.99));
+    }
+
+    @Test
+    public void testCommandsAreTimedByTypeAndPhase() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.processCommand("todo read book");
+        taskManager.processCommand("list");
+        taskManager.processCommand("mark 5");
+        taskManager.processCommand("blah");
+
+        MetricsRegistry metrics = taskManager.getMetrics();
+        assertEquals(1, metrics.getCommand(CommandType.TODO).getCount());
+        assertEquals(1, metrics.getCommand(CommandType.LIST).getCount());
+        assertEquals(1, metrics.getCommand(CommandType.MARK).getCount());
+        assertEquals(1, metrics.getCommand(CommandType.UNKNOWN).getCount());
+        assertEquals(2, metrics.getErrorCount());
+        assertEquals(3, metrics.getPhase(Phase.PARSE).getCount());
+        assertEquals(3, metrics.getPhase(Phase.EXECUTE).getCount());
+        assertEquals(1, metrics.getPhase(Phase.PERSIST).getCount());
+        assertEquals(4, metrics.getPhase(Phase.RENDER).getCount());
+
+        String stats = taskManager.processCommand("stats");
+        assertTrue(stats.startsWith("Here is how long commands have been taking:"));
+        assertTrue(stats.contains("Commands: 4, errors: 2"));
+        assertTrue(stats.contains(System.lineSeparator() + "todo "));
+        assertTrue(stats.contains(System.lineSeparator() + "other "));
+        assertFalse(stats.contains(System.lineSeparator() + "find "));
+    }
+
+    @Test
+    public void testAddedCommandsAreTimedUnderTheirWord() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.getCommandRegistry().register("ping", (input, argStart) -> new StatusCommand());
+        taskManager.processCommand("ping");
+        taskManager.processCommand("ping now");
+
+        MetricsRegistry metrics = taskManager.getMetrics();
+        assertEquals(2, metrics.getCustomCommand("ping").getCount());
+        assertEquals(0, metrics.getCommand(CommandType.UNKNOWN).getCount());
+        String stats = taskManager.processCommand("stats");
+        assertTrue(stats.contains("Commands: 2, errors: 0"));
+        assertTrue(stats.contains(System.lineSeparator() + "ping "));
+        assertFalse(stats.contains(System.lineSeparator() + "other "));
+    }
+
+    @Test
+    public void testDumpWritesStatsToFile() throws IOException {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.recordCommand(CommandType.LIST, 1_500, false);
+        Path file = tempDir.resolve("metrics.txt");
+        metrics.dump(file);
+        String dumped = Files.readString(file);
+        assertTrue(dumped.startsWith("LeBron metrics at "));
+        assertTrue(dumped.contains("Commands: 1, errors: 0"));
+        assertTrue(dumped.contains("list"));
+    }
+
+    private static void assertWithinEighth(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 8, "expected about " + expected + " but was " + actual);
+    }
+}
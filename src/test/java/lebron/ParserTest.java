@@ -1,7 +1,12 @@
 package lebron;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
 
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +32,19 @@ public class ParserTest {
         assertEquals(CommandType.UNKNOWN, Parser.parseCommand("invalid command"));
     }
 
+    @Test
+    public void testParseCommandWordRules() {
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand("bye now"));
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand("mark"));
+        assertEquals(CommandType.MARK, Parser.parseCommand("mark "));
+        assertEquals(CommandType.LIST, Parser.parseCommand("list 25 12 2024"));
+        assertEquals(CommandType.TODO, Parser.parseCommand("todo"));
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand("todos"));
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand("to"));
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand(" list"));
+        assertEquals(CommandType.UNKNOWN, Parser.parseCommand(""));
+    }
+
     @Test
     public void testParseTaskNumber() throws LeBronException {
         assertEquals(1, Parser.parseTaskNumber("mark 1", 4));
@@ -63,6 +81,16 @@ public class ParserTest {
                      Parser.parseTodoDescription("todo buy groceries and cook dinner"));
     }
 
+    @Test
+    public void testParseWithArgumentStart() throws LeBronException {
+        assertEquals(7, Parser.parseTaskNumber("done    7 ", 5));
+        assertEquals("read book", Parser.parseTodoDescription("t read book", 2));
+        String[] result = Parser.parseDeadlineCommand("dl submit /by tomorrow", 3);
+        assertEquals("submit", result[0]);
+        assertEquals("tomorrow", result[1]);
+        assertThrows(LeBronException.class, () -> Parser.parseFindCommand("f", 2));
+    }
+
     @Test
     public void testParseTodoDescriptionEmpty() {
         assertThrows(LeBronException.class, () -> {
@@ -173,4 +201,42 @@ public class ParserTest {
             Parser.parseFindCommand("find   ");
         });
     }
+
+    @Test
+    public void testParseTaskSelection() throws LeBronException {
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(3);
+        expected.set(8, 12);
+        assertEquals(expected, Parser.parseTaskSelection("mark 1, 4,9-12,10", 5).toIndexes(20));
+        assertEquals(498, Parser.parseTaskSelection("delete 3-500", 7).toIndexes(500).cardinality());
+        assertEquals(3, Parser.parseTaskSelection("unmark all", 7).toIndexes(3).cardinality());
+        assertTrue(Parser.parseTaskSelection("mark 7", 5).isWithin(7));
+        assertFalse(Parser.parseTaskSelection("mark 7", 5).isWithin(6));
+        assertFalse(Parser.parseTaskSelection("mark all", 5).isWithin(0));
+    }
+
+    @Test
+    public void testParseTaskSelectionInvalid() {
+        String[] inputs = {"mark", "mark 0", "mark -1", "mark 1,", "mark 5-3", "mark 1-", "mark 1-2-3", "mark a,b"};
+        for (String input : inputs) {
+            assertThrows(LeBronException.class, () -> Parser.parseTaskSelection(input, 5), input);
+        }
+    }
+
+    @Test
+    public void testParseListPageCommand() throws LeBronException {
+        assertTrue(Parser.isListPageCommand("list page 2", 5));
+        assertFalse(Parser.isListPageCommand("list pages", 5));
+        assertFalse(Parser.isListPageCommand("list 12 02 2022", 5));
+        assertTrue(Parser.isListNextCommand("list  next ", 5));
+        assertArrayEquals(new int[] {2, 0}, Parser.parseListPageCommand("list page 2", 5));
+        assertArrayEquals(new int[] {3, 50}, Parser.parseListPageCommand("list page  3 size 50", 5));
+
+        String[] inputs = {"list page", "list page 0", "list page x", "list page 2 size", "list page 2 size 0",
+            "list page 2 limit 5", "list page 2 size 5 6"};
+        for (String input : inputs) {
+            assertThrows(LeBronException.class, () -> Parser.parseListPageCommand(input, 5), input);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+import lebron.task.TaskList;
+import lebron.task.ToDo;
+import lebron.ui.Response;
+import lebron.ui.Ui;
+
+public class ResponseTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testTasksAttachedInsteadOfPrinted() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDo("read book"));
+        taskList.addTask(new ToDo("buy groceries"));
+
+        Response response = new Response();
+        new Ui(response).showTaskList(taskList);
+
+        assertEquals("Here are the tasks in your list:", response.getText());
+        assertTrue(response.hasTasks());
+        assertEquals(2, response.getTasks().size());
+        assertSame(taskList.getTask(1), response.getTasks().get(1));
+        assertEquals("2.[T][ ] buy groceries", Ui.formatTaskRow(2, response.getTasks().get(1)));
+    }
+
+    @Test
+    public void testMessagesWithoutTasks() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+
+        Response added = taskManager.respond("todo read book");
+        assertEquals("Got it. I've added this task:", added.getText());
+        assertFalse(added.hasTasks());
+
+        Response missing = taskManager.respond("find nothing");
+        assertEquals("No matching tasks found for keyword: nothing", missing.getText());
+        assertFalse(missing.hasTasks());
+    }
+
+    @Test
+    public void testTextMatchesPlainResponse() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.processCommand("todo read book");
+        taskManager.processCommand("deadline submit report /by 2024-12-25 1800");
+
+        Response found = taskManager.respond("find re");
+        StringBuilder rows = new StringBuilder(found.getText());
+        for (int i = 0; i < found.getTasks().size(); i++) {
+            rows.append(System.lineSeparator()).append(Ui.formatTaskRow(i + 1, found.getTasks().get(i)));
+        }
+        assertEquals(taskManager.processCommand("find re"), rows.toString());
+    }
+
+    @Test
+    public void testListedTasksKeptAsListed() {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 200; i++) {
+            taskList.addTask(new ToDo("task " + i));
+        }
+
+        Response response = new Response();
+        new Ui(response).showTaskList(taskList);
+        assertEquals(200, response.getTasks().size());
+        assertEquals("task 150", response.getTasks().get(149).getDescription());
+        assertEquals("task 1", response.getTasks().get(0).getDescription());
+
+        // Later changes to the list don't reach the rows the response already holds
+        taskList.deleteTask(0);
+        assertEquals(200, response.getTasks().size());
+        assertEquals("task 1", response.getTasks().get(0).getDescription());
+        assertEquals("task 200", response.getTasks().get(199).getDescription());
+    }
+
+    @Test
+    public void testChangedTasksAreNotNumbered() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        for (int i = 1; i <= 12; i++) {
+            taskManager.processCommand("todo task " + i);
+        }
+
+        Response marked = taskManager.respond("mark 5,9,12");
+        assertEquals("Nice! I've marked these 3 tasks as done:", marked.getText());
+        assertFalse(marked.isNumbered());
+        assertEquals("[T][X] task 9", Ui.formatTask(marked.getTasks().get(1)));
+
+        Response listed = taskManager.respond("list");
+        assertTrue(listed.isNumbered());
+    }
+}
@@ -0,0 +1,193 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import lebron.common.LeBronException;
+import lebron.task.Deadline;
+import lebron.task.Event;
+import lebron.task.Task;
+import lebron.task.TaskList;
+import lebron.task.ToDo;
+
+public class TaskListConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int OPERATIONS_PER_WRITER = 3000;
+    private static final LocalDate TARGET_DATE = LocalDate.of(2024, 12, 25);
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        TaskList taskList = new TaskList();
+        // Build the indexes up front and also leave one to be built while writers run
+        taskList.findTasksByKeyword("task");
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                    taskList.addTask(createTask(writer, i));
+                    if (i % 3 == 2) {
+                        deleteFirst(taskList);
+                    }
+                    if (i % 5 == 0) {
+                        markLast(taskList);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            int reader = r;
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (isWriting.get()) {
+                    switch (reader % 4) {
+                    case 0:
+                        checkAll(taskList.findTasksByKeyword("report"), "report");
+                        break;
+                    case 1:
+                        checkOnDate(taskList.getTasksOnDate(TARGET_DATE));
+                        break;
+                    case 2:
+                        checkAll(taskList.findTasksByKeyword("w1"), "w1");
+                        break;
+                    default:
+                        int size = taskList.size();
+                        assertTrue(size >= 0);
+                        if (size > 0) {
+                            readFirst(taskList);
+                        }
+                        break;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(60, TimeUnit.SECONDS);
+        }
+        isWriting.set(false);
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int expectedSize = WRITERS * (OPERATIONS_PER_WRITER - OPERATIONS_PER_WRITER / 3);
+        assertEquals(expectedSize, taskList.size());
+        assertEquals(expectedSize, taskList.getTasks().size());
+        assertSameTasks(scanByKeyword(taskList, "report"), taskList.findTasksByKeyword("report"));
+        assertSameTasks(scanByKeyword(taskList, "w2 task 1"), taskList.findTasksByKeyword("w2 task 1"));
+        assertSameTasks(scanByDate(taskList), taskList.getTasksOnDate(TARGET_DATE));
+    }
+
+    private static Task createTask(int writer, int i) throws LeBronException {
+        String description = "w" + writer + " task " + i;
+        switch (i % 3) {
+        case 0:
+            return new ToDo(description);
+        case 1:
+            return new Deadline(description + " report", "2024-12-" + (20 + i % 10) + " 1800");
+        default:
+            return new Event(description, "2024-12-2" + (i % 6) + " 1400", "2024-12-26 1600");
+        }
+    }
+
+    private static void deleteFirst(TaskList taskList) {
+        try {
+            taskList.deleteTask(0);
+        } catch (IndexOutOfBoundsException e) {
+            // Another writer emptied the list first
+        }
+    }
+
+    private static void markLast(TaskList taskList) {
+        try {
+            taskList.markTask(taskList.size() - 1);
+        } catch (IndexOutOfBoundsException e) {
+            // The list shrank in between
+        }
+    }
+
+    private static void readFirst(TaskList taskList) {
+        try {
+            assertNotNull(taskList.getTask(0));
+        } catch (IndexOutOfBoundsException e) {
+            // The list shrank in between
+        }
+    }
+
+    private static void checkAll(TaskList matches, String keyword) {
+        for (Task task : matches.getTasks()) {
+            assertTrue(task.getDescription().toLowerCase().contains(keyword));
+        }
+    }
+
+    private static void checkOnDate(TaskList matches) {
+        for (Task task : matches.getTasks()) {
+            assertTrue(isOnTargetDate(task));
+        }
+    }
+
+    private static ArrayList<Task> scanByKeyword(TaskList taskList, String keyword) {
+        ArrayList<Task> matches = new ArrayList<>();
+        for (Task task : taskList.getTasks()) {
+            if (task.getDescription().toLowerCase().contains(keyword)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static ArrayList<Task> scanByDate(TaskList taskList) {
+        ArrayList<Task> matches = new ArrayList<>();
+        for (Task task : taskList.getTasks()) {
+            if (isOnTargetDate(task)) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean isOnTargetDate(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getBy().toLocalDate().equals(TARGET_DATE);
+        }
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            return !event.getFrom().toLocalDate().isAfter(TARGET_DATE)
+                && !event.getTo().toLocalDate().isBefore(TARGET_DATE);
+        }
+        return false;
+    }
+
+    private static void assertSameTasks(ArrayList<Task> expected, TaskList actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), actual.getTask(i));
+        }
+    }
+}
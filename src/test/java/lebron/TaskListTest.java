@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import lebron.common.LeBronException;
 import lebron.task.Deadline;
 import lebron.task.Event;
 import lebron.task.Task;
+import lebron.task.TaskLayout;
 import lebron.task.TaskList;
 import lebron.task.ToDo;
 
@@ -208,4 +211,190 @@ public class TaskListTest {
         assertEquals(0, results.size());
         assertTrue(results.isEmpty());
     }
+
+    @Test
+    public void testFindTasksByKeywordAfterChanges() {
+        String[] words = {"book", "Bookshelf", "notebook", "groceries", "boo", "ebook reader", "bOoKs"};
+        for (int i = 0; i < 50; i++) {
+            taskList.addTask(new ToDo(words[i % words.length] + " " + i));
+        }
+
+        // Build the index, then keep changing the list
+        assertEquals(36, taskList.findTasksByKeyword("book").size());
+        taskList.deleteTask(0);
+        taskList.deleteTask(10);
+        taskList.addTask(new ToDo("another BOOK"));
+
+        for (String keyword : new String[] {"book", "BOOK", "books", "ook", "bo", "o", "shelf", "e 1", "missing"}) {
+            String lowerKeyword = keyword.toLowerCase();
+            ArrayList<Task> expected = new ArrayList<>();
+            for (Task task : taskList.getTasks()) {
+                if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                    expected.add(task);
+                }
+            }
+            assertEquals(expected, taskList.findTasksByKeyword(keyword).getTasks());
+        }
+    }
+
+    @Test
+    public void testGetTasksOnDateAfterChanges() throws LeBronException {
+        Event conference = new Event("Conference", "2024-12-20 0900", "2024-12-27 1700");
+        Deadline otherDeadline = new Deadline("Other task", "2024-12-25 0800");
+        taskList.addTask(conference);
+        taskList.addTask(deadline);
+        taskList.addTask(event);
+        LocalDate christmas = LocalDate.of(2024, 12, 25);
+
+        // Build the index, then keep changing the list
+        assertEquals(3, taskList.getTasksOnDate(christmas).size());
+        taskList.deleteTask(1);
+        taskList.addTask(otherDeadline);
+        taskList.addTask(todo);
+
+        var tasks = taskList.getTasksOnDate(christmas).getTasks();
+        assertEquals(3, tasks.size());
+        assertEquals(conference, tasks.get(0));
+        assertEquals(event, tasks.get(1));
+        assertEquals(otherDeadline, tasks.get(2));
+        assertEquals(1, taskList.getTasksOnDate(LocalDate.of(2024, 12, 20)).size());
+        assertEquals(0, taskList.getTasksOnDate(LocalDate.of(2024, 12, 28)).size());
+    }
+
+    @Test
+    public void testDeleteTasksCompactsList() {
+        for (int i = 0; i < 10; i++) {
+            taskList.addTask(new ToDo("task " + i));
+        }
+        // Build the index, so removing several tasks has to keep it up to date
+        assertEquals(10, taskList.findTasksByKeyword("task").size());
+        BitSet indexes = new BitSet();
+        indexes.set(2, 5);
+        indexes.set(7);
+
+        ArrayList<Task> removed = taskList.deleteTasks(indexes);
+        assertEquals(4, removed.size());
+        assertEquals("task 2", removed.get(0).getDescription());
+        assertEquals("task 7", removed.get(3).getDescription());
+        assertEquals(6, taskList.size());
+        String[] expected = {"task 0", "task 1", "task 5", "task 6", "task 8", "task 9"};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], taskList.getTask(i).getDescription());
+        }
+        assertEquals(6, taskList.findTasksByKeyword("task").size());
+        assertEquals(0, taskList.findTasksByKeyword("task 3").size());
+    }
+
+    @Test
+    public void testMarkAndUnmarkTasks() {
+        taskList.addTask(todo);
+        taskList.addTask(deadline);
+        taskList.addTask(event);
+        BitSet indexes = new BitSet();
+        indexes.set(0);
+        indexes.set(2);
+
+        assertEquals(2, taskList.markTasks(indexes).size());
+        assertTrue(todo.isDone());
+        assertFalse(deadline.isDone());
+        assertTrue(event.isDone());
+        taskList.unmarkTasks(indexes);
+        assertFalse(todo.isDone());
+        assertFalse(event.isDone());
+    }
+
+    @Test
+    public void testBulkChangesInvalidIndex() {
+        taskList.addTask(todo);
+        BitSet indexes = new BitSet();
+        indexes.set(0, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.deleteTasks(indexes));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.markTasks(indexes));
+        assertEquals(1, taskList.size());
+        assertFalse(todo.isDone());
+    }
+
+    @Test
+    public void testCompactLayoutMatchesObjects() throws LeBronException {
+        ArrayList<Task> initial = new ArrayList<>();
+        initial.add(todo);
+        initial.add(deadline);
+        initial.add(event);
+        initial.add(new ToDo("caf\u00e9 \u2615 " + "long description ".repeat(20)));
+        TaskList objects = new TaskList(initial, TaskLayout.OBJECTS);
+        TaskList compact = new TaskList(initial, TaskLayout.COMPACT);
+        for (TaskList taskList : new TaskList[] {objects, compact}) {
+            for (int i = 0; i < 50; i++) {
+                taskList.addTask(i % 2 == 0
+                        ? new ToDo("chore " + i)
+                        : new Deadline("report " + i, LocalDateTime.of(2024, 12, 1 + i % 28, 9, 30)));
+            }
+            taskList.markTask(1);
+            taskList.deleteTask(0);
+            BitSet indexes = new BitSet();
+            indexes.set(10, 40);
+            taskList.markTasks(indexes);
+            indexes.set(4);
+            taskList.deleteTasks(indexes);
+            taskList.unmarkTask(2);
+        }
+
+        assertEquals(22, compact.size());
+        assertEquals(describe(objects.getTasks()), describe(compact.getTasks()));
+        assertEquals(describe(objects.findTasksByKeyword("report").getTasks()),
+                describe(compact.findTasksByKeyword("report").getTasks()));
+        assertEquals(describe(objects.findTasksByKeyword("\u2615").getTasks()),
+                describe(compact.findTasksByKeyword("\u2615").getTasks()));
+        LocalDate christmas = LocalDate.of(2024, 12, 25);
+        assertEquals(describe(objects.getTasksOnDate(christmas).getTasks()),
+                describe(compact.getTasksOnDate(christmas).getTasks()));
+    }
+
+    @Test
+    public void testCompactLayoutWithRepeatedDescriptions() {
+        TaskList objects = new TaskList(new ArrayList<>(), TaskLayout.OBJECTS);
+        TaskList compact = new TaskList(new ArrayList<>(), TaskLayout.COMPACT);
+        for (TaskList taskList : new TaskList[] {objects, compact}) {
+            // Enough churn to grow the description table and compact the heap several times over
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 100; i++) {
+                    taskList.addTask(new ToDo("chore " + (i % 7) + " " + "x".repeat(i % 3 * 40)));
+                }
+                BitSet indexes = new BitSet();
+                for (int i = round % 2; i < taskList.size(); i += 2) {
+                    indexes.set(i);
+                }
+                taskList.deleteTasks(indexes);
+            }
+        }
+
+        assertEquals(objects.size(), compact.size());
+        assertEquals(describe(objects.getTasks()), describe(compact.getTasks()));
+        assertEquals(describe(objects.findTasksByKeyword("chore 3").getTasks()),
+                describe(compact.findTasksByKeyword("chore 3").getTasks()));
+    }
+
+    private static String describe(ArrayList<Task> tasks) {
+        StringBuilder description = new StringBuilder();
+        for (Task task : tasks) {
+            description.append(task.getTypeIcon()).append(task.getStatusIcon()).append(task.getFullDescription())
+                    .append('\n');
+        }
+        return description.toString();
+    }
+
+    @Test
+    public void testGetTasksRange() {
+        taskList.addTask(todo);
+        taskList.addTask(deadline);
+        taskList.addTask(event);
+
+        var tasks = taskList.getTasks(1, 3);
+        assertEquals(2, tasks.size());
+        assertEquals(deadline, tasks.get(0));
+        assertEquals(event, tasks.get(1));
+        assertTrue(taskList.getTasks(3, 3).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.getTasks(2, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.getTasks(2, 1));
+    }
 }
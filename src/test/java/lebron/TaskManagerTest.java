@@ -0,0 +1,296 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+import lebron.task.Task;
+import lebron.task.ToDo;
+import lebron.ui.ListCursor;
+import lebron.ui.Response;
+import lebron.ui.Ui;
+
+public class TaskManagerTest {
+    private static final int THREADS = 8;
+    private static final int COMMANDS_PER_THREAD = 200;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testProcessCommandReturnsResponse() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+
+        assertEquals("Got it. I've added this task:", taskManager.processCommand("todo read book"));
+        assertEquals("Here are the tasks in your list:" + System.lineSeparator() + "1.[T][ ] read book",
+                taskManager.processCommand("list"));
+        assertEquals("Invalid task number.", taskManager.processCommand("mark 2"));
+        assertEquals("", taskManager.processCommand("   "));
+    }
+
+    @Test
+    public void testProcessCommandLeavesSystemOutAlone() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console));
+        try {
+            taskManager.processCommand("todo read book");
+            taskManager.processCommand("list");
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertEquals(0, console.size());
+    }
+
+    @Test
+    public void testConcurrentCallersGetTheirOwnResponses() throws Exception {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> callers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            callers.add(executor.submit(() -> {
+                for (int i = 0; i < COMMANDS_PER_THREAD; i++) {
+                    String description = "caller" + thread + " task" + i;
+                    assertEquals("Got it. I've added this task:", taskManager.processCommand("todo " + description));
+
+                    String found = taskManager.processCommand("find " + description);
+                    assertEquals("Here are the matching tasks in your list:" + System.lineSeparator()
+                            + "1.[T][ ] " + description, found);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> caller : callers) {
+            caller.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        String list = taskManager.processCommand("list");
+        assertEquals(THREADS * COMMANDS_PER_THREAD + 1, list.split(System.lineSeparator()).length);
+    }
+
+    @Test
+    public void testBatchOutputMatchesInteractiveSession() throws Exception {
+        String script = String.join(System.lineSeparator(), "todo read book",
+                "deadline return book /by 2024-12-25 1800", "mark 1", "list", "find book", "mark 9", "dance", "",
+                "delete 1", "list", "bye", "todo ignored");
+
+        PrintStream originalOut = System.out;
+        InputStream originalIn = System.in;
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console, true));
+        System.setIn(new ByteArrayInputStream(script.getBytes()));
+        try {
+            new TaskManager(new Storage(new FileManager(tempDir.resolve("interactive").toString()))).run();
+        } finally {
+            System.setOut(originalOut);
+            System.setIn(originalIn);
+        }
+
+        TaskManager batchManager = new TaskManager(new Storage(new FileManager(tempDir.resolve("batch").toString())));
+        StringWriter batchOutput = new StringWriter();
+        long commandCount = batchManager.runBatch(new BufferedReader(new StringReader(script)), batchOutput);
+
+        assertEquals(11, commandCount);
+        assertEquals(console.toString(), batchOutput.toString());
+
+        // Changes made in the batch are on disk once it finishes
+        TaskManager reopened = new TaskManager(new Storage(new FileManager(tempDir.resolve("batch").toString())));
+        String[] rows = reopened.processCommand("list").split(System.lineSeparator());
+        assertEquals(2, rows.length);
+        assertTrue(rows[1].startsWith("1.[D][ ] return book"));
+    }
+
+    @Test
+    public void testBulkCommandsAreSavedAsOneRecordEach() throws IOException {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        TaskManager taskManager = new TaskManager(new Storage(fileManager));
+        for (int i = 1; i <= 6; i++) {
+            taskManager.processCommand("todo task " + i);
+        }
+        int journalSize = fileManager.getJournalSize();
+
+        String nl = System.lineSeparator();
+        assertEquals("Nice! I've marked these 3 tasks as done:" + nl
+                + "[T][X] task 1" + nl + "[T][X] task 4" + nl + "[T][X] task 5",
+                taskManager.processCommand("mark 1,4-5"));
+        assertEquals("Nice! I've marked this task as done:" + nl + "[X] task 2", taskManager.processCommand("mark 2"));
+        assertEquals("Invalid task number.", taskManager.processCommand("delete 5-7"));
+        assertEquals("Noted. I've removed these 2 tasks:" + nl
+                + "[T][X] task 2" + nl + "[T][ ] task 3" + nl + "Now you have 4 tasks in the list.",
+                taskManager.processCommand("delete 2-3"));
+        assertEquals(journalSize + 3, fileManager.getJournalSize());
+
+        String expected = "Here are the tasks in your list:" + nl
+                + "1.[T][X] task 1" + nl + "2.[T][X] task 4" + nl + "3.[T][X] task 5" + nl + "4.[T][ ] task 6";
+        assertEquals(expected, taskManager.processCommand("list"));
+        fileManager.close();
+        TaskManager reopened = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        assertEquals(expected, reopened.processCommand("list"));
+    }
+
+    @Test
+    public void testCommandsWaitForBackgroundLoad() throws Exception {
+        FileManager saved = new FileManager(tempDir.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("read book"));
+        tasks.add(new ToDo("buy groceries"));
+        saved.saveTasks(tasks);
+        saved.close();
+
+        CountDownLatch release = new CountDownLatch(1);
+        FileManager slowFileManager = new FileManager(tempDir.toString()) {
+            @Override
+            public ArrayList<Task> loadTasks() throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return super.loadTasks();
+            }
+        };
+        TaskManager taskManager = new TaskManager(new Storage(slowFileManager));
+        assertFalse(taskManager.isLoaded());
+        assertEquals("Still loading your saved tasks... 0%", taskManager.processCommand("status"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> list = executor.submit(() -> taskManager.processCommand("list"));
+            Thread.sleep(50);
+            assertFalse(list.isDone());
+            release.countDown();
+            assertEquals("Here are the tasks in your list:" + System.lineSeparator() + "1.[T][ ] read book"
+                    + System.lineSeparator() + "2.[T][ ] buy groceries", list.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(taskManager.isLoaded());
+        assertEquals(1.0, slowFileManager.getLoadProgress(), 1e-9);
+        assertEquals("All your saved tasks are loaded. You have 2 tasks in the list.",
+                taskManager.processCommand("status"));
+    }
+
+    @Test
+    public void testChangesAreRefusedAfterFailedLoad() throws IOException {
+        FileManager brokenFileManager = new FileManager(tempDir.toString()) {
+            @Override
+            public ArrayList<Task> loadTasks() throws IOException {
+                throw new IOException("disk unreadable");
+            }
+        };
+        TaskManager taskManager = new TaskManager(new Storage(brokenFileManager));
+        String refused = "Your saved tasks could not be loaded, so I won't change the list in case that overwrites "
+                + "them. Please check your data folder and restart.";
+        assertEquals(refused, taskManager.processCommand("todo read book"));
+        assertEquals(refused, taskManager.processCommand("delete 1"));
+        assertEquals("No tasks found.", taskManager.processCommand("list"));
+        assertEquals(0, brokenFileManager.getJournalSize());
+    }
+
+    @Test
+    public void testProfileRecordsCommandEvents() throws Exception {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.awaitLoaded();
+        assertEquals("No profile is being recorded. Use profile start to begin one.",
+                taskManager.processCommand("profile stop"));
+        assertEquals("Please use profile start or profile stop.", taskManager.processCommand("profile pause"));
+
+        assertEquals("Recording a profile. Use profile stop to save it.", taskManager.processCommand("profile start"));
+        assertEquals("A profile is already being recorded. Use profile stop to save it.",
+                taskManager.processCommand("profile start"));
+        taskManager.processCommand("todo read book");
+        taskManager.processCommand("find book");
+        taskManager.processCommand("todo write essay");
+        taskManager.processCommand("delete 1");
+        String saved = taskManager.processCommand("profile stop");
+        assertTrue(saved.startsWith("Saved the profile to "));
+
+        Path file = Paths.get(saved.substring("Saved the profile to ".length(), saved.indexOf(".jfr") + 4));
+        assertTrue(Files.exists(file));
+        assertEquals(tempDir, file.getParent());
+        List<String> commands = new ArrayList<>();
+        List<String> indexUpdates = new ArrayList<>();
+        boolean hasIndexBuild = false;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            String name = event.getEventType().getName();
+            if (name.equals("lebron.Command")) {
+                commands.add(event.getString("commandType") + " " + event.getInt("taskCount"));
+            } else if (name.equals("lebron.IndexBuild")) {
+                hasIndexBuild = true;
+            } else if (name.equals("lebron.IndexUpdate")) {
+                indexUpdates.add(event.getString("change") + " " + event.getInt("taskCount"));
+            }
+        }
+        assertTrue(commands.contains("TODO 1"));
+        assertTrue(commands.contains("FIND 1"));
+        assertTrue(hasIndexBuild);
+        // Only changes made once the find built the indexes update them
+        assertEquals(List.of("add 1", "remove 1"), indexUpdates);
+    }
+
+    @Test
+    public void testListPagesAndNext() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        for (int i = 1; i <= 5; i++) {
+            taskManager.processCommand("todo task " + i);
+        }
+        String separator = System.lineSeparator();
+
+        assertEquals("Here are tasks 3-4 of 5 in your list (page 2 of 3):" + separator + "3.[T][ ] task 3"
+                + separator + "4.[T][ ] task 4" + separator + "Use list next to see more.",
+                taskManager.processCommand("list page 2 size 2"));
+        assertEquals("Here are tasks 5-5 of 5 in your list (page 3 of 3):" + separator + "5.[T][ ] task 5",
+                taskManager.processCommand("list next"));
+        assertEquals("No more tasks to show. Use list page 1 to start over.", taskManager.processCommand("list next"));
+        assertEquals("There is no page 4. Your list has 3 page(s).", taskManager.processCommand("list page 4"));
+        assertTrue(taskManager.processCommand("list page 1 size 20").startsWith("Here are tasks 1-5 of 5"));
+
+        // Every caller that brings its own cursor pages through the list on its own
+        StringBuilder other = new StringBuilder();
+        taskManager.processCommand("list next", other, new ListCursor());
+        assertTrue(other.toString().startsWith("Here are tasks 1-5 of 5 in your list (page 1 of 1):"));
+        Response own = taskManager.respond("list next", new ListCursor());
+        assertEquals(5, own.getTasks().size());
+        assertEquals(1, own.getFirstNumber());
+    }
+
+    @Test
+    public void testResponseUsesGivenLineSeparator() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.processCommand("todo read book");
+
+        StringBuilder out = new StringBuilder();
+        taskManager.processCommand("list", out, new ListCursor(), Ui.PROTOCOL_LINE_SEPARATOR);
+        assertEquals("Here are the tasks in your list:\n1.[T][ ] read book\n", out.toString());
+    }
+}
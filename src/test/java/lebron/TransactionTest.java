@@ -0,0 +1,300 @@
+package lebron;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lebron.common.LeBronException;
+import lebron.storage.FileManager;
+import lebron.storage.Storage;
+import lebron.task.Deadline;
+import lebron.task.Task;
+import lebron.task.TaskLayout;
+import lebron.task.TaskList;
+import lebron.task.ToDo;
+import lebron.task.TransactionView;
+
+public class TransactionTest {
+    private static final String NL = System.lineSeparator();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRollbackRestoresTaskList() throws LeBronException {
+        TaskList taskList = new TaskList();
+        Task book = new ToDo("read book");
+        Task report = new Deadline("submit report", "2024-12-25 1800");
+        Task groceries = new ToDo("buy groceries");
+        taskList.addTask(book);
+        taskList.addTask(report);
+        taskList.addTask(groceries);
+        // Build the indexes so the rollback has to keep them up to date
+        assertEquals(1, taskList.findTasksByKeyword("report").size());
+
+        taskList.beginTransaction();
+        taskList.markTask(0);
+        taskList.deleteTask(1);
+        taskList.addTask(new ToDo("write report"));
+        taskList.deleteTask(0);
+        taskList.unmarkTask(0);
+        assertEquals(5, taskList.rollback());
+
+        assertFalse(taskList.isInTransaction());
+        assertEquals(3, taskList.size());
+        assertSame(book, taskList.getTask(0));
+        assertSame(report, taskList.getTask(1));
+        assertSame(groceries, taskList.getTask(2));
+        assertFalse(book.isDone());
+        assertEquals(1, taskList.findTasksByKeyword("report").size());
+        assertSame(report, taskList.getTasksOnDate(LocalDate.of(2024, 12, 25)).getTask(0));
+    }
+
+    @Test
+    public void testCommitKeepsChanges() {
+        TaskList taskList = new TaskList();
+        taskList.addTask(new ToDo("read book"));
+        taskList.beginTransaction();
+        taskList.markTask(0);
+        taskList.addTask(new ToDo("buy groceries"));
+        assertEquals(2, taskList.commit());
+
+        assertEquals(2, taskList.size());
+        assertTrue(taskList.getTask(0).isDone());
+        assertThrows(IllegalStateException.class, taskList::rollback);
+    }
+
+    @Test
+    public void testCommittedChangesAreSaved() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.processCommand("todo read book");
+        assertEquals("OK, I'll hold on to your changes until you commit or roll back.",
+                taskManager.processCommand("begin"));
+        taskManager.processCommand("todo buy groceries");
+        taskManager.processCommand("mark 1");
+        assertEquals("Committed 2 change(s).", taskManager.processCommand("commit"));
+
+        taskManager.processCommand("begin");
+        taskManager.processCommand("delete 1");
+        taskManager.processCommand("todo write essay");
+        assertEquals("Rolled back 2 change(s).", taskManager.processCommand("rollback"));
+
+        String expected = "Here are the tasks in your list:" + NL
+                + "1.[T][X] read book" + NL
+                + "2.[T][ ] buy groceries";
+        assertEquals(expected, taskManager.processCommand("list"));
+        TaskManager reopened = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        assertEquals(expected, reopened.processCommand("list"));
+    }
+
+    @Test
+    public void testTransactionErrors() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        assertEquals("There is no open transaction. Use begin to start one.", taskManager.processCommand("commit"));
+        assertEquals("There is no open transaction. Use begin to start one.", taskManager.processCommand("rollback"));
+        taskManager.processCommand("begin");
+        assertEquals("A transaction is already open. Commit or roll it back first.",
+                taskManager.processCommand("begin"));
+        assertEquals("Sorry! I don't know what that means :(", taskManager.processCommand("commit now"));
+        taskManager.processCommand("rollback");
+    }
+
+    @Test
+    public void testOtherSessionsCarryOnDuringTransaction() throws Exception {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            taskManager.processCommand("todo read book");
+            taskManager.processCommand("begin");
+            taskManager.processCommand("todo buy groceries");
+            taskManager.processCommand("mark 1");
+
+            // The other session neither waits for the transaction nor sees its changes
+            String before = "Here are the tasks in your list:" + NL + "1.[T][ ] read book";
+            Future<String> list = other.submit(() -> taskManager.processCommand("list"));
+            assertEquals(before, list.get(10, TimeUnit.SECONDS));
+            Future<String> begin = other.submit(() -> taskManager.processCommand("begin"));
+            assertEquals("OK, I'll hold on to your changes until you commit or roll back.",
+                    begin.get(10, TimeUnit.SECONDS));
+            other.submit(() -> taskManager.processCommand("rollback")).get(10, TimeUnit.SECONDS);
+
+            assertEquals("Committed 2 change(s).", taskManager.processCommand("commit"));
+            String after = "Here are the tasks in your list:" + NL
+                    + "1.[T][X] read book" + NL
+                    + "2.[T][ ] buy groceries";
+            assertEquals(after, other.submit(() -> taskManager.processCommand("list")).get(10, TimeUnit.SECONDS));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testConflictingCommitIsRolledBack() throws Exception {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        TaskManager taskManager = new TaskManager(new Storage(fileManager));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            taskManager.processCommand("todo read book");
+            taskManager.processCommand("todo buy groceries");
+            taskManager.processCommand("begin");
+            taskManager.processCommand("mark 1");
+            taskManager.processCommand("todo write essay");
+            other.submit(() -> taskManager.processCommand("delete 1")).get(10, TimeUnit.SECONDS);
+
+            assertEquals("A task you marked or unmarked was deleted elsewhere while your transaction was open, "
+                    + "so it was rolled back. Please try again.", taskManager.processCommand("commit"));
+            String expected = "Here are the tasks in your list:" + NL + "1.[T][ ] buy groceries";
+            assertEquals(expected, taskManager.processCommand("list"));
+            fileManager.close();
+            TaskManager reopened = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+            assertEquals(expected, reopened.processCommand("list"));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnrelatedChangesDoNotConflict() throws Exception {
+        FileManager fileManager = new FileManager(tempDir.toString());
+        TaskManager taskManager = new TaskManager(new Storage(fileManager));
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            taskManager.processCommand("todo read book");
+            taskManager.processCommand("todo buy groceries");
+            taskManager.processCommand("todo write essay");
+            taskManager.processCommand("begin");
+            taskManager.processCommand("delete 3");
+            taskManager.processCommand("mark 2");
+            other.submit(() -> taskManager.processCommand("delete 1")).get(10, TimeUnit.SECONDS);
+
+            assertEquals("Committed 2 change(s).", taskManager.processCommand("commit"));
+            String expected = "Here are the tasks in your list:" + NL + "1.[T][X] buy groceries";
+            assertEquals(expected, taskManager.processCommand("list"));
+            fileManager.close();
+            TaskManager reopened = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+            assertEquals(expected, reopened.processCommand("list"));
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    public void testViewKeepsChangesToItself() throws LeBronException {
+        TaskList taskList = new TaskList();
+        Task book = new ToDo("read book");
+        Task report = new Deadline("submit report", "2024-12-25 1800");
+        taskList.addTask(book);
+        taskList.addTask(report);
+        taskList.addTask(new ToDo("buy groceries"));
+
+        TransactionView view = new TransactionView(taskList);
+        view.markTask(0);
+        view.deleteTask(1);
+        view.addTask(new Deadline("review report", "2024-12-25 0900"));
+        assertEquals(3, view.getChangeCount());
+
+        // The shared list is untouched, down to the task objects
+        assertEquals(3, taskList.size());
+        assertFalse(book.isDone());
+        assertSame(report, taskList.getTask(1));
+
+        assertEquals(3, view.size());
+        assertTrue(view.getTask(0).isDone());
+        assertEquals("buy groceries", view.getTask(1).getDescription());
+        assertEquals("review report", view.getTask(2).getDescription());
+        assertEquals(1, view.findTasksByKeyword("report").size());
+        assertEquals("review report", view.getTasksOnDate(LocalDate.of(2024, 12, 25)).getTask(0).getDescription());
+        assertEquals(1, view.getTasksOnDate(LocalDate.of(2024, 12, 25)).size());
+        assertTrue(view.findTasksByKeyword("book").getTask(0).isDone());
+
+        view.apply();
+        assertEquals(3, taskList.size());
+        assertTrue(taskList.getTask(0).isDone());
+        assertEquals("buy groceries", taskList.getTask(1).getDescription());
+        assertEquals("review report", taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void testAbandonedTransactionIsRolledBack() {
+        TaskManager taskManager = new TaskManager(new Storage(new FileManager(tempDir.toString())));
+        taskManager.processCommand("begin");
+        taskManager.processCommand("todo read book");
+        taskManager.abandonTransaction();
+        assertEquals("No tasks found.", taskManager.processCommand("list"));
+        assertEquals("There is no open transaction. Use begin to start one.", taskManager.processCommand("commit"));
+    }
+
+    @Test
+    public void testRollbackRestoresBulkChanges() {
+        TaskList taskList = new TaskList();
+        Task[] tasks = new Task[6];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new ToDo("task " + i);
+            taskList.addTask(tasks[i]);
+        }
+        tasks[1].markAsDone();
+        assertEquals(6, taskList.findTasksByKeyword("task").size());
+        BitSet odd = new BitSet();
+        odd.set(1);
+        odd.set(3);
+        odd.set(5);
+        BitSet first = new BitSet();
+        first.set(0, 2);
+
+        taskList.beginTransaction();
+        taskList.unmarkTasks(odd);
+        taskList.deleteTasks(odd);
+        taskList.markTasks(first);
+        assertEquals(3, taskList.rollback());
+
+        assertEquals(6, taskList.size());
+        for (int i = 0; i < tasks.length; i++) {
+            assertSame(tasks[i], taskList.getTask(i));
+            assertEquals(i == 1, tasks[i].isDone());
+        }
+        assertEquals(6, taskList.findTasksByKeyword("task").size());
+        // Tasks added after the rollback still get numbers after the restored ones
+        taskList.addTask(new ToDo("task 6"));
+        assertEquals(1, taskList.findTasksByKeyword("task 6").size());
+        assertEquals(7, taskList.findTasksByKeyword("task").size());
+    }
+
+    @Test
+    public void testRollbackInCompactLayout() {
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            initial.add(new ToDo("task " + i));
+        }
+        TaskList taskList = new TaskList(initial, TaskLayout.COMPACT);
+        BitSet middle = new BitSet();
+        middle.set(1, 4);
+
+        taskList.beginTransaction();
+        taskList.markTask(0);
+        taskList.markTasks(middle);
+        taskList.deleteTasks(middle);
+        taskList.deleteTask(0);
+        taskList.addTask(new ToDo("task 5"));
+        assertEquals(5, taskList.rollback());
+
+        assertEquals(5, taskList.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("task " + i, taskList.getTask(i).getDescription());
+            assertFalse(taskList.getTask(i).isDone());
+        }
+    }
+}